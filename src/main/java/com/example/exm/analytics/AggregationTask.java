@@ -0,0 +1,88 @@
+package com.example.exm.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join scan over a row range: splits until ranges are small enough, then sums cents, units and lines per
+ * group code for the rows that pass the day and status filters. Results are totals keyed by group code.
+ */
+final class AggregationTask extends RecursiveTask<Map<Integer, long[]>> {
+
+    static final int CENTS = 0;
+    static final int UNITS = 1;
+    static final int LINES = 2;
+
+    private static final int LEAF_ROWS = 1 << 15;
+
+    private final OrderLineColumns columns;
+    private final GroupBy groupBy;
+    private final int fromDay;
+    private final int toDay;
+    private final boolean[] statusMask;
+    private final int start;
+    private final int end;
+
+    AggregationTask(OrderLineColumns columns, GroupBy groupBy, int fromDay, int toDay, boolean[] statusMask,
+                    int start, int end) {
+        this.columns = columns;
+        this.groupBy = groupBy;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.statusMask = statusMask;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected Map<Integer, long[]> compute() {
+        if (end - start <= LEAF_ROWS) {
+            return scan();
+        }
+        int middle = (start + end) >>> 1;
+        AggregationTask left = new AggregationTask(columns, groupBy, fromDay, toDay, statusMask, start, middle);
+        AggregationTask right = new AggregationTask(columns, groupBy, fromDay, toDay, statusMask, middle, end);
+        left.fork();
+        Map<Integer, long[]> totals = right.compute();
+        left.join().forEach((key, values) -> totals.merge(key, values, AggregationTask::add));
+        return totals;
+    }
+
+    private Map<Integer, long[]> scan() {
+        int[] days = columns.epochDays;
+        byte[] statuses = columns.statuses;
+        long[] cents = columns.cents;
+        int[] units = columns.units;
+
+        Map<Integer, long[]> totals = new HashMap<>();
+        for (int row = start; row < end; row++) {
+            int day = days[row];
+            if (day < fromDay || day > toDay || !statusMask[statuses[row]]) {
+                continue;
+            }
+            long[] group = totals.computeIfAbsent(groupCode(row), key -> new long[3]);
+            group[CENTS] += cents[row];
+            group[UNITS] += units[row];
+            group[LINES]++;
+        }
+        return totals;
+    }
+
+    private int groupCode(int row) {
+        return switch (groupBy) {
+            case CATEGORY -> columns.categoryCodes[row];
+            case BRAND -> columns.brandCodes[row];
+            case STATUS -> columns.statuses[row];
+            case DAY -> columns.epochDays[row];
+            case COHORT -> columns.cohorts[row];
+        };
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        a[CENTS] += b[CENTS];
+        a[UNITS] += b[UNITS];
+        a[LINES] += b[LINES];
+        return a;
+    }
+}
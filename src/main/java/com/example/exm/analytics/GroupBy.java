@@ -0,0 +1,24 @@
+package com.example.exm.analytics;
+
+import com.example.exm.exception.BusinessException;
+
+/**
+ * Dimensions order lines can be grouped by.
+ */
+public enum GroupBy {
+    CATEGORY,
+    BRAND,
+    STATUS,
+    DAY,
+    // Month in which the ordering user signed up
+    COHORT;
+
+    public static GroupBy of(String name) {
+        for (GroupBy groupBy : values()) {
+            if (groupBy.name().equalsIgnoreCase(name)) {
+                return groupBy;
+            }
+        }
+        throw new BusinessException("Unsupported groupBy: " + name + ". Use category, brand, status, day or cohort");
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.exm.analytics;
+
+/**
+ * Totals of one group in an analytics aggregation; amounts are in cents.
+ */
+public record GroupTotal(String key, long revenueCents, long units, long lines) {
+}
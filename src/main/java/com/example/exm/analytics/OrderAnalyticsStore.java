@@ -0,0 +1,257 @@
+package com.example.exm.analytics;
+
+import com.example.exm.entity.Order;
+import com.example.exm.entity.OrderItem;
+import com.example.exm.entity.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory columnar copy of every order line for ad-hoc aggregations, so group-by queries scan primitive
+ * arrays in parallel instead of the OLTP tables. Loaded from the database at startup and kept current by
+ * the order service: changes are applied after their transaction commits. Deleted orders are only dropped
+ * by a {@link #reload()}.
+ */
+@Component
+@Slf4j
+public class OrderAnalyticsStore {
+
+    private static final String LOAD_SQL = "SELECT oi.order_id, o.order_date, o.status, p.category, p.brand, " +
+            "u.created_at, oi.quantity, oi.total_price " +
+            "FROM order_items oi " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "JOIN products p ON p.id = oi.product_id " +
+            "JOIN users u ON u.id = o.user_id " +
+            "ORDER BY oi.order_id, oi.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private OrderLineColumns columns = new OrderLineColumns(1024);
+    // Changes made while a reload is reading the database; replayed onto the reloaded columns
+    private List<Consumer<OrderLineColumns>> pendingChanges;
+
+    public OrderAnalyticsStore(DataSource dataSource, PlatformTransactionManager transactionManager,
+                               @Value("${app.analytics.enabled:true}") boolean enabled,
+                               @Value("${app.analytics.load-fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the columns from the database without blocking queries or order writes, and returns the
+     * number of order lines loaded.
+     */
+    public int reload() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        OrderLineColumns loaded = new OrderLineColumns(1024);
+        try {
+            // Inside a transaction so the driver can stream with the fetch size instead of buffering every row
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(LOAD_SQL, rs -> {
+                Timestamp signup = rs.getTimestamp(6);
+                loaded.append(rs.getLong(1),
+                        rs.getTimestamp(2).toLocalDateTime().toLocalDate(),
+                        OrderStatus.valueOf(rs.getString(3)),
+                        rs.getString(4),
+                        rs.getString(5),
+                        OrderLineColumns.cohortOf(signup == null ? null : signup.toLocalDateTime().toLocalDate()),
+                        rs.getInt(7),
+                        toCents(rs.getBigDecimal(8)));
+            }));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(loaded));
+            pendingChanges = null;
+            columns = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Loaded {} order lines into the analytics store in {} ms (~{} KB)",
+                loaded.size, (System.nanoTime() - start) / 1_000_000, loaded.estimatedBytes() / 1024);
+        return loaded.size;
+    }
+
+    /**
+     * Adds newly placed orders once the current transaction commits. Entities must have their items,
+     * products and user loaded.
+     */
+    public void recordOrders(Collection<Order> orders) {
+        if (!enabled || orders.isEmpty()) {
+            return;
+        }
+        // Copy the values now: the entities may be detached or changed by the time the transaction commits
+        List<Line> lines = new ArrayList<>();
+        for (Order order : orders) {
+            int cohort = OrderLineColumns.cohortOf(order.getUser().getCreatedAt() == null
+                    ? null : order.getUser().getCreatedAt().toLocalDate());
+            for (OrderItem item : order.getOrderItems()) {
+                lines.add(new Line(order.getId(), order.getOrderDate().toLocalDate(), order.getStatus(),
+                        item.getProduct().getCategory(), item.getProduct().getBrand(), cohort,
+                        item.getQuantity(), toCents(item.getTotalPrice())));
+            }
+        }
+        afterCommit(target -> appendOrders(target, lines));
+    }
+
+    public void recordStatusChange(Collection<Long> orderIds, OrderStatus status) {
+        if (!enabled || orderIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(orderIds);
+        afterCommit(target -> ids.forEach(id -> target.setStatus(id, status)));
+    }
+
+    /**
+     * Sums revenue, units and lines per group over the lines whose order date is in {@code [fromDate, toDate]}
+     * and whose order status is in {@code statuses}. Groups come back by revenue, highest first.
+     */
+    public List<GroupTotal> aggregate(GroupBy groupBy, LocalDate fromDate, LocalDate toDate, Set<OrderStatus> statuses) {
+        boolean[] statusMask = new boolean[OrderStatus.values().length];
+        statuses.forEach(status -> statusMask[status.ordinal()] = true);
+
+        lock.readLock().lock();
+        try {
+            OrderLineColumns current = columns;
+            Map<Integer, long[]> totals = ForkJoinPool.commonPool().invoke(new AggregationTask(current, groupBy,
+                    (int) fromDate.toEpochDay(), (int) toDate.toEpochDay(), statusMask, 0, current.size));
+
+            List<GroupTotal> groups = new ArrayList<>(totals.size());
+            totals.forEach((code, values) -> groups.add(new GroupTotal(label(current, groupBy, code),
+                    values[AggregationTask.CENTS], values[AggregationTask.UNITS], values[AggregationTask.LINES])));
+            groups.sort(Comparator.comparingLong(GroupTotal::revenueCents).reversed().thenComparing(GroupTotal::key));
+            return groups;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return columns.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Consumer<OrderLineColumns> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<OrderLineColumns> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(columns);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Idempotent per order, so replaying a change the reload already read does not duplicate lines
+    private static void appendOrders(OrderLineColumns target, List<Line> lines) {
+        long currentOrderId = 0;
+        boolean skip = false;
+        for (Line line : lines) {
+            if (line.orderId() != currentOrderId) {
+                currentOrderId = line.orderId();
+                skip = target.containsOrder(currentOrderId);
+            }
+            if (!skip) {
+                target.append(line.orderId(), line.orderDate(), line.status(), line.category(), line.brand(),
+                        line.cohort(), line.quantity(), line.cents());
+            }
+        }
+    }
+
+    private static String label(OrderLineColumns columns, GroupBy groupBy, int code) {
+        return switch (groupBy) {
+            case CATEGORY -> columns.categories.decode(code);
+            case BRAND -> columns.brands.decode(code);
+            case STATUS -> OrderStatus.values()[code].name();
+            case DAY -> LocalDate.ofEpochDay(code).toString();
+            case COHORT -> OrderLineColumns.cohortLabel(code);
+        };
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private record Line(long orderId, LocalDate orderDate, OrderStatus status, String category, String brand,
+                        int cohort, int quantity, long cents) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.exm.analytics;
+
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.util.LongIntHashMap;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Order lines stored column by column in primitive arrays. The lines of one order are contiguous, starting at
+ * the row recorded in the order index. Not thread-safe; {@link OrderAnalyticsStore} guards access.
+ */
+final class OrderLineColumns {
+
+    // Bytes per line across all columns: order id, cents, units, day, category, brand, cohort, status
+    static final int BYTES_PER_ROW = Long.BYTES * 2 + Integer.BYTES * 5 + Byte.BYTES;
+
+    static final int NO_COHORT = -1;
+    private static final YearMonth EPOCH_MONTH = YearMonth.of(1970, 1);
+
+    final StringDictionary categories = new StringDictionary();
+    final StringDictionary brands = new StringDictionary();
+    private final LongIntHashMap firstRowByOrderId;
+
+    long[] orderIds;
+    long[] cents;
+    int[] units;
+    int[] epochDays;
+    int[] categoryCodes;
+    int[] brandCodes;
+    int[] cohorts;
+    byte[] statuses;
+    int size;
+
+    OrderLineColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        orderIds = new long[capacity];
+        cents = new long[capacity];
+        units = new int[capacity];
+        epochDays = new int[capacity];
+        categoryCodes = new int[capacity];
+        brandCodes = new int[capacity];
+        cohorts = new int[capacity];
+        statuses = new byte[capacity];
+        firstRowByOrderId = new LongIntHashMap(capacity / 2);
+    }
+
+    boolean containsOrder(long orderId) {
+        return firstRowByOrderId.get(orderId) != LongIntHashMap.MISSING;
+    }
+
+    /**
+     * Appends one line. Lines of the same order must be appended one after another.
+     */
+    void append(long orderId, LocalDate orderDate, OrderStatus status, String category, String brand,
+                int cohort, int quantity, long lineCents) {
+        if (size == orderIds.length) {
+            grow();
+        }
+        if (size == 0 || orderIds[size - 1] != orderId) {
+            firstRowByOrderId.put(orderId, size);
+        }
+        orderIds[size] = orderId;
+        cents[size] = lineCents;
+        units[size] = quantity;
+        epochDays[size] = (int) orderDate.toEpochDay();
+        categoryCodes[size] = categories.encode(category);
+        brandCodes[size] = brands.encode(brand);
+        cohorts[size] = cohort;
+        statuses[size] = (byte) status.ordinal();
+        size++;
+    }
+
+    void setStatus(long orderId, OrderStatus status) {
+        int row = firstRowByOrderId.get(orderId);
+        if (row == LongIntHashMap.MISSING) {
+            return;
+        }
+        for (; row < size && orderIds[row] == orderId; row++) {
+            statuses[row] = (byte) status.ordinal();
+        }
+    }
+
+    long estimatedBytes() {
+        return (long) orderIds.length * BYTES_PER_ROW + firstRowByOrderId.estimatedBytes();
+    }
+
+    static int cohortOf(LocalDate signupDate) {
+        return signupDate == null ? NO_COHORT : (int) EPOCH_MONTH.until(YearMonth.from(signupDate), ChronoUnit.MONTHS);
+    }
+
+    static String cohortLabel(int cohort) {
+        return cohort == NO_COHORT ? StringDictionary.NONE : EPOCH_MONTH.plusMonths(cohort).toString();
+    }
+
+    private void grow() {
+        int capacity = orderIds.length + (orderIds.length >> 1);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        units = Arrays.copyOf(units, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        brandCodes = Arrays.copyOf(brandCodes, capacity);
+        cohorts = Arrays.copyOf(cohorts, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.exm.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for low-cardinality strings such as category and brand. Code 0 stands for "none".
+ * Not thread-safe.
+ */
+final class StringDictionary {
+
+    static final String NONE = "(none)";
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>(List.of(NONE));
+
+    int encode(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        return codes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
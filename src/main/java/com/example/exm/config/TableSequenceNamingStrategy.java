@@ -0,0 +1,37 @@
+package com.example.exm.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedNameParser;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names the implicit id sequence of every entity after its table, e.g. {@code orders_seq},
+ * matching the sequences created by the V5 migration.
+ */
+public class TableSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    private final StandardNamingStrategy standard = new StandardNamingStrategy();
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String tableName = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (tableName == null) {
+            return standard.determineSequenceName(catalogName, schemaName, configValues, serviceRegistry);
+        }
+        return new QualifiedNameParser.NameParts(catalogName, schemaName, Identifier.toIdentifier(tableName + "_seq"));
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+                                            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        return standard.determineTableName(catalogName, schemaName, configValues, serviceRegistry);
+    }
+}
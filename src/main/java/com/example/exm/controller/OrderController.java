@@ -4,6 +4,7 @@ import com.example.exm.dto.request.CreateOrderRequest;
 import com.example.exm.dto.response.OrderResponse;
 import com.example.exm.dto.response.UserResponse;
 import com.example.exm.entity.OrderStatus;
+import com.example.exm.idempotency.IdempotencyStore;
 import com.example.exm.service.OrderService;
 import com.example.exm.service.UserService;
 import com.example.exm.util.Constants;
@@ -19,6 +20,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.UUID;
+
 @Controller
 @RequestMapping("/orders")
 @RequiredArgsConstructor
@@ -26,6 +29,7 @@ public class OrderController {
 
     private final OrderService orderService;
     private final UserService userService;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping
     public String listOrders(
@@ -74,6 +78,7 @@ public class OrderController {
     @GetMapping("/new")
     public String showCreateForm(Model model) {
         model.addAttribute("order", new CreateOrderRequest());
+        model.addAttribute(Constants.IDEMPOTENCY_KEY_PARAM, UUID.randomUUID().toString());
         Page<UserResponse> users = userService.getAllUsers(PageRequest.of(0, 100, Sort.by("firstName")));
         model.addAttribute("users", users.getContent());
         model.addAttribute("orderStatuses", OrderStatus.values());
@@ -84,9 +89,14 @@ public class OrderController {
     public String createOrder(
             @Valid @ModelAttribute("order") CreateOrderRequest request,
             BindingResult bindingResult,
+            @RequestParam(value = Constants.IDEMPOTENCY_KEY_PARAM, required = false) String idempotencyKey,
             RedirectAttributes redirectAttributes,
             Model model) {
 
+        // Re-rendered forms keep the same token, so a double submit still maps to one order
+        model.addAttribute(Constants.IDEMPOTENCY_KEY_PARAM,
+                idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString());
+
         if (bindingResult.hasErrors()) {
             Page<UserResponse> users = userService.getAllUsers(PageRequest.of(0, 100, Sort.by("firstName")));
             model.addAttribute("users", users.getContent());
@@ -95,7 +105,10 @@ public class OrderController {
         }
 
         try {
-            OrderResponse createdOrder = orderService.createOrder(request);
+            OrderResponse createdOrder = idempotencyKey == null
+                    ? orderService.createOrder(request)
+                    : idempotencyStore.execute(idempotencyKey, request, OrderResponse.class,
+                            () -> orderService.createOrder(request));
             redirectAttributes.addFlashAttribute("successMessage", "Order created successfully");
             return "redirect:/orders/" + createdOrder.getId();
         } catch (Exception e) {
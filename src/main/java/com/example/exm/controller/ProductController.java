@@ -160,7 +160,8 @@ public class ProductController {
 
     @GetMapping("/search")
     public String searchProducts(@RequestParam String query, Model model) {
-        List<ProductResponse> products = productService.searchProductsByName(query);
+        List<ProductResponse> products = productService.searchProducts(query, PageRequest.of(0, Constants.MAX_PAGE_SIZE))
+                .getContent();
         model.addAttribute("products", products);
         model.addAttribute("searchQuery", query);
         return "products/search-results";
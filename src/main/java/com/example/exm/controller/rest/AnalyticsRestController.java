@@ -0,0 +1,41 @@
+package com.example.exm.controller.rest;
+
+import com.example.exm.analytics.GroupBy;
+import com.example.exm.dto.response.AnalyticsResponse;
+import com.example.exm.dto.response.ApiResponse;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Aggregations over orders served from memory")
+public class AnalyticsRestController {
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/orders")
+    public ResponseEntity<ApiResponse<AnalyticsResponse>> aggregateOrders(
+            @RequestParam(defaultValue = "category") String groupBy,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) Set<OrderStatus> statuses) {
+
+        AnalyticsResponse response = analyticsService.aggregateOrders(GroupBy.of(groupBy), fromDate, toDate, statuses);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<Integer>> reload() {
+        int lines = analyticsService.reload();
+        return ResponseEntity.ok(ApiResponse.success("Analytics store reloaded with " + lines + " order lines", lines));
+    }
+}
@@ -1,24 +1,39 @@
 package com.example.exm.controller.rest;
 
+import com.example.exm.dto.request.BulkCancelRequest;
+import com.example.exm.dto.request.BulkStatusUpdateRequest;
 import com.example.exm.dto.request.CreateOrderRequest;
 import com.example.exm.dto.response.ApiResponse;
+import com.example.exm.dto.response.BatchOrderResponse;
+import com.example.exm.dto.response.BulkOperationResponse;
+import com.example.exm.dto.response.CursorPage;
 import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.dto.response.RevenueDiscrepancy;
 import com.example.exm.entity.OrderStatus;
+import com.example.exm.idempotency.IdempotencyStore;
+import com.example.exm.service.OrderExportService;
+import com.example.exm.service.OrderIntakeService;
 import com.example.exm.service.OrderService;
+import com.example.exm.service.RevenueRollupService;
 import com.example.exm.util.Constants;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,14 +44,39 @@ import java.util.List;
 public class OrderRestController {
 
     private final OrderService orderService;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectProvider<OrderIntakeService> orderIntakeService;
+    private final OrderExportService orderExportService;
+    private final RevenueRollupService revenueRollupService;
 
     @PostMapping
-    public ResponseEntity<ApiResponse<OrderResponse>> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse orderResponse = orderService.createOrder(request);
+    public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = Constants.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        OrderResponse orderResponse = idempotencyKey == null
+                ? placeOrder(request)
+                : idempotencyStore.execute(idempotencyKey, request, OrderResponse.class, () -> placeOrder(request));
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Order created successfully", orderResponse));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchOrderResponse>> createOrders(@RequestBody List<CreateOrderRequest> requests) {
+        BatchOrderResponse batchResponse = orderService.createOrders(requests);
+        String message = String.format("Order batch processed: %d created, %d failed",
+                batchResponse.getSuccessCount(), batchResponse.getFailureCount());
+        return ResponseEntity.ok(ApiResponse.success(message, batchResponse));
+    }
+
+    @PutMapping("/status")
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> updateOrderStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        BulkOperationResponse response = orderService.updateOrderStatuses(request);
+        String message = String.format("Bulk status update processed: %d updated, %d rejected",
+                response.getUpdatedCount(), response.getRejectedIds().size());
+        return ResponseEntity.ok(ApiResponse.success(message, response));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<ApiResponse<OrderResponse>> updateOrderStatus(
             @PathVariable Long id,
@@ -73,6 +113,20 @@ public class OrderRestController {
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<OrderResponse>>> scrollOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "orderDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPage<OrderResponse> orders = orderService.scrollOrders(
+                sortBy, direction, cursor, Math.max(1, Math.min(size, Constants.MAX_PAGE_SIZE)));
+
+        return ResponseEntity.ok(ApiResponse.success(orders));
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<ApiResponse<Page<OrderResponse>>> getOrdersByUserId(
             @PathVariable Long userId,
@@ -116,6 +170,23 @@ public class OrderRestController {
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        OrderExportService.Format exportFormat = OrderExportService.Format.of(format);
+        StreamingResponseBody body = out -> orderExportService.exportOrders(startDate, endDate, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/revenue")
     public ResponseEntity<ApiResponse<BigDecimal>> getTotalRevenue(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
@@ -125,17 +196,52 @@ public class OrderRestController {
         return ResponseEntity.ok(ApiResponse.success("Total revenue calculated successfully", revenue));
     }
 
+    @GetMapping("/revenue/rollup/discrepancies")
+    public ResponseEntity<ApiResponse<List<RevenueDiscrepancy>>> getRevenueRollupDiscrepancies(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+
+        List<RevenueDiscrepancy> discrepancies = revenueRollupService.findDiscrepancies(fromDate, toDate);
+        return ResponseEntity.ok(ApiResponse.success(discrepancies));
+    }
+
+    @PostMapping("/revenue/rollup/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRevenueRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+
+        int days = revenueRollupService.rebuild(fromDate, toDate);
+        return ResponseEntity.ok(ApiResponse.success("Revenue rollup rebuilt for " + days + " days", days));
+    }
+
     @GetMapping("/multiple-items")
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersWithMultipleItems(
-            @RequestParam(defaultValue = "2") int minItems) {
+    public ResponseEntity<ApiResponse<Page<OrderResponse>>> getOrdersWithMultipleItems(
+            @RequestParam(defaultValue = "2") int minItems,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
-        List<OrderResponse> orders = orderService.getOrdersWithMultipleItems(minItems);
+        Pageable pageable = PageRequest.of(page, Math.min(size, Constants.MAX_PAGE_SIZE));
+        Page<OrderResponse> orders = orderService.getOrdersWithMultipleItems(minItems, pageable);
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
+    @PutMapping("/cancel")
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> cancelOrders(@RequestBody BulkCancelRequest request) {
+        BulkOperationResponse response = orderService.cancelOrders(request);
+        String message = String.format("Bulk cancellation processed: %d cancelled, %d rejected",
+                response.getUpdatedCount(), response.getRejectedIds().size());
+        return ResponseEntity.ok(ApiResponse.success(message, response));
+    }
+
     @PutMapping("/{id}/cancel")
     public ResponseEntity<ApiResponse<String>> cancelOrder(@PathVariable Long id) {
         orderService.cancelOrder(id);
         return ResponseEntity.ok(ApiResponse.success("Order cancelled successfully"));
     }
-}
\ No newline at end of file
+
+    private OrderResponse placeOrder(CreateOrderRequest request) {
+        // With the group-commit intake enabled, the order is committed together with other queued orders
+        OrderIntakeService intake = orderIntakeService.getIfAvailable();
+        return intake != null ? intake.createOrder(request) : orderService.createOrder(request);
+    }
+}
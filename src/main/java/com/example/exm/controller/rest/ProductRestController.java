@@ -1,8 +1,12 @@
 package com.example.exm.controller.rest;
 
 import com.example.exm.dto.request.CreateProductRequest;
+import com.example.exm.dto.request.ProductFilterRequest;
 import com.example.exm.dto.response.ApiResponse;
+import com.example.exm.dto.response.CursorPage;
+import com.example.exm.dto.response.ProductFilterResponse;
 import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.dto.response.ProductSuggestionResponse;
 import com.example.exm.entity.Product;
 import com.example.exm.entity.ProductStatus;
 import com.example.exm.service.ProductService;
@@ -85,6 +89,22 @@ public class ProductRestController {
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
+    @Operation(summary = "Scroll products with a continuation cursor",
+            description = "Keyset pagination without OFFSET or COUNT. Pass nextCursor from the previous response.")
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponse>>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPage<ProductResponse> products = productService.scrollProducts(
+                sortBy, direction, cursor, Math.max(1, Math.min(size, Constants.MAX_PAGE_SIZE)));
+
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<ApiResponse<Page<ProductResponse>>> getProductsByStatus(
             @PathVariable ProductStatus status,
@@ -120,8 +140,42 @@ public class ProductRestController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> searchProductsByName(@RequestParam String name) {
-        List<ProductResponse> products = productService.searchProductsByName(name);
+    public ResponseEntity<ApiResponse<Page<ProductResponse>>> searchProducts(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Pageable pageable = PageRequest.of(page, Math.min(size, Constants.MAX_PAGE_SIZE));
+        Page<ProductResponse> products = productService.searchProducts(name, pageable);
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestionResponse>>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        List<ProductSuggestionResponse> suggestions =
+                productService.suggestProducts(prefix, Math.max(1, Math.min(limit, Constants.MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+
+    @Operation(summary = "Filter products with facet counts",
+            description = "Combines the category, brand, status, price and stock filters, and counts the matches "
+                    + "per category, brand, status and price bucket.")
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<ProductFilterResponse>> filterProducts(
+            @Valid @ModelAttribute ProductFilterRequest filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+
+        Sort sort = sortDirection.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, Constants.MAX_PAGE_SIZE)), sort);
+        ProductFilterResponse products = productService.filterProducts(filter, pageable);
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
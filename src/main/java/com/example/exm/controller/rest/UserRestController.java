@@ -3,8 +3,10 @@ package com.example.exm.controller.rest;
 import com.example.exm.dto.request.CreateUserRequest;
 import com.example.exm.dto.request.UpdateUserRequest;
 import com.example.exm.dto.response.ApiResponse;
+import com.example.exm.dto.response.CursorPage;
 import com.example.exm.dto.response.UserResponse;
 import com.example.exm.entity.UserStatus;
+import com.example.exm.leaderboard.CustomerRanking;
 import com.example.exm.service.UserService;
 import com.example.exm.util.Constants;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -73,6 +75,35 @@ public class UserRestController {
     return ResponseEntity.ok(ApiResponse.success(users));
   }
 
+  @GetMapping("/scroll")
+  public ResponseEntity<ApiResponse<CursorPage<UserResponse>>> scrollUsers(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(defaultValue = "createdAt") String sortBy,
+      @RequestParam(defaultValue = "desc") String sortDirection) {
+
+    Sort.Direction direction =
+        sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+    CursorPage<UserResponse> users =
+        userService.scrollUsers(
+            sortBy, direction, cursor, Math.max(1, Math.min(size, Constants.MAX_PAGE_SIZE)));
+
+    return ResponseEntity.ok(ApiResponse.success(users));
+  }
+
+  // Users who ordered within the last `days` days, most recent first
+  @GetMapping("/recent-activity")
+  public ResponseEntity<ApiResponse<CursorPage<UserResponse>>> getRecentlyActiveUsers(
+      @RequestParam(defaultValue = "30") int days,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+
+    CursorPage<UserResponse> users =
+        userService.scrollRecentlyActiveUsers(
+            days, cursor, Math.max(1, Math.min(size, Constants.MAX_PAGE_SIZE)));
+    return ResponseEntity.ok(ApiResponse.success(users));
+  }
+
   @GetMapping("/status/{status}")
   public ResponseEntity<ApiResponse<Page<UserResponse>>> getUsersByStatus(
       @PathVariable UserStatus status,
@@ -92,6 +123,7 @@ public class UserRestController {
     return ResponseEntity.ok(ApiResponse.success(users));
   }
 
+  // Scans the users table with LIKE; /lookup serves typo-tolerant matches from the in-memory index
   @GetMapping("/search")
   public ResponseEntity<ApiResponse<List<UserResponse>>> searchUsersByName(
       @RequestParam String name) {
@@ -99,16 +131,45 @@ public class UserRestController {
     return ResponseEntity.ok(ApiResponse.success(users));
   }
 
+  // Typo-tolerant lookup by name, email or phone number, best matches first
+  @GetMapping("/lookup")
+  public ResponseEntity<ApiResponse<Page<UserResponse>>> lookupUsers(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, Constants.MAX_PAGE_SIZE)));
+    Page<UserResponse> users = userService.lookupUsers(q, pageable);
+    return ResponseEntity.ok(ApiResponse.success(users));
+  }
+
+  // Recomputes from the orders table; /active-customers serves the same users from the maintained counter
   @GetMapping("/with-active-orders")
   public ResponseEntity<ApiResponse<List<UserResponse>>> getUsersWithActiveOrders() {
     List<UserResponse> users = userService.getUsersWithActiveOrders();
     return ResponseEntity.ok(ApiResponse.success(users));
   }
 
+  @GetMapping("/active-customers")
+  public ResponseEntity<ApiResponse<Page<UserResponse>>> getActiveCustomers(
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    Pageable pageable =
+        PageRequest.of(page, Math.min(size, Constants.MAX_PAGE_SIZE), Sort.by("id"));
+    Page<UserResponse> users = userService.getUsersWithActiveOrders(pageable);
+    return ResponseEntity.ok(ApiResponse.success(users));
+  }
+
+  @GetMapping("/{id}/has-active-orders")
+  public ResponseEntity<ApiResponse<Boolean>> hasActiveOrders(@PathVariable Long id) {
+    return ResponseEntity.ok(ApiResponse.success(userService.hasActiveOrders(id)));
+  }
+
   @GetMapping("/top-customers")
   public ResponseEntity<ApiResponse<List<UserResponse>>> getTopCustomers(
-      @RequestParam(defaultValue = "10") int limit) {
-    List<UserResponse> users = userService.getTopCustomers(limit);
+      @RequestParam(defaultValue = "10") int limit,
+      @RequestParam(defaultValue = "orders") String rankBy) {
+    List<UserResponse> users =
+        userService.getTopCustomers(Math.min(limit, Constants.MAX_PAGE_SIZE), CustomerRanking.of(rankBy));
     return ResponseEntity.ok(ApiResponse.success(users));
   }
 
@@ -32,6 +32,8 @@ public class OrderMapper {
         response.setOrderDate(order.getOrderDate());
         response.setShippingAddress(order.getShippingAddress());
         response.setNotes(order.getNotes());
+        response.setItemCount(order.getItemCount());
+        response.setTotalUnits(order.getTotalUnits());
         response.setCreatedAt(order.getCreatedAt());
         response.setUpdatedAt(order.getUpdatedAt());
 
@@ -52,7 +52,10 @@ public class UserMapper {
         response.setStatus(user.getStatus());
         response.setCreatedAt(user.getCreatedAt());
         response.setUpdatedAt(user.getUpdatedAt());
-        response.setTotalOrders((long) user.getOrders().size());
+        response.setTotalOrders(user.getOrderCount());
+        response.setLifetimeSpend(user.getLifetimeSpend());
+        response.setActiveOrders(user.getActiveOrderCount());
+        response.setLastOrderAt(user.getLastOrderAt());
         return response;
     }
 }
\ No newline at end of file
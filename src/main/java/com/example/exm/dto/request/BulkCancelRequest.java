@@ -0,0 +1,18 @@
+package com.example.exm.dto.request;
+
+import com.example.exm.entity.OrderStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BulkCancelRequest {
+
+    private List<Long> orderIds;
+
+    // Filter used when no order IDs are given, e.g. PENDING orders placed before a cut-off
+    private OrderStatus status;
+
+    private LocalDateTime orderedBefore;
+}
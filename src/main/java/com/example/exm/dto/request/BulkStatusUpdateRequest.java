@@ -0,0 +1,20 @@
+package com.example.exm.dto.request;
+
+import com.example.exm.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "Order IDs are required")
+    @Size(max = 10_000, message = "At most 10000 orders can be updated at once")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
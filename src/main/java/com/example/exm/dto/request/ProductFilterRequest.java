@@ -0,0 +1,25 @@
+package com.example.exm.dto.request;
+
+import com.example.exm.entity.ProductStatus;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ProductFilterRequest {
+
+    private String category;
+
+    private String brand;
+
+    private ProductStatus status;
+
+    @DecimalMin(value = "0.0", message = "Minimum price must be non-negative")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0.0", message = "Maximum price must be non-negative")
+    private BigDecimal maxPrice;
+
+    private boolean inStock;
+}
@@ -0,0 +1,16 @@
+package com.example.exm.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Order line totals grouped by one dimension, highest revenue first.
+ */
+public record AnalyticsResponse(
+        String groupBy,
+        long linesMatched,
+        List<Group> groups) {
+
+    public record Group(String key, BigDecimal revenue, long units, long lines) {
+    }
+}
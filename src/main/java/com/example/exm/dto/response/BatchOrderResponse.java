@@ -0,0 +1,45 @@
+package com.example.exm.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchOrderResponse {
+    private int totalCount;
+    private int successCount;
+    private int failureCount;
+    private List<OrderResult> results;
+
+    public static BatchOrderResponse of(List<OrderResult> results) {
+        BatchOrderResponse response = new BatchOrderResponse();
+        response.setResults(results);
+        response.setTotalCount(results.size());
+        response.setSuccessCount((int) results.stream().filter(OrderResult::isSuccess).count());
+        response.setFailureCount(response.getTotalCount() - response.getSuccessCount());
+        return response;
+    }
+
+    @Data
+    public static class OrderResult {
+        private int index;
+        private boolean success;
+        private OrderResponse order;
+        private String error;
+
+        public static OrderResult success(int index, OrderResponse order) {
+            OrderResult result = new OrderResult();
+            result.setIndex(index);
+            result.setSuccess(true);
+            result.setOrder(order);
+            return result;
+        }
+
+        public static OrderResult failure(int index, String error) {
+            OrderResult result = new OrderResult();
+            result.setIndex(index);
+            result.setError(error);
+            return result;
+        }
+    }
+}
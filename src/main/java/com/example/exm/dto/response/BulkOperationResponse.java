@@ -0,0 +1,20 @@
+package com.example.exm.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkOperationResponse {
+    private long processedCount;
+    private long updatedCount;
+    private List<Long> rejectedIds;
+
+    public static BulkOperationResponse of(long processedCount, long updatedCount, List<Long> rejectedIds) {
+        BulkOperationResponse response = new BulkOperationResponse();
+        response.setProcessedCount(processedCount);
+        response.setUpdatedCount(updatedCount);
+        response.setRejectedIds(rejectedIds);
+        return response;
+    }
+}
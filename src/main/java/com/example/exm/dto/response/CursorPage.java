@@ -0,0 +1,38 @@
+package com.example.exm.dto.response;
+
+import com.example.exm.util.CursorKey;
+import com.example.exm.util.KeysetCursor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * One window of a cursor-paginated listing. Like a Slice it only knows whether more rows follow, so no
+ * COUNT query is run; pass {@code nextCursor} back to continue.
+ */
+@Data
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * Builds the page from up to {@code size + 1} rows; the extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, CursorKey<T> key, Sort.Direction direction) {
+        boolean hasNext = rows.size() > size;
+        return of(hasNext ? rows.subList(0, size) : rows, size, hasNext, key, direction);
+    }
+
+    public static <T> CursorPage<T> of(List<T> content, int size, boolean hasNext, CursorKey<T> key,
+                                       Sort.Direction direction) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setContent(content);
+        page.setSize(size);
+        page.setHasNext(hasNext);
+        page.setNextCursor(hasNext ? KeysetCursor.encode(content.get(content.size() - 1), key, direction) : null);
+        return page;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.exm.dto.response;
+
+import com.example.exm.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order line as streamed by the order export, flattened with its order and user.
+ */
+public record OrderExportRow(
+        Long orderId,
+        String orderNumber,
+        LocalDateTime orderDate,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        Long userId,
+        String userEmail,
+        Long productId,
+        String productName,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal lineTotal) {
+}
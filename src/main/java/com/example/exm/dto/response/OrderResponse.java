@@ -18,6 +18,8 @@ public class OrderResponse {
     private LocalDateTime orderDate;
     private String shippingAddress;
     private String notes;
+    private Integer itemCount;
+    private Integer totalUnits;
     private List<OrderItemResponse> orderItems;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
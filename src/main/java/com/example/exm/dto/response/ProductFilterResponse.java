@@ -0,0 +1,25 @@
+package com.example.exm.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+/**
+ * A page of filtered products, and per facet value how many products would match with that value selected
+ * instead. Until the in-memory facet index has been built the counts are empty and {@code facetCountsAvailable}
+ * is false, so clients can tell missing counts from a filter that matches nothing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilterResponse {
+    private Page<ProductResponse> products;
+    private Map<String, Integer> categoryCounts = Map.of();
+    private Map<String, Integer> brandCounts = Map.of();
+    private Map<String, Integer> statusCounts = Map.of();
+    private Map<String, Integer> priceBucketCounts = Map.of();
+    private boolean facetCountsAvailable;
+}
@@ -0,0 +1,13 @@
+package com.example.exm.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionResponse {
+    private Long id;
+    private String name;
+}
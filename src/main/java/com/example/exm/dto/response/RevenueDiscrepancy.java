@@ -0,0 +1,15 @@
+package com.example.exm.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A day on which the revenue rollup disagrees with the orders table.
+ */
+public record RevenueDiscrepancy(
+        LocalDate date,
+        BigDecimal rollupRevenue,
+        BigDecimal actualRevenue,
+        long rollupOrderCount,
+        long actualOrderCount) {
+}
@@ -3,6 +3,7 @@ package com.example.exm.dto.response;
 import com.example.exm.entity.UserStatus;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,4 +18,7 @@ public class UserResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Long totalOrders;
+    private BigDecimal lifetimeSpend;
+    private Integer activeOrders;
+    private LocalDateTime lastOrderAt;
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -41,6 +42,16 @@ public class Order extends AuditableEntity {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // Number of lines and sum of their quantities. Set when the order is built, afterwards only changed through
+    // delta updates, so saving a stale copy of the order cannot overwrite them
+    @ColumnDefault("0")
+    @Column(name = "item_count", nullable = false, updatable = false)
+    private Integer itemCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "total_units", nullable = false, updatable = false)
+    private Integer totalUnits = 0;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.exm.entity;
+
+public enum OutboxEventType {
+    ORDER_CREATED("ORDER"),
+    ORDER_STATUS_CHANGED("ORDER"),
+    STOCK_CHANGED("PRODUCT");
+
+    private final String aggregateType;
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.exm.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue of one calendar day: the orders placed that day that are CONFIRMED or DELIVERED. Kept current by
+ * {@link com.example.exm.service.RevenueRollupService} as orders enter and leave those statuses.
+ */
+@Entity
+@Table(name = "revenue_daily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueDaily {
+
+    @Id
+    @Column(name = "revenue_date")
+    private LocalDate revenueDate;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+}
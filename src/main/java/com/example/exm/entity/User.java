@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +38,26 @@ public class User extends AuditableEntity {
     @Column(nullable = false)
     private UserStatus status = UserStatus.ACTIVE;
 
+    // Maintained with delta updates when orders are placed, cancelled or refunded. Never written from the
+    // entity, so saving a stale copy of the user cannot overwrite them
+    @ColumnDefault("0")
+    @Column(name = "order_count", nullable = false, updatable = false)
+    private Long orderCount = 0L;
+
+    // Total of the user's orders that were not cancelled or refunded
+    @ColumnDefault("0")
+    @Column(name = "lifetime_spend", nullable = false, updatable = false, precision = 14, scale = 2)
+    private BigDecimal lifetimeSpend = BigDecimal.ZERO;
+
+    // Orders that are PENDING, CONFIRMED or PROCESSING
+    @ColumnDefault("0")
+    @Column(name = "active_order_count", nullable = false, updatable = false)
+    private Integer activeOrderCount = 0;
+
+    // Order date of the user's most recent order
+    @Column(name = "last_order_at", updatable = false)
+    private LocalDateTime lastOrderAt;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Order> orders = new ArrayList<>();
 }
\ No newline at end of file
@@ -31,6 +31,34 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiResponse<String>> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        log.error("Idempotency conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(OrderStatusConflictException.class)
+    public ResponseEntity<ApiResponse<String>> handleOrderStatusConflictException(OrderStatusConflictException ex) {
+        log.warn("Order status conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(OrderIntakeRejectedException.class)
+    public ResponseEntity<ApiResponse<String>> handleOrderIntakeRejectedException(OrderIntakeRejectedException ex) {
+        log.warn("Order intake rejected request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(OrderIntakeTimeoutException.class)
+    public ResponseEntity<ApiResponse<String>> handleOrderIntakeTimeoutException(OrderIntakeTimeoutException ex) {
+        log.warn("Order intake timed out: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ApiResponse<String>> handleValidationException(ValidationException ex) {
         log.error("Validation exception: {}", ex.getMessage());
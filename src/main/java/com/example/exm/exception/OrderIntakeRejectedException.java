@@ -0,0 +1,7 @@
+package com.example.exm.exception;
+
+public class OrderIntakeRejectedException extends RuntimeException {
+    public OrderIntakeRejectedException(String message) {
+        super(message);
+    }
+}
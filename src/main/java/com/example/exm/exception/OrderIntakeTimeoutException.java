@@ -0,0 +1,7 @@
+package com.example.exm.exception;
+
+public class OrderIntakeTimeoutException extends RuntimeException {
+    public OrderIntakeTimeoutException(String message) {
+        super(message);
+    }
+}
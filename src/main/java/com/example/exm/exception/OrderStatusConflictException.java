@@ -0,0 +1,7 @@
+package com.example.exm.exception;
+
+public class OrderStatusConflictException extends RuntimeException {
+    public OrderStatusConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.exm.idempotency;
+
+import com.example.exm.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+final class IdempotencyKeys {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private IdempotencyKeys() {
+    }
+
+    static void validate(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    static String fingerprint(ObjectMapper objectMapper, Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request for idempotency check", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.exm.idempotency;
+
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates client retries that carry the same idempotency key.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Runs {@code action} at most once per key while the key is retained. A repeated key returns the response
+     * of the first call, waiting for it if it is still running. Reusing a key for a different request fails
+     * with {@link com.example.exm.exception.IdempotencyConflictException}.
+     */
+    <T> T execute(String key, Object request, Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,154 @@
+package com.example.exm.idempotency;
+
+import com.example.exm.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-node store: keeps at most {@code app.idempotency.max-entries} completed responses for
+ * {@code app.idempotency.ttl}, evicting the oldest first. Requests still in flight are never evicted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration waitTimeout;
+    private final Clock clock;
+
+    @Autowired
+    public InMemoryIdempotencyStore(ObjectMapper objectMapper,
+                                    @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                                    @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this(objectMapper, ttl, maxEntries, waitTimeout, Clock.systemUTC());
+    }
+
+    InMemoryIdempotencyStore(ObjectMapper objectMapper, Duration ttl, int maxEntries, Duration waitTimeout, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+        this.clock = clock;
+    }
+
+    @Override
+    public <T> T execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        IdempotencyKeys.validate(key);
+        String fingerprint = IdempotencyKeys.fingerprint(objectMapper, request);
+
+        while (true) {
+            long now = clock.millis();
+            Entry claim = new Entry(key, fingerprint, now + ttl.toMillis());
+            Entry existing = entries.putIfAbsent(key, claim);
+
+            if (existing == null || (existing.isExpired(now) && entries.replace(key, existing, claim))) {
+                insertionOrder.add(claim);
+                evict(now);
+                return run(claim, action);
+            }
+            if (existing.isExpired(now)) {
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyConflictException(
+                        "Idempotency key '" + key + "' was already used for a different request");
+            }
+            log.info("Replaying response for idempotency key: {}", key);
+            return responseType.cast(await(existing));
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private <T> T run(Entry claim, Supplier<T> action) {
+        try {
+            T response = action.get();
+            claim.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Failed requests are not remembered, so the client can retry with the same key
+            entries.remove(claim.key, claim);
+            claim.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(
+                    "A request with idempotency key '" + entry.key + "' is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(
+                    "Interrupted while waiting for idempotency key '" + entry.key + "'");
+        }
+    }
+
+    private void evict(long now) {
+        for (int budget = insertionOrder.size(); budget > 0; budget--) {
+            Entry oldest = insertionOrder.peek();
+            if (oldest == null) {
+                return;
+            }
+            boolean current = entries.get(oldest.key) == oldest;
+            if (current && entries.size() <= maxEntries && !oldest.isExpired(now)) {
+                return;
+            }
+            if (!insertionOrder.remove(oldest) || !current) {
+                continue;
+            }
+            if (!oldest.response.isDone()) {
+                insertionOrder.add(oldest);
+                continue;
+            }
+            entries.remove(oldest.key, oldest);
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private Entry(String key, String fingerprint, long expiresAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
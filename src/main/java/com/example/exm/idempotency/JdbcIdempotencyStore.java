@@ -0,0 +1,181 @@
+package com.example.exm.idempotency;
+
+import com.example.exm.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Multi-node store backed by the {@code idempotency_keys} table. A key is claimed by inserting its row with a
+ * random claim token; other nodes see the row and poll until the owner stores its response. An in-progress claim
+ * lives for the lease, which must outlast the slowest action, so a crashed owner cannot block the key until the
+ * TTL expires. Completing or releasing a claim only touches the row that still carries its token, so an owner
+ * whose lease ran out cannot overwrite or delete the claim of the node that took the key over.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final String DELETE_EXPIRED_KEY_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at < ?";
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, request_hash, status, expires_at, claim_token) "
+                    + "VALUES (?, ?, 'IN_PROGRESS', ?, ?)";
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET status = 'COMPLETED', response = ?, expires_at = ? "
+                    + "WHERE idempotency_key = ? AND claim_token = ?";
+    private static final String RELEASE_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status = 'IN_PROGRESS' AND claim_token = ?";
+    private static final String FIND_SQL =
+            "SELECT request_hash, status, response FROM idempotency_keys WHERE idempotency_key = ? AND expires_at >= ?";
+    private static final String PURGE_EXPIRED_SQL =
+            "DELETE FROM idempotency_keys WHERE expires_at < ?";
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final int PURGE_EVERY_CLAIMS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lease;
+    private final Clock clock;
+    private final AtomicLong claims = new AtomicLong();
+
+    @Autowired
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout,
+                                @Value("${app.idempotency.lease:5m}") Duration lease) {
+        this(jdbcTemplate, objectMapper, ttl, waitTimeout, lease, Clock.systemUTC());
+    }
+
+    JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Duration ttl, Duration waitTimeout,
+                         Duration lease, Clock clock) {
+        if (lease.isNegative() || lease.isZero()) {
+            throw new IllegalArgumentException("Idempotency lease must be positive: " + lease);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.lease = lease;
+        this.clock = clock;
+    }
+
+    @Override
+    public <T> T execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        IdempotencyKeys.validate(key);
+        String fingerprint = IdempotencyKeys.fingerprint(objectMapper, request);
+        long deadline = clock.millis() + waitTimeout.toMillis();
+
+        while (true) {
+            String claimToken = UUID.randomUUID().toString();
+            if (claim(key, fingerprint, claimToken)) {
+                return run(key, claimToken, action);
+            }
+
+            List<StoredKey> stored = jdbcTemplate.query(FIND_SQL,
+                    (rs, rowNum) -> new StoredKey(rs.getString(1), rs.getString(2), rs.getString(3)),
+                    key, now());
+            if (stored.isEmpty()) {
+                // The owner failed or the claim expired in the meantime; try to claim it ourselves
+                continue;
+            }
+
+            StoredKey existing = stored.get(0);
+            if (!existing.requestHash().equals(fingerprint)) {
+                throw new IdempotencyConflictException(
+                        "Idempotency key '" + key + "' was already used for a different request");
+            }
+            if ("COMPLETED".equals(existing.status())) {
+                log.info("Replaying response for idempotency key: {}", key);
+                return readResponse(existing.response(), responseType);
+            }
+            if (clock.millis() >= deadline) {
+                throw new IdempotencyConflictException("A request with idempotency key '" + key + "' is still in progress");
+            }
+            pause();
+        }
+    }
+
+    private boolean claim(String key, String fingerprint, String claimToken) {
+        Timestamp now = now();
+        if (claims.incrementAndGet() % PURGE_EVERY_CLAIMS == 0) {
+            jdbcTemplate.update(PURGE_EXPIRED_SQL, now);
+        } else {
+            jdbcTemplate.update(DELETE_EXPIRED_KEY_SQL, key, now);
+        }
+        try {
+            jdbcTemplate.update(CLAIM_SQL, key, fingerprint, new Timestamp(clock.millis() + lease.toMillis()), claimToken);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private <T> T run(String key, String claimToken, Supplier<T> action) {
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Failed requests are not remembered, so the client can retry with the same key
+            jdbcTemplate.update(RELEASE_SQL, key, claimToken);
+            throw e;
+        }
+        int completed = jdbcTemplate.update(COMPLETE_SQL, writeResponse(response),
+                new Timestamp(clock.millis() + ttl.toMillis()), key, claimToken);
+        if (completed == 0) {
+            log.warn("Idempotency key {} was claimed by another request after its lease of {} expired; "
+                    + "the action took longer than the lease", key, lease);
+        }
+        return response;
+    }
+
+    private String writeResponse(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store idempotent response", e);
+        }
+    }
+
+    private <T> T readResponse(String json, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(json, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored idempotent response", e);
+        }
+    }
+
+    private Timestamp now() {
+        return new Timestamp(clock.millis());
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for an idempotent request");
+        }
+    }
+
+    private record StoredKey(String requestHash, String status, String response) {
+    }
+}
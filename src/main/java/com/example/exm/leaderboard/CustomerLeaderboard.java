@@ -0,0 +1,213 @@
+package com.example.exm.leaderboard;
+
+import com.example.exm.repository.UserRepository;
+import com.example.exm.repository.custom.CustomUserRepository.OrderTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Every user with at least one order, kept sorted by order count and by lifetime spend, so the top K of either
+ * ranking is read in O(K) and an order only costs O(log n) to re-rank its user. Built from the users table at
+ * startup and moved by the same deltas {@code UserService} writes to it, applied once they commit.
+ * <p>
+ * Deltas that commit while a rebuild is reading are replayed onto the rebuilt rankings. Deltas written by other
+ * nodes only show up after the periodic rebuild.
+ */
+@Component
+@Slf4j
+public class CustomerLeaderboard {
+
+    private static final Comparator<Score> BY_ORDERS = Comparator.comparingLong(Score::orderCount).reversed()
+            .thenComparingLong(Score::userId);
+    private static final Comparator<Score> BY_SPEND = Comparator.comparingLong(Score::spendCents).reversed()
+            .thenComparingLong(Score::userId);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Score> scores = new HashMap<>();
+    private NavigableSet<Score> byOrders = new TreeSet<>(BY_ORDERS);
+    private NavigableSet<Score> bySpend = new TreeSet<>(BY_SPEND);
+    private volatile boolean ready;
+    // Deltas applied while a rebuild is reading the users table; replayed onto the rebuilt rankings
+    private List<Map<Long, OrderTotals>> pendingDeltas;
+
+    public CustomerLeaderboard(UserRepository userRepository,
+                               @Value("${app.leaderboard.enabled:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.leaderboard.rebuild-interval:15m}",
+            initialDelayString = "${app.leaderboard.rebuild-interval:15m}")
+    public void rebuildIfEnabled() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reloads every user with orders from the users table and returns how many were ranked.
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDeltas = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        List<Object[]> rows;
+        try {
+            rows = userRepository.findOrderTotals();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDeltas = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Map<Long, Score> loaded = new HashMap<>(rows.size() * 2);
+        NavigableSet<Score> loadedByOrders = new TreeSet<>(BY_ORDERS);
+        NavigableSet<Score> loadedBySpend = new TreeSet<>(BY_SPEND);
+        for (Object[] row : rows) {
+            Score score = new Score((Long) row[0], ((Number) row[1]).longValue(), toCents((BigDecimal) row[2]));
+            loaded.put(score.userId(), score);
+            loadedByOrders.add(score);
+            loadedBySpend.add(score);
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDeltas.forEach(deltas -> apply(deltas, loaded, loadedByOrders, loadedBySpend));
+            pendingDeltas = null;
+            scores = loaded;
+            byOrders = loadedByOrders;
+            bySpend = loadedBySpend;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt the customer leaderboard with {} customers in {} ms",
+                loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        return loaded.size();
+    }
+
+    /**
+     * Moves users by the given order count and spend deltas once the current transaction commits.
+     */
+    public void recordDeltas(Map<Long, OrderTotals> deltasByUserId) {
+        if (!enabled || deltasByUserId.isEmpty()) {
+            return;
+        }
+        Map<Long, OrderTotals> deltas = Map.copyOf(deltasByUserId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas);
+                }
+            });
+        } else {
+            apply(deltas);
+        }
+    }
+
+    /**
+     * Ids of the top {@code limit} users, best first; ties go to the lower id.
+     */
+    public List<Long> topUserIds(CustomerRanking ranking, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Score> ranked = ranking == CustomerRanking.SPEND ? bySpend : byOrders;
+            List<Long> userIds = new ArrayList<>(Math.min(limit, ranked.size()));
+            Iterator<Score> iterator = ranked.iterator();
+            while (userIds.size() < limit && iterator.hasNext()) {
+                userIds.add(iterator.next().userId());
+            }
+            return userIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether rankings can be served from memory; false when disabled or before the first build.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Map<Long, OrderTotals> deltas) {
+        lock.writeLock().lock();
+        try {
+            apply(deltas, scores, byOrders, bySpend);
+            if (pendingDeltas != null) {
+                pendingDeltas.add(deltas);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Map<Long, OrderTotals> deltas, Map<Long, Score> scores, NavigableSet<Score> byOrders,
+                              NavigableSet<Score> bySpend) {
+        deltas.forEach((userId, delta) -> {
+            Score previous = scores.remove(userId);
+            long orderCount = delta.orderCount();
+            long spendCents = toCents(delta.spend());
+            if (previous != null) {
+                byOrders.remove(previous);
+                bySpend.remove(previous);
+                orderCount += previous.orderCount();
+                spendCents += previous.spendCents();
+            }
+            if (orderCount > 0) {
+                Score score = new Score(userId, orderCount, spendCents);
+                scores.put(userId, score);
+                byOrders.add(score);
+                bySpend.add(score);
+            }
+        });
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private record Score(long userId, long orderCount, long spendCents) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.exm.leaderboard;
+
+import com.example.exm.exception.BusinessException;
+
+/**
+ * What the top-customer leaderboard ranks users by.
+ */
+public enum CustomerRanking {
+    ORDERS,
+    SPEND;
+
+    public static CustomerRanking of(String name) {
+        for (CustomerRanking ranking : values()) {
+            if (ranking.name().equalsIgnoreCase(name)) {
+                return ranking;
+            }
+        }
+        throw new BusinessException("Unsupported ranking: " + name + ". Use orders or spend");
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.exm.outbox;
+
+import com.example.exm.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes every event to the {@code outbox} logger, one line per event. Enough for local runs and tests; route
+ * the logger to its own file to get an event log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "log", matchIfMissing = true)
+@Slf4j(topic = "outbox")
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("{} {} {}:{} {}", event.getId(), event.getEventType(), event.getAggregateType(),
+                    event.getAggregateId(), event.getPayload());
+        }
+    }
+}
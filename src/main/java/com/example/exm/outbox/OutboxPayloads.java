@@ -0,0 +1,28 @@
+package com.example.exm.outbox;
+
+import com.example.exm.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON bodies of the events written to the outbox.
+ */
+public final class OutboxPayloads {
+
+    private OutboxPayloads() {
+    }
+
+    public record OrderCreated(Long orderId, String orderNumber, Long userId, OrderStatus status,
+                               BigDecimal totalAmount) {
+    }
+
+    // previousStatus is only known when a single order changes; bulk changes list every order moved to status
+    public record OrderStatusChanged(List<Long> orderIds, OrderStatus previousStatus, OrderStatus status) {
+    }
+
+    // Signed stock change per product id
+    public record StockChanged(Map<Long, Integer> deltas) {
+    }
+}
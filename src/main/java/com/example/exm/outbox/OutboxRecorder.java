@@ -0,0 +1,50 @@
+package com.example.exm.outbox;
+
+import com.example.exm.entity.OutboxEvent;
+import com.example.exm.entity.OutboxEventType;
+import com.example.exm.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends events to the outbox. It must run inside the transaction that makes the change, so an event is
+ * stored if and only if that change commits.
+ */
+@Component
+public class OutboxRecorder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectWriter payloadWriter;
+
+    public OutboxRecorder(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        // The shared mapper pretty-prints API responses; events are stored compact
+        this.payloadWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType eventType, Long aggregateId, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateType(eventType.getAggregateType())
+                .aggregateId(aggregateId)
+                .payload(toJson(payload))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return payloadWriter.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload cannot be serialized", e);
+        }
+    }
+}
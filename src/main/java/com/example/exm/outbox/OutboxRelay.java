@@ -0,0 +1,115 @@
+package com.example.exm.outbox;
+
+import com.example.exm.entity.OutboxEvent;
+import com.example.exm.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches: lock the oldest unclaimed rows, hand them to the {@link OutboxSink} and delete
+ * them, all in one transaction. Rows locked by a relay on another node are skipped, so every node can run a
+ * relay without delivering an event twice.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+    private final Timer batchTimer;
+    // Age of the oldest event in the last published batch
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${app.outbox.relay.batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+
+        this.publishedEvents = Counter.builder("outbox.relay.events")
+                .description("Outbox events published")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches that failed to publish and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to lock, publish and delete one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest event in the last published batch")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:1s}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Keep going while batches come back full so a backlog does not wait for the next tick
+            while (relayBatch() == batchSize) {
+                log.debug("Outbox batch full, relaying the next one");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, the batch will be retried: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes at most one batch and returns the number of events published.
+     */
+    public int relayBatch() {
+        Timer.Sample sample = Timer.start();
+        try {
+            Integer published = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+                if (events.isEmpty()) {
+                    return 0;
+                }
+
+                outboxSink.publish(events);
+                outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+                recordLag(events);
+                return events.size();
+            });
+            publishedEvents.increment(published);
+            return published;
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            throw e;
+        } finally {
+            sample.stop(batchTimer);
+        }
+    }
+
+    private void recordLag(List<OutboxEvent> events) {
+        LocalDateTime oldest = events.stream()
+                .map(OutboxEvent::getCreatedAt)
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+        lagMillis.set(Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+}
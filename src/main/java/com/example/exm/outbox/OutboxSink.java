@@ -0,0 +1,15 @@
+package com.example.exm.outbox;
+
+import com.example.exm.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events (message broker, webhook, log, ...). A batch is deleted from the
+ * outbox only after {@link #publish} returns, so delivery is at least once: a sink that throws gets the same
+ * events again on the next relay run, and consumers should de-duplicate on the event id.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
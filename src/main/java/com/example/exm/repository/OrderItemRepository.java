@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,4 +23,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     @Query("SELECT oi FROM OrderItem oi WHERE oi.product.id = :productId")
     List<OrderItem> findByProductId(@Param("productId") Long productId);
-}
\ No newline at end of file
+
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi " +
+            "WHERE oi.order.id IN :orderIds GROUP BY oi.product.id ORDER BY oi.product.id")
+    List<Object[]> sumQuantitiesByProductForOrders(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -1,21 +1,31 @@
 package com.example.exm.repository;
 
+import com.example.exm.dto.response.OrderExportRow;
 import com.example.exm.entity.Order;
 import com.example.exm.entity.OrderStatus;
 import com.example.exm.entity.User;
 import com.example.exm.repository.custom.CustomOrderRepository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>,
@@ -55,4 +65,98 @@ public interface OrderRepository extends JpaRepository<Order, Long>,
     List<Order> findByUserAndStatus(User testUser1, OrderStatus orderStatus);
 
     List<Order> findByShippingAddressContainingIgnoreCase(String mainSt);
-}
\ No newline at end of file
+
+    // Order listings page over ids first and then load the page with findWithDetailsByIdIn, because
+    // paginating a query that fetches the orderItems collection would be done in memory
+
+    @Query("SELECT o.id FROM Order o")
+    Page<Long> findIds(Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status")
+    Page<Long> findIdsByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+    // Range scan over the (item_count, id) index, read backwards
+    @Query(value = "SELECT o.id FROM Order o WHERE o.itemCount >= :minItems ORDER BY o.itemCount DESC, o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.itemCount >= :minItems")
+    Page<Long> findIdsByItemCountAtLeast(@Param("minItems") int minItems, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate ORDER BY o.orderDate, o.id")
+    List<Long> findIdsByOrderDateBetween(@Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o " +
+            "WHERE o.orderDate >= :from AND o.orderDate < :to AND o.status IN :statuses")
+    BigDecimal sumRevenue(@Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to,
+                          @Param("statuses") Collection<OrderStatus> statuses);
+
+    // Rows of [date, revenue, order count] per calendar day, for checking the daily revenue rollup
+    @Query("SELECT cast(o.orderDate as LocalDate), SUM(o.totalAmount), COUNT(o) FROM Order o " +
+            "WHERE o.orderDate >= :from AND o.orderDate < :to AND o.status IN :statuses " +
+            "GROUP BY cast(o.orderDate as LocalDate) ORDER BY cast(o.orderDate as LocalDate)")
+    List<Object[]> sumRevenueByDay(@Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("SELECT o.orderDate, o.totalAmount FROM Order o WHERE o.id IN :ids AND o.status IN :statuses")
+    List<Object[]> findRevenueByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+                                                @Param("statuses") Collection<OrderStatus> statuses);
+
+    // Scalar rows read through a forward-only cursor: nothing is hydrated into the persistence context, and the
+    // driver only holds one fetch of rows at a time. Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.exm.dto.response.OrderExportRow(o.id, o.orderNumber, o.orderDate, o.status, " +
+            "o.totalAmount, u.id, u.email, p.id, p.name, oi.quantity, oi.unitPrice, oi.totalPrice) " +
+            "FROM Order o JOIN o.user u LEFT JOIN o.orderItems oi LEFT JOIN oi.product p " +
+            "WHERE o.orderDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY o.orderDate, o.id, oi.id")
+    Stream<OrderExportRow> streamExportRows(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findWithDetailsById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.orderNumber = :orderNumber")
+    Optional<Order> findWithDetailsByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status IN :statuses ORDER BY o.id")
+    List<Long> lockIdsByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+                                        @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId AND o.status IN :statuses " +
+            "AND (:orderedBefore IS NULL OR o.orderDate < :orderedBefore) ORDER BY o.id")
+    List<Long> findIdsByStatusInAndOrderDateBefore(@Param("afterId") Long afterId,
+                                                   @Param("statuses") Collection<OrderStatus> statuses,
+                                                   @Param("orderedBefore") LocalDateTime orderedBefore,
+                                                   Pageable pageable);
+
+    // Leaves the version alone, like the user aggregates, so line edits never conflict with status changes.
+    // Flushes pending changes first but does not clear, so an order already loaded in the caller's persistence
+    // context keeps its old itemCount and totalUnits until it is re-read
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.itemCount = o.itemCount + :items, o.totalUnits = o.totalUnits + :units " +
+            "WHERE o.id = :id")
+    int addItemTotals(@Param("id") Long id, @Param("items") int items, @Param("units") int units);
+
+    // Flushes pending changes first and clears afterwards, so orders already loaded in the caller's
+    // persistence context are re-read with their new status
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.version = o.version + 1, o.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE o.id IN :ids AND o.status IN :fromStatuses")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("fromStatuses") Collection<OrderStatus> fromStatuses,
+                     @Param("status") OrderStatus status);
+}
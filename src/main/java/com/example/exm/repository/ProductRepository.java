@@ -1,21 +1,32 @@
 package com.example.exm.repository;
 
+import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.dto.response.ProductSuggestionResponse;
 import com.example.exm.entity.Product;
 import com.example.exm.entity.ProductStatus;
+import com.example.exm.repository.custom.CustomProductRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>,
-        JpaSpecificationExecutor<Product> {
+        JpaSpecificationExecutor<Product>,
+        CustomProductRepository {
+
+    // Read-only listings select straight into the response DTO: no managed entities, no dirty-checking snapshots
+    String SELECT_PRODUCT_RESPONSE = "SELECT new com.example.exm.dto.response.ProductResponse(" +
+            "p.id, p.name, p.description, p.price, p.stockQuantity, p.category, p.brand, p.imageUrl, " +
+            "p.status, p.createdAt, p.updatedAt) FROM Product p";
 
     List<Product> findByStatus(ProductStatus status);
 
@@ -27,13 +38,48 @@ public interface ProductRepository extends JpaRepository<Product, Long>,
 
     List<Product> findByBrand(String brand);
 
+    @Query(value = SELECT_PRODUCT_RESPONSE,
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductResponse> findAllResponses(Pageable pageable);
+
+    @Query(value = SELECT_PRODUCT_RESPONSE + " WHERE p.status = :status",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = :status")
+    Page<ProductResponse> findResponsesByStatus(@Param("status") ProductStatus status, Pageable pageable);
+
+    @Query(value = SELECT_PRODUCT_RESPONSE + " WHERE p.category = :category",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category = :category")
+    Page<ProductResponse> findResponsesByCategory(@Param("category") String category, Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE p.name LIKE %:name%")
     List<Product> findByNameContaining(@Param("name") String name);
 
+    @Query(value = SELECT_PRODUCT_RESPONSE + " WHERE p.name LIKE %:name%",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.name LIKE %:name%")
+    Page<ProductResponse> findResponsesByNameContaining(@Param("name") String name, Pageable pageable);
+
+    @Query(SELECT_PRODUCT_RESPONSE + " WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.exm.dto.response.ProductSuggestionResponse(p.id, p.name) FROM Product p " +
+            "WHERE p.status = com.example.exm.entity.ProductStatus.ACTIVE " +
+            "AND (LOWER(p.name) LIKE CONCAT(:prefix, '%') OR LOWER(p.brand) LIKE CONCAT(:prefix, '%')) " +
+            "ORDER BY p.name")
+    List<ProductSuggestionResponse> findSuggestionsByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice")
     List<Product> findByPriceBetween(@Param("minPrice") BigDecimal minPrice,
                                      @Param("maxPrice") BigDecimal maxPrice);
 
     @Query("SELECT p FROM Product p WHERE p.stockQuantity <= :threshold")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+}
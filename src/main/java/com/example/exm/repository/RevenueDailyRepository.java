@@ -0,0 +1,48 @@
+package com.example.exm.repository;
+
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.RevenueDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RevenueDailyRepository extends JpaRepository<RevenueDaily, LocalDate> {
+
+    // Atomic upsert: ON CONFLICT on PostgreSQL, MERGE on H2
+    @Modifying
+    @Query("INSERT INTO RevenueDaily (revenueDate, revenue, orderCount) VALUES (:date, :revenue, :orderCount) " +
+            "ON CONFLICT (revenueDate) DO UPDATE SET revenue = revenue + excluded.revenue, " +
+            "orderCount = orderCount + excluded.orderCount")
+    int addRevenue(@Param("date") LocalDate date,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("orderCount") long orderCount);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM RevenueDaily r " +
+            "WHERE r.revenueDate >= :fromDate AND r.revenueDate < :toDate")
+    BigDecimal sumRevenue(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    List<RevenueDaily> findByRevenueDateGreaterThanEqualAndRevenueDateLessThanOrderByRevenueDate(LocalDate fromDate,
+                                                                                                 LocalDate toDate);
+
+    @Modifying
+    @Query("DELETE FROM RevenueDaily r WHERE r.revenueDate >= :fromDate AND r.revenueDate < :toDate")
+    int deleteRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query("INSERT INTO RevenueDaily (revenueDate, revenue, orderCount) " +
+            "SELECT cast(o.orderDate as LocalDate), SUM(o.totalAmount), COUNT(o) FROM Order o " +
+            "WHERE o.orderDate >= :from AND o.orderDate < :to AND o.status IN :statuses " +
+            "GROUP BY cast(o.orderDate as LocalDate)")
+    int insertFromOrders(@Param("from") LocalDateTime from,
+                         @Param("to") LocalDateTime to,
+                         @Param("statuses") Collection<OrderStatus> statuses);
+}
@@ -1,5 +1,6 @@
 package com.example.exm.repository;
 
+import com.example.exm.entity.OrderStatus;
 import com.example.exm.entity.User;
 import com.example.exm.entity.UserStatus;
 import com.example.exm.repository.custom.CustomUserRepository;
@@ -11,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +31,35 @@ public interface UserRepository extends JpaRepository<User, Long>,
     List<User> findByNameContaining(@Param("name") String name);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Fallback for /api/users/lookup until the lookup index is built; no index can serve these predicates
+    @Query(value = "SELECT u FROM User u WHERE LOWER(u.firstName) LIKE CONCAT('%', :fragment, '%') " +
+            "OR LOWER(u.lastName) LIKE CONCAT('%', :fragment, '%') OR LOWER(u.email) LIKE CONCAT('%', :fragment, '%') " +
+            "OR u.phoneNumber LIKE CONCAT('%', :fragment, '%') ORDER BY u.id",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE LOWER(u.firstName) LIKE CONCAT('%', :fragment, '%') " +
+                    "OR LOWER(u.lastName) LIKE CONCAT('%', :fragment, '%') OR LOWER(u.email) LIKE CONCAT('%', :fragment, '%') " +
+                    "OR u.phoneNumber LIKE CONCAT('%', :fragment, '%')")
+    Page<User> findByLookupFragment(@Param("fragment") String fragment, Pageable pageable);
+
+    // Per user among the given orders in one of fromStatuses: how many there are, how many are active, and the
+    // spend of those not withdrawn yet
+    @Query("SELECT o.user.id, COUNT(o), " +
+            "SUM(CASE WHEN o.status IN :activeStatuses THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.status IN :withdrawnStatuses THEN 0 ELSE o.totalAmount END) " +
+            "FROM Order o WHERE o.id IN :orderIds AND o.status IN :fromStatuses GROUP BY o.user.id")
+    List<Object[]> summarizeOrdersByUser(@Param("orderIds") Collection<Long> orderIds,
+                                         @Param("fromStatuses") Collection<OrderStatus> fromStatuses,
+                                         @Param("activeStatuses") Collection<OrderStatus> activeStatuses,
+                                         @Param("withdrawnStatuses") Collection<OrderStatus> withdrawnStatuses);
+
+    // Literal predicate so PostgreSQL can use the partial idx_users_active_orders index
+    @Query(value = "SELECT u FROM User u WHERE u.activeOrderCount > 0",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.activeOrderCount > 0")
+    Page<User> findWithActiveOrders(Pageable pageable);
+
+    @Query("SELECT u.activeOrderCount FROM User u WHERE u.id = :id")
+    Optional<Integer> findActiveOrderCountById(@Param("id") Long id);
+
+    @Query("SELECT u.id, u.orderCount, u.lifetimeSpend FROM User u WHERE u.orderCount > 0")
+    List<Object[]> findOrderTotals();
+}
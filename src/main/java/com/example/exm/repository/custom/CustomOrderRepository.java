@@ -2,8 +2,10 @@ package com.example.exm.repository.custom;
 
 import com.example.exm.entity.Order;
 import com.example.exm.entity.OrderStatus;
+import com.example.exm.util.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,7 +14,6 @@ import java.util.List;
 public interface CustomOrderRepository {
     List<Order> findOrdersByDateRangeAndStatus(LocalDateTime startDate, LocalDateTime endDate, OrderStatus status);
     Page<Order> findOrdersWithTotalAmountGreaterThan(BigDecimal amount, Pageable pageable);
-    List<Order> findOrdersWithMultipleItems(int minItems);
     BigDecimal getTotalRevenueByDateRange(LocalDateTime startDate, LocalDateTime endDate);
-
+    List<Long> findIdsAfter(String sortProperty, Sort.Direction direction, KeysetCursor after, int limit);
 }
\ No newline at end of file
@@ -2,12 +2,14 @@ package com.example.exm.repository.custom;
 
 import com.example.exm.entity.Order;
 import com.example.exm.entity.OrderStatus;
+import com.example.exm.util.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
@@ -55,17 +57,6 @@ public class CustomOrderRepositoryImpl implements CustomOrderRepository {
         return new PageImpl<>(orders, pageable, total);
     }
 
-    @Override
-    public List<Order> findOrdersWithMultipleItems(int minItems) {
-        String jpql = "SELECT o FROM Order o " +
-                "WHERE SIZE(o.orderItems) >= :minItems " +
-                "ORDER BY SIZE(o.orderItems) DESC";
-
-        TypedQuery<Order> query = entityManager.createQuery(jpql, Order.class);
-        query.setParameter("minItems", minItems);
-        return query.getResultList();
-    }
-
     @Override
     public BigDecimal getTotalRevenueByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         String jpql = "SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o " +
@@ -77,4 +68,10 @@ public class CustomOrderRepositoryImpl implements CustomOrderRepository {
         query.setParameter("endDate", endDate);
         return query.getSingleResult();
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<Long> findIdsAfter(String sortProperty, Sort.Direction direction, KeysetCursor after, int limit) {
+        return KeysetQueries.seek(entityManager, "SELECT o.id FROM Order o", "o", Long.class,
+                sortProperty, direction, after, limit);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.exm.repository.custom;
+
+import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.util.KeysetCursor;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.SortedMap;
+
+public interface CustomProductRepository {
+    int[] decrementStockIfAvailable(SortedMap<Long, Integer> quantitiesByProductId);
+    int[] incrementStock(SortedMap<Long, Integer> quantitiesByProductId);
+    List<ProductResponse> findResponsesAfter(String sortProperty, Sort.Direction direction, KeysetCursor after, int limit);
+}
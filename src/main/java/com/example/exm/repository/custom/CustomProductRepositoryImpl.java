@@ -0,0 +1,68 @@
+package com.example.exm.repository.custom;
+
+import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@Repository
+public class CustomProductRepositoryImpl implements CustomProductRepository {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, version = version + 1 " +
+            "WHERE id = ? AND stock_quantity >= ? AND status = 'ACTIVE'";
+
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1 WHERE id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int[] decrementStockIfAvailable(SortedMap<Long, Integer> quantitiesByProductId) {
+        // Rows are updated in ascending id order so concurrent orders touching the same products cannot deadlock
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DECREMENT_STOCK_SQL)) {
+                for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+                    statement.setInt(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                    statement.setInt(3, entry.getValue());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public int[] incrementStock(SortedMap<Long, Integer> quantitiesByProductId) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INCREMENT_STOCK_SQL)) {
+                for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+                    statement.setInt(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public List<ProductResponse> findResponsesAfter(String sortProperty, Sort.Direction direction,
+                                                    KeysetCursor after, int limit) {
+        return KeysetQueries.seek(entityManager, ProductRepository.SELECT_PRODUCT_RESPONSE, "p", ProductResponse.class,
+                sortProperty, direction, after, limit);
+    }
+}
@@ -1,13 +1,37 @@
 package com.example.exm.repository.custom;
 
 import com.example.exm.entity.User;
+import com.example.exm.util.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.SortedMap;
 
 public interface CustomUserRepository {
     List<User> findUsersWithActiveOrders();
     Page<User> findUsersWithRecentActivity(int days, Pageable pageable);
     List<User> findTopCustomersByOrderCount(int limit);
+    List<User> findTopCustomersBySpend(int limit);
+    int[] addOrderTotals(SortedMap<Long, OrderTotals> totalsByUserId);
+    List<User> findUsersAfter(String sortProperty, Sort.Direction direction, KeysetCursor after, int limit);
+    List<User> findUsersOrderedSince(LocalDateTime since, KeysetCursor after, int limit);
+
+    /**
+     * Deltas for one user's order aggregates. {@code lastOrderAt} only ever moves forward; pass {@code null}
+     * to leave it alone.
+     */
+    record OrderTotals(long orderCount, BigDecimal spend, int activeOrderCount, LocalDateTime lastOrderAt) {
+
+        public OrderTotals plus(OrderTotals other) {
+            LocalDateTime latest = lastOrderAt == null || (other.lastOrderAt != null && other.lastOrderAt.isAfter(lastOrderAt))
+                    ? other.lastOrderAt
+                    : lastOrderAt;
+            return new OrderTotals(orderCount + other.orderCount, spend.add(other.spend),
+                    activeOrderCount + other.activeOrderCount, latest);
+        }
+    }
 }
\ No newline at end of file
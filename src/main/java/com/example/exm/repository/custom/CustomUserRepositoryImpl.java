@@ -1,20 +1,34 @@
 package com.example.exm.repository.custom;
 
 import com.example.exm.entity.User;
+import com.example.exm.util.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 
 @Repository
 public class CustomUserRepositoryImpl implements CustomUserRepository {
 
+    // Aggregates only, so the version is left alone and a concurrent profile edit does not fail
+    private static final String ADD_ORDER_TOTALS_SQL =
+            "UPDATE users SET order_count = order_count + ?, lifetime_spend = lifetime_spend + ?, " +
+            "active_order_count = active_order_count + ?, " +
+            "last_order_at = CASE WHEN last_order_at IS NULL OR last_order_at < ? THEN ? ELSE last_order_at END " +
+            "WHERE id = ?";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -32,10 +46,9 @@ public class CustomUserRepositoryImpl implements CustomUserRepository {
     public Page<User> findUsersWithRecentActivity(int days, Pageable pageable) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
 
-        String jpql = "SELECT DISTINCT u FROM User u " +
-                "JOIN u.orders o " +
-                "WHERE o.orderDate >= :cutoffDate " +
-                "ORDER BY o.orderDate DESC";
+        String jpql = "SELECT u FROM User u " +
+                "WHERE u.lastOrderAt >= :cutoffDate " +
+                "ORDER BY u.lastOrderAt DESC, u.id DESC";
 
         TypedQuery<User> query = entityManager.createQuery(jpql, User.class);
         query.setParameter("cutoffDate", cutoffDate);
@@ -45,9 +58,7 @@ public class CustomUserRepositoryImpl implements CustomUserRepository {
         List<User> users = query.getResultList();
 
         // Count query
-        String countJpql = "SELECT COUNT(DISTINCT u) FROM User u " +
-                "JOIN u.orders o " +
-                "WHERE o.orderDate >= :cutoffDate";
+        String countJpql = "SELECT COUNT(u) FROM User u WHERE u.lastOrderAt >= :cutoffDate";
 
         TypedQuery<Long> countQuery = entityManager.createQuery(countJpql, Long.class);
         countQuery.setParameter("cutoffDate", cutoffDate);
@@ -58,13 +69,52 @@ public class CustomUserRepositoryImpl implements CustomUserRepository {
 
     @Override
     public List<User> findTopCustomersByOrderCount(int limit) {
-        String jpql = "SELECT u FROM User u " +
-                "LEFT JOIN u.orders o " +
-                "GROUP BY u " +
-                "ORDER BY COUNT(o) DESC";
+        String jpql = "SELECT u FROM User u ORDER BY u.orderCount DESC, u.id";
+
+        TypedQuery<User> query = entityManager.createQuery(jpql, User.class);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<User> findTopCustomersBySpend(int limit) {
+        String jpql = "SELECT u FROM User u WHERE u.orderCount > 0 ORDER BY u.lifetimeSpend DESC, u.id";
 
         TypedQuery<User> query = entityManager.createQuery(jpql, User.class);
         query.setMaxResults(limit);
         return query.getResultList();
     }
+
+    @Override
+    public List<User> findUsersAfter(String sortProperty, Sort.Direction direction, KeysetCursor after, int limit) {
+        return KeysetQueries.seek(entityManager, "SELECT u FROM User u", "u", User.class,
+                sortProperty, direction, after, limit);
+    }
+
+    @Override
+    public List<User> findUsersOrderedSince(LocalDateTime since, KeysetCursor after, int limit) {
+        return KeysetQueries.seek(entityManager, "SELECT u FROM User u", "u.lastOrderAt >= :since",
+                Map.of("since", since), "u", User.class, "lastOrderAt", Sort.Direction.DESC, after, limit);
+    }
+
+    @Override
+    public int[] addOrderTotals(SortedMap<Long, OrderTotals> totalsByUserId) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ADD_ORDER_TOTALS_SQL)) {
+                for (Map.Entry<Long, OrderTotals> entry : totalsByUserId.entrySet()) {
+                    statement.setLong(1, entry.getValue().orderCount());
+                    statement.setBigDecimal(2, entry.getValue().spend());
+                    statement.setInt(3, entry.getValue().activeOrderCount());
+                    Timestamp lastOrderAt = entry.getValue().lastOrderAt() == null
+                            ? null : Timestamp.valueOf(entry.getValue().lastOrderAt());
+                    statement.setTimestamp(4, lastOrderAt);
+                    statement.setTimestamp(5, lastOrderAt);
+                    statement.setLong(6, entry.getKey());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.exm.repository.custom;
+
+import com.example.exm.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds seek queries for cursor pagination: {@code (key, id)} past the cursor in the requested direction,
+ * ordered by the same pair, with no OFFSET and no COUNT.
+ */
+final class KeysetQueries {
+
+    private KeysetQueries() {
+    }
+
+    static <T> List<T> seek(EntityManager entityManager, String select, String alias, Class<T> resultType,
+                            String property, Sort.Direction direction, KeysetCursor after, int limit) {
+        return seek(entityManager, select, null, Map.of(), alias, resultType, property, direction, after, limit);
+    }
+
+    /**
+     * Same as above, restricted by {@code condition} (a JPQL predicate without WHERE) bound with {@code parameters}.
+     */
+    static <T> List<T> seek(EntityManager entityManager, String select, String condition, Map<String, ?> parameters,
+                            String alias, Class<T> resultType, String property, Sort.Direction direction,
+                            KeysetCursor after, int limit) {
+        String comparison = direction.isAscending() ? ">" : "<";
+        String order = direction.isAscending() ? " ASC" : " DESC";
+        String key = alias + "." + property;
+        String id = alias + ".id";
+        boolean byId = "id".equals(property);
+
+        List<String> predicates = new ArrayList<>();
+        if (condition != null) {
+            predicates.add("(" + condition + ")");
+        }
+        if (after != null) {
+            // A row-value comparison is a single range start on the (key, id) index; the equivalent OR of two
+            // comparisons is not, and makes the database scan every row before the cursor
+            predicates.add(byId
+                    ? id + " " + comparison + " :lastId"
+                    : "(" + key + ", " + id + ") " + comparison + " (:lastValue, :lastId)");
+        }
+
+        StringBuilder jpql = new StringBuilder(select);
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        jpql.append(" ORDER BY ");
+        if (!byId) {
+            jpql.append(key).append(order).append(", ");
+        }
+        jpql.append(id).append(order);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+        parameters.forEach(query::setParameter);
+        if (after != null) {
+            query.setParameter("lastId", after.id());
+            if (!byId) {
+                query.setParameter("lastValue", after.value());
+            }
+        }
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
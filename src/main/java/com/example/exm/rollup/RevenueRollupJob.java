@@ -0,0 +1,84 @@
+package com.example.exm.rollup;
+
+import com.example.exm.dto.response.RevenueDiscrepancy;
+import com.example.exm.service.RevenueRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nightly consistency check of the daily revenue rollup against the orders table. Days that disagree are
+ * logged, counted in {@code revenue.rollup.discrepancies} and, when repair is enabled, rebuilt.
+ */
+@Component
+@Slf4j
+public class RevenueRollupJob {
+
+    private final RevenueRollupService revenueRollupService;
+    private final boolean enabled;
+    private final int checkDays;
+    private final boolean repair;
+
+    private final AtomicInteger lastDiscrepancies = new AtomicInteger();
+    private final Counter repairedDays;
+
+    public RevenueRollupJob(RevenueRollupService revenueRollupService, MeterRegistry meterRegistry,
+                            @Value("${app.revenue.rollup.check.enabled:true}") boolean enabled,
+                            @Value("${app.revenue.rollup.check.days:7}") int checkDays,
+                            @Value("${app.revenue.rollup.check.repair:true}") boolean repair) {
+        this.revenueRollupService = revenueRollupService;
+        this.enabled = enabled;
+        this.checkDays = checkDays;
+        this.repair = repair;
+
+        Gauge.builder("revenue.rollup.discrepancies", lastDiscrepancies, AtomicInteger::get)
+                .description("Days on which the revenue rollup disagreed with orders at the last check")
+                .register(meterRegistry);
+        this.repairedDays = Counter.builder("revenue.rollup.repaired")
+                .description("Revenue rollup days rebuilt after a failed consistency check")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.revenue.rollup.check.cron:0 30 2 * * *}")
+    public void checkRecentDays() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            check(today.minusDays(checkDays), today.plusDays(1));
+        } catch (RuntimeException e) {
+            log.warn("Revenue rollup consistency check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks {@code [fromDate, toDate)} and returns the days that disagreed before any repair.
+     */
+    public List<RevenueDiscrepancy> check(LocalDate fromDate, LocalDate toDate) {
+        List<RevenueDiscrepancy> discrepancies = revenueRollupService.findDiscrepancies(fromDate, toDate);
+        lastDiscrepancies.set(discrepancies.size());
+        if (discrepancies.isEmpty()) {
+            log.info("Revenue rollup consistent for [{}, {})", fromDate, toDate);
+            return discrepancies;
+        }
+
+        discrepancies.forEach(d -> log.warn("Revenue rollup mismatch on {}: rollup {} ({} orders), orders {} ({} orders)",
+                d.date(), d.rollupRevenue(), d.rollupOrderCount(), d.actualRevenue(), d.actualOrderCount()));
+        if (repair) {
+            for (RevenueDiscrepancy discrepancy : discrepancies) {
+                revenueRollupService.rebuild(discrepancy.date(), discrepancy.date().plusDays(1));
+                repairedDays.increment();
+            }
+        }
+        return discrepancies;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.exm.search;
+
+import java.util.Map;
+
+/**
+ * Products matching a filter, and per facet value how many would match if that facet's own filter were
+ * changed to the value. Values are ordered by count, except price buckets, which keep their price order.
+ */
+public record FacetCounts(long total, Map<String, Integer> categories, Map<String, Integer> brands,
+                          Map<String, Integer> statuses, Map<String, Integer> priceBuckets) {
+}
@@ -0,0 +1,13 @@
+package com.example.exm.search;
+
+import com.example.exm.entity.ProductStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Product filter to count facets for; null or blank values do not filter, like the matching
+ * {@link com.example.exm.specification.ProductSpecification} predicates.
+ */
+public record FacetFilter(String category, String brand, ProductStatus status, BigDecimal minPrice,
+                          BigDecimal maxPrice, boolean inStock) {
+}
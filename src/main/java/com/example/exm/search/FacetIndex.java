@@ -0,0 +1,299 @@
+package com.example.exm.search;
+
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.util.LongIntHashMap;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per facet value, the set of products having it: category, brand, status, price bucket, and whether the product
+ * is in stock. A filter is the intersection of the sets it selects, and a facet value's count is the size of its
+ * set within that intersection, so counting another facet costs set operations rather than a GROUP BY.
+ * <p>
+ * Every product keeps its ordinal; a change moves it between sets. Safe for concurrent counts, but changes need
+ * exclusive access.
+ */
+final class FacetIndex {
+
+    private final long[] bucketStarts;
+    private final String[] bucketLabels;
+    private final Map<String, OrdinalSet> categories = new HashMap<>();
+    private final Map<String, OrdinalSet> brands = new HashMap<>();
+    private final Map<ProductStatus, OrdinalSet> statuses = new EnumMap<>(ProductStatus.class);
+    private final OrdinalSet[] priceBuckets;
+    private final OrdinalSet inStock = new OrdinalSet();
+    private final LongIntHashMap ordinalByProductId;
+    // Per ordinal, the sets the product is in, so a change knows what to leave
+    private OrdinalSet[] categoryOf;
+    private OrdinalSet[] brandOf;
+    private OrdinalSet[] statusOf;
+    private OrdinalSet[] bucketOf;
+    private long[] priceCents;
+    private int[] stock;
+    private int ordinals;
+    private boolean trimmed;
+
+    /**
+     * @param priceBucketBounds ascending prices separating the buckets; the first bucket starts at zero and the
+     *                          last one is open-ended
+     */
+    FacetIndex(BigDecimal[] priceBucketBounds, int expectedProducts) {
+        bucketStarts = new long[priceBucketBounds.length + 1];
+        bucketLabels = new String[bucketStarts.length];
+        priceBuckets = new OrdinalSet[bucketStarts.length];
+        String lower = "0";
+        for (int i = 0; i < bucketStarts.length; i++) {
+            if (i > 0) {
+                bucketStarts[i] = cents(priceBucketBounds[i - 1], RoundingMode.CEILING);
+                if (bucketStarts[i] <= bucketStarts[i - 1]) {
+                    throw new IllegalArgumentException("Price bucket bounds must be positive and ascending");
+                }
+                lower = priceBucketBounds[i - 1].stripTrailingZeros().toPlainString();
+            }
+            bucketLabels[i] = i < priceBucketBounds.length
+                    ? lower + "-" + priceBucketBounds[i].stripTrailingZeros().toPlainString()
+                    : lower + "+";
+            priceBuckets[i] = new OrdinalSet();
+        }
+        for (ProductStatus status : ProductStatus.values()) {
+            statuses.put(status, new OrdinalSet());
+        }
+        ordinalByProductId = new LongIntHashMap(expectedProducts);
+        int capacity = Math.max(16, expectedProducts);
+        categoryOf = new OrdinalSet[capacity];
+        brandOf = new OrdinalSet[capacity];
+        statusOf = new OrdinalSet[capacity];
+        bucketOf = new OrdinalSet[capacity];
+        priceCents = new long[capacity];
+        stock = new int[capacity];
+    }
+
+    /**
+     * Records the product's facet values, replacing the ones recorded for it before.
+     */
+    void put(long productId, String category, String brand, ProductStatus status, BigDecimal price,
+             int stockQuantity) {
+        int ordinal = ordinalByProductId.get(productId);
+        if (ordinal == LongIntHashMap.MISSING) {
+            ordinal = ordinals++;
+            if (ordinal == stock.length) {
+                grow(ordinal + (ordinal >> 1));
+            }
+            ordinalByProductId.put(productId, ordinal);
+        }
+        categoryOf[ordinal] = move(ordinal, categoryOf[ordinal], valueSet(categories, category));
+        brandOf[ordinal] = move(ordinal, brandOf[ordinal], valueSet(brands, brand));
+        statusOf[ordinal] = move(ordinal, statusOf[ordinal], status == null ? null : statuses.get(status));
+        priceCents[ordinal] = price == null ? -1 : cents(price, RoundingMode.HALF_UP);
+        bucketOf[ordinal] = move(ordinal, bucketOf[ordinal],
+                price == null ? null : priceBuckets[bucket(priceCents[ordinal])]);
+        setStock(ordinal, stockQuantity);
+    }
+
+    /**
+     * Applies a committed stock change; unknown products are left to the next rebuild.
+     */
+    void changeStock(long productId, int delta) {
+        int ordinal = ordinalByProductId.get(productId);
+        if (ordinal != LongIntHashMap.MISSING) {
+            setStock(ordinal, stock[ordinal] + delta);
+        }
+    }
+
+    int size() {
+        return ordinals;
+    }
+
+    /**
+     * Releases spare capacity and turns common values into bitmaps. Sets created or grown later are checked as
+     * they change.
+     */
+    void trim() {
+        categories.values().forEach(set -> set.trim(ordinals));
+        brands.values().forEach(set -> set.trim(ordinals));
+        statuses.values().forEach(set -> set.trim(ordinals));
+        Arrays.stream(priceBuckets).forEach(set -> set.trim(ordinals));
+        inStock.trim(ordinals);
+        trimmed = true;
+    }
+
+    long estimatedBytes() {
+        long bytes = ordinalByProductId.estimatedBytes() + (long) stock.length * (4 * 4 + Long.BYTES + Integer.BYTES);
+        for (Map<?, OrdinalSet> values : List.of(categories, brands, statuses)) {
+            for (OrdinalSet set : values.values()) {
+                bytes += set.estimatedBytes();
+            }
+        }
+        for (OrdinalSet set : priceBuckets) {
+            bytes += set.estimatedBytes();
+        }
+        return bytes + inStock.estimatedBytes();
+    }
+
+    /**
+     * Counts for every facet value. Each facet is counted under the other facets' filters but not its own, so the
+     * counts show what choosing another value of that facet would return.
+     */
+    FacetCounts count(FacetFilter filter) {
+        int wordCount = (ordinals + Long.SIZE - 1) / Long.SIZE;
+        long[] all = new long[wordCount];
+        Arrays.fill(all, -1L);
+        if (ordinals % Long.SIZE != 0) {
+            all[wordCount - 1] = (1L << ordinals) - 1;
+        }
+        long[] stockMask = filter.inStock() ? mask(inStock, wordCount) : null;
+        long[] categoryMask = isBlank(filter.category()) ? null : mask(categories.get(filter.category()), wordCount);
+        long[] brandMask = isBlank(filter.brand()) ? null : mask(brands.get(filter.brand()), wordCount);
+        long[] statusMask = filter.status() == null ? null : mask(statuses.get(filter.status()), wordCount);
+        long[] priceMask = filter.minPrice() == null && filter.maxPrice() == null
+                ? null : priceMask(filter.minPrice(), filter.maxPrice(), wordCount);
+
+        long total = 0;
+        for (long word : and(all, stockMask, categoryMask, brandMask, statusMask, priceMask)) {
+            total += Long.bitCount(word);
+        }
+        Map<String, Integer> statusCounts = new HashMap<>();
+        long[] withoutStatus = and(all, stockMask, categoryMask, brandMask, priceMask);
+        statuses.forEach((status, set) -> statusCounts.put(status.name(), set.countIn(withoutStatus)));
+        Map<String, Integer> bucketCounts = new LinkedHashMap<>();
+        long[] withoutPrice = and(all, stockMask, categoryMask, brandMask, statusMask);
+        for (int i = 0; i < priceBuckets.length; i++) {
+            bucketCounts.put(bucketLabels[i], priceBuckets[i].countIn(withoutPrice));
+        }
+        return new FacetCounts(total,
+                counts(categories, and(all, stockMask, brandMask, statusMask, priceMask)),
+                counts(brands, and(all, stockMask, categoryMask, statusMask, priceMask)),
+                byCount(statusCounts),
+                bucketCounts);
+    }
+
+    private void setStock(int ordinal, int stockQuantity) {
+        stock[ordinal] = stockQuantity;
+        if (stockQuantity > 0) {
+            inStock.add(ordinal);
+        } else {
+            inStock.remove(ordinal);
+        }
+    }
+
+    private OrdinalSet move(int ordinal, OrdinalSet from, OrdinalSet to) {
+        if (from == to) {
+            return to;
+        }
+        if (from != null) {
+            from.remove(ordinal);
+        }
+        if (to != null) {
+            to.add(ordinal);
+            if (trimmed) {
+                to.densifyIfCommon(ordinals);
+            }
+        }
+        return to;
+    }
+
+    private static OrdinalSet valueSet(Map<String, OrdinalSet> values, String value) {
+        return isBlank(value) ? null : values.computeIfAbsent(value, key -> new OrdinalSet());
+    }
+
+    private void grow(int capacity) {
+        categoryOf = Arrays.copyOf(categoryOf, capacity);
+        brandOf = Arrays.copyOf(brandOf, capacity);
+        statusOf = Arrays.copyOf(statusOf, capacity);
+        bucketOf = Arrays.copyOf(bucketOf, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        stock = Arrays.copyOf(stock, capacity);
+    }
+
+    private int bucket(long cents) {
+        int position = Arrays.binarySearch(bucketStarts, cents);
+        return position >= 0 ? position : Math.max(0, -position - 2);
+    }
+
+    /**
+     * Products priced within the inclusive range: whole buckets inside it are taken as they are, and only the
+     * buckets cut by a bound are checked product by product.
+     */
+    private long[] priceMask(BigDecimal minPrice, BigDecimal maxPrice, int wordCount) {
+        long min = minPrice == null ? Long.MIN_VALUE : cents(minPrice, RoundingMode.CEILING);
+        long max = maxPrice == null ? Long.MAX_VALUE : cents(maxPrice, RoundingMode.FLOOR);
+        long[] mask = new long[wordCount];
+        for (int i = 0; i < priceBuckets.length; i++) {
+            long first = bucketStarts[i];
+            long last = i + 1 < bucketStarts.length ? bucketStarts[i + 1] - 1 : Long.MAX_VALUE;
+            if (first > max || last < min) {
+                continue;
+            }
+            if (first >= min && last <= max) {
+                priceBuckets[i].orInto(mask);
+            } else {
+                priceBuckets[i].forEach(ordinal -> {
+                    if (priceCents[ordinal] >= min && priceCents[ordinal] <= max) {
+                        mask[ordinal >>> 6] |= 1L << ordinal;
+                    }
+                });
+            }
+        }
+        return mask;
+    }
+
+    private static long[] mask(OrdinalSet set, int wordCount) {
+        long[] mask = new long[wordCount];
+        if (set != null) {
+            set.orInto(mask);
+        }
+        return mask;
+    }
+
+    private static long[] and(long[] all, long[]... masks) {
+        long[] result = all.clone();
+        for (long[] mask : masks) {
+            if (mask != null) {
+                for (int i = 0; i < result.length; i++) {
+                    result[i] &= mask[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> counts(Map<String, OrdinalSet> values, long[] within) {
+        Map<String, Integer> counts = new HashMap<>();
+        values.forEach((value, set) -> counts.put(value, set.countIn(within)));
+        return byCount(counts);
+    }
+
+    /**
+     * Non-zero counts, largest first, ties by value.
+     */
+    private static Map<String, Integer> byCount(Map<String, Integer> counts) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 0) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        entries.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return ordered;
+    }
+
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
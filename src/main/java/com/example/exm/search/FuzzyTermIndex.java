@@ -0,0 +1,706 @@
+package com.example.exm.search;
+
+import com.example.exm.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Typo-tolerant index from short terms, such as name words, email local-parts and phone digits, to documents.
+ * Every distinct term is stored once, and a query word is first expanded to the terms it matches:
+ * <ul>
+ *     <li>the word itself, and terms starting with or containing it, found by intersecting the term lists of its
+ *     trigrams;</li>
+ *     <li>fuzzy terms within one edit of a word of 4 to 7 characters, or two edits of a longer word. Fuzzy terms
+ *     of a similar length must share enough of the word's padded bigrams to be candidates, and candidates are
+ *     checked with an edit distance that gives up past the bound and counts a transposition as one edit.</li>
+ * </ul>
+ * Only terms indexed as fuzzy get bigrams. Names repeat across documents and stay few; identifiers such as
+ * phone numbers are unique per document and would make every typo lookup read long bigram lists.
+ * <p>
+ * A document must match every query word and scores its best match for each. As in {@link InvertedIndex},
+ * re-indexing a document retires its old ordinal, and building a fresh index drops retired ordinals and unused
+ * terms. Safe for concurrent searches, but changes need exclusive access.
+ */
+final class FuzzyTermIndex {
+
+    // Most terms a query word expands to, best matches first
+    static final int MAX_TERMS_PER_WORD = 512;
+    // Longer terms and words are cut, which keeps lengths within a byte
+    static final int MAX_TERM_LENGTH = 64;
+
+    // Scores of the ways a term can match a query word
+    static final int EXACT = 8;
+    static final int PREFIX = 5;
+    static final int ONE_EDIT = 4;
+    static final int SUBSTRING = 3;
+    static final int TWO_EDITS = 2;
+
+    private static final int NONE = -1;
+    private static final char PAD = ' ';
+    private static final PostingList NO_TERMS = new PostingList(new int[0], 0);
+    // Above the 48 bits of a packed trigram shifted past the length byte
+    private static final long FIRST_TRIGRAM = 1L << 60;
+
+    // Characters of term t are termChars[termStarts[t]] up to termChars[termStarts[t + 1]]
+    private char[] termChars;
+    private int[] termStarts;
+    private int terms;
+    // Open addressing from a term to its id + 1; 0 marks an empty slot
+    private int[] termTable;
+    // Ordinals of each term: the only one while there is one, a list from the second on. Most email and phone
+    // terms belong to a single document, so they never pay for a list.
+    private int[] soleOrdinals;
+    private PostingList[] ordinalLists;
+
+    // Keyed by trigram and term length, so prefixes and fragments can be read shortest terms first
+    private final LongIntHashMap trigramSlots;
+    private final List<PostingList> trigramTerms = new ArrayList<>();
+    // Fuzzy terms get their own ascending numbering, since a term first indexed as plain may later become fuzzy
+    private final BitSet fuzzy = new BitSet();
+    private int[] fuzzyTermIds = new int[16];
+    private int fuzzyCount;
+    // Fuzzy numbers keyed by bigram and term length, so typo candidates only come from terms of a similar length
+    private final LongIntHashMap bigramSlots;
+    private final List<PostingList> bigramTerms = new ArrayList<>();
+
+    private final LongIntHashMap ordinalByDocumentId;
+    private final BitSet retired = new BitSet();
+    private long[] documentIds;
+    private int ordinals;
+    private int retiredCount;
+
+    FuzzyTermIndex(int expectedDocuments) {
+        int expectedTerms = Math.max(16, expectedDocuments * 2);
+        termChars = new char[expectedTerms * 8];
+        termStarts = new int[expectedTerms + 1];
+        termTable = new int[Integer.highestOneBit(expectedTerms * 2 - 1) << 1];
+        soleOrdinals = new int[expectedTerms];
+        ordinalLists = new PostingList[expectedTerms];
+        trigramSlots = new LongIntHashMap(4096);
+        bigramSlots = new LongIntHashMap(4096);
+        ordinalByDocumentId = new LongIntHashMap(expectedDocuments);
+        documentIds = new long[Math.max(16, expectedDocuments)];
+    }
+
+    /**
+     * Indexes the document under its terms, replacing what was indexed for it before. Fuzzy terms also match
+     * query words with typos; plain terms only match whole or by a fragment. Terms are expected to be normalized
+     * the way query words are.
+     */
+    void put(long documentId, Collection<String> fuzzyTerms, Collection<String> plainTerms) {
+        remove(documentId);
+        if (fuzzyTerms.isEmpty() && plainTerms.isEmpty()) {
+            return;
+        }
+        int ordinal = ordinals++;
+        if (ordinal == documentIds.length) {
+            documentIds = Arrays.copyOf(documentIds, ordinal + (ordinal >> 1));
+        }
+        documentIds[ordinal] = documentId;
+        ordinalByDocumentId.put(documentId, ordinal);
+
+        for (String term : fuzzyTerms) {
+            int id = termIdOrAdd(clip(term));
+            markFuzzy(id);
+            addOrdinal(id, ordinal);
+        }
+        for (String term : plainTerms) {
+            addOrdinal(termIdOrAdd(clip(term)), ordinal);
+        }
+    }
+
+    void remove(long documentId) {
+        int ordinal = ordinalByDocumentId.get(documentId);
+        if (ordinal != LongIntHashMap.MISSING) {
+            retired.set(ordinal);
+            retiredCount++;
+            ordinalByDocumentId.put(documentId, LongIntHashMap.MISSING);
+        }
+    }
+
+    /**
+     * Documents matching every query word, best first: each word adds the score of its best matching term, and
+     * ties go to the lower document id.
+     */
+    SearchHits search(List<String> words, long offset, int limit) {
+        List<WordQuery> queries = new ArrayList<>(words.size());
+        for (String word : words) {
+            WordQuery query = expand(clip(word));
+            if (query.terms().length == 0) {
+                return SearchHits.EMPTY;
+            }
+            queries.add(query);
+        }
+        if (queries.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+        // Collect the rarest word in full; the others probe its matches, or are collected and intersected when
+        // they expanded to so many terms that probing would cost more
+        queries.sort(Comparator.comparingLong(this::cost));
+        Matches matches = collect(queries.get(0));
+        for (int i = 1; i < queries.size() && matches.size > 0; i++) {
+            WordQuery query = queries.get(i);
+            matches = (long) matches.size * query.terms().length > cost(query)
+                    ? intersect(matches, collect(query))
+                    : filter(query, matches);
+        }
+        return matches.size == 0 ? SearchHits.EMPTY : matches.top(offset, limit, documentIds, retired);
+    }
+
+    int size() {
+        return ordinals - retiredCount;
+    }
+
+    int retiredCount() {
+        return retiredCount;
+    }
+
+    int termCount() {
+        return terms;
+    }
+
+    /**
+     * Releases spare capacity and builds the bitmaps of dense lists, after a bulk load.
+     */
+    void trim() {
+        trigramTerms.forEach(list -> list.trim(terms));
+        bigramTerms.forEach(list -> list.trim(fuzzyCount));
+        for (int t = 0; t < terms; t++) {
+            if (ordinalLists[t] != null) {
+                ordinalLists[t].trim(ordinals);
+            }
+        }
+        int capacity = Math.max(16, terms);
+        termChars = Arrays.copyOf(termChars, Math.max(16, termStarts[terms]));
+        termStarts = Arrays.copyOf(termStarts, capacity + 1);
+        soleOrdinals = Arrays.copyOf(soleOrdinals, capacity);
+        ordinalLists = Arrays.copyOf(ordinalLists, capacity);
+        fuzzyTermIds = Arrays.copyOf(fuzzyTermIds, Math.max(16, fuzzyCount));
+        documentIds = Arrays.copyOf(documentIds, Math.max(16, ordinals));
+    }
+
+    long estimatedBytes() {
+        long bytes = (long) termChars.length * Character.BYTES + (long) termStarts.length * Integer.BYTES
+                + (long) termTable.length * Integer.BYTES + (long) soleOrdinals.length * Integer.BYTES
+                + (long) ordinalLists.length * 4 + (long) fuzzyTermIds.length * Integer.BYTES
+                + (long) documentIds.length * Long.BYTES
+                + ordinalByDocumentId.estimatedBytes() + trigramSlots.estimatedBytes() + bigramSlots.estimatedBytes();
+        for (int t = 0; t < terms; t++) {
+            if (ordinalLists[t] != null) {
+                bytes += ordinalLists[t].estimatedBytes();
+            }
+        }
+        for (PostingList list : trigramTerms) {
+            bytes += list.estimatedBytes();
+        }
+        for (PostingList list : bigramTerms) {
+            bytes += list.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Edits a word may be away from a term and still match it. Short words only match exactly or as substrings,
+     * since a single edit already turns them into many unrelated terms.
+     */
+    static int maxEdits(int length) {
+        return length < 4 ? 0 : length < 8 ? 1 : 2;
+    }
+
+    private WordQuery expand(String word) {
+        Expansions found = new Expansions();
+        int exact = termId(word);
+        if (exact != NONE) {
+            found.add(EXACT, exact, word.length());
+        }
+        if (word.length() >= SearchTokens.TRIGRAM) {
+            addContaining(word, exact, true, found);
+        }
+        int maxEdits = maxEdits(word.length());
+        if (maxEdits > 0) {
+            for (int term : typoCandidates(word, maxEdits)) {
+                // Terms containing the word are matched as prefixes or fragments
+                if (term == exact || indexOf(term, word) != NONE) {
+                    continue;
+                }
+                int edits = distance(term, word, maxEdits);
+                if (edits <= maxEdits) {
+                    found.add(edits == 1 ? ONE_EDIT : TWO_EDITS, term, length(term));
+                }
+            }
+        }
+        if (word.length() >= SearchTokens.TRIGRAM) {
+            addContaining(word, exact, false, found);
+        }
+        return found.best();
+    }
+
+    /**
+     * Adds the terms starting with the word, or containing it further in, shortest first. Stops at the first
+     * length where no term could rank above the worst one kept, so a short fragment of many terms only reads the
+     * lists of the shortest ones.
+     */
+    private void addContaining(String word, int exact, boolean prefixes, Expansions found) {
+        int score = prefixes ? PREFIX : SUBSTRING;
+        // The trigram lists of a 3-character word hold exactly the terms starting with it, or containing it
+        boolean verify = word.length() > SearchTokens.TRIGRAM;
+        for (int length = word.length(); length <= MAX_TERM_LENGTH; length++) {
+            if (found.full() && Expansions.key(score, length, 0) > found.worst()) {
+                return;
+            }
+            PostingList candidates = termsWithTrigrams(word, length, prefixes);
+            PostingList starting = prefixes || verify ? NO_TERMS : termsWithTrigrams(word, length, true);
+            int[] cursor = new int[1];
+            for (int i = 0; i < candidates.size; i++) {
+                int term = candidates.ordinals[i];
+                // Ids ascend within a length, so once one term misses the cut every later one does
+                if (found.full() && Expansions.key(score, length, term) > found.worst()) {
+                    break;
+                }
+                if (term == exact) {
+                    continue;
+                }
+                boolean matches;
+                if (verify) {
+                    int at = indexOf(term, word);
+                    matches = prefixes ? at == 0 : at > 0;
+                } else {
+                    matches = prefixes || !starting.contains(term, cursor, 0);
+                }
+                if (matches) {
+                    found.add(score, term, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Terms of the given length holding every trigram of the word, or when {@code prefix} is set, also starting
+     * with its first trigram. Candidates still have to be checked when the word is longer than a trigram.
+     */
+    private PostingList termsWithTrigrams(String word, int length, boolean prefix) {
+        PostingList[] lists = new PostingList[word.length() - SearchTokens.TRIGRAM + 1];
+        for (int start = 0; start < lists.length; start++) {
+            int slot = trigramSlots.get(trigramKey(word, start, length, prefix && start == 0));
+            if (slot == LongIntHashMap.MISSING) {
+                return NO_TERMS;
+            }
+            lists[start] = trigramTerms.get(slot);
+        }
+        // Rarest first keeps every intermediate result as small as possible
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        PostingList result = lists[0];
+        for (int i = 1; i < lists.length && result.size > 0; i++) {
+            result = result.intersect(lists[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Fuzzy terms of a length within {@code maxEdits} of the word that share enough of its padded bigrams. An
+     * edit removes at most three of the word's bigrams (a transposition touches three), so a term within the
+     * bound still has all but {@code 3 * maxEdits} of them.
+     */
+    private int[] typoCandidates(String word, int maxEdits) {
+        long[] grams = paddedBigrams(word);
+        int threshold = Math.max(1, grams.length - 3 * maxEdits);
+        int[] candidates = new int[16];
+        int count = 0;
+        int minLength = Math.max(1, word.length() - maxEdits);
+        int maxLength = Math.min(MAX_TERM_LENGTH, word.length() + maxEdits);
+        for (int length = minLength; length <= maxLength; length++) {
+            List<PostingList> lists = new ArrayList<>(grams.length);
+            for (long gram : grams) {
+                int slot = bigramSlots.get(gram | length);
+                if (slot != LongIntHashMap.MISSING) {
+                    lists.add(bigramTerms.get(slot));
+                }
+            }
+            if (lists.size() < threshold) {
+                continue;
+            }
+            // Merge the ascending lists, counting in how many of them each term appears
+            int[] positions = new int[lists.size()];
+            while (true) {
+                int next = Integer.MAX_VALUE;
+                for (int i = 0; i < positions.length; i++) {
+                    PostingList list = lists.get(i);
+                    if (positions[i] < list.size && list.ordinals[positions[i]] < next) {
+                        next = list.ordinals[positions[i]];
+                    }
+                }
+                if (next == Integer.MAX_VALUE) {
+                    break;
+                }
+                int shared = 0;
+                for (int i = 0; i < positions.length; i++) {
+                    PostingList list = lists.get(i);
+                    if (positions[i] < list.size && list.ordinals[positions[i]] == next) {
+                        shared++;
+                        positions[i]++;
+                    }
+                }
+                if (shared >= threshold) {
+                    if (count == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, count * 2);
+                    }
+                    candidates[count++] = fuzzyTermIds[next];
+                }
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Optimal string alignment distance between the term and the word, or {@code maxEdits + 1} as soon as it is
+     * known to exceed the bound.
+     */
+    private int distance(int term, String word, int maxEdits) {
+        int start = termStarts[term];
+        int n = termStarts[term + 1] - start;
+        int m = word.length();
+        if (Math.abs(n - m) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            char a = termChars[start + i - 1];
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                char b = word.charAt(j - 1);
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + (a == b ? 0 : 1));
+                if (i > 1 && j > 1 && a == word.charAt(j - 2) && termChars[start + i - 2] == b) {
+                    d = Math.min(d, beforePrevious[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+
+    private long cost(WordQuery query) {
+        long cost = 0;
+        for (int term : query.terms()) {
+            cost += ordinalLists[term] == null ? 1 : ordinalLists[term].size;
+        }
+        return cost;
+    }
+
+    private Matches collect(WordQuery query) {
+        // Ordinal in the high bits and the score below it, inverted, so sorting puts each ordinal's best first
+        long[] entries = new long[(int) cost(query)];
+        int count = 0;
+        for (int i = 0; i < query.terms().length; i++) {
+            int term = query.terms()[i];
+            long inverted = EXACT - query.scores()[i];
+            PostingList list = ordinalLists[term];
+            if (list == null) {
+                entries[count++] = ((long) soleOrdinals[term] << 8) | inverted;
+            } else {
+                for (int j = 0; j < list.size; j++) {
+                    entries[count++] = ((long) list.ordinals[j] << 8) | inverted;
+                }
+            }
+        }
+        Arrays.sort(entries, 0, count);
+
+        int[] ordinals = new int[count];
+        int[] scores = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int ordinal = (int) (entries[i] >>> 8);
+            if (size == 0 || ordinals[size - 1] != ordinal) {
+                ordinals[size] = ordinal;
+                scores[size++] = EXACT - (int) (entries[i] & 0xFF);
+            }
+        }
+        return new Matches(ordinals, scores, size);
+    }
+
+    /**
+     * Keeps the candidates the word also matches, adding the score of its best term for each. Terms are best
+     * first, so the first one holding a candidate decides its score.
+     */
+    private Matches filter(WordQuery query, Matches candidates) {
+        int[] positions = new int[query.terms().length];
+        int[] ordinals = new int[candidates.size];
+        int[] scores = new int[candidates.size];
+        int count = 0;
+        for (int c = 0; c < candidates.size; c++) {
+            int ordinal = candidates.ordinals[c];
+            for (int i = 0; i < query.terms().length; i++) {
+                int term = query.terms()[i];
+                PostingList list = ordinalLists[term];
+                if (list == null ? soleOrdinals[term] == ordinal : list.contains(ordinal, positions, i)) {
+                    ordinals[count] = ordinal;
+                    scores[count++] = candidates.scores[c] + query.scores()[i];
+                    break;
+                }
+            }
+        }
+        return new Matches(ordinals, scores, count);
+    }
+
+    private static Matches intersect(Matches a, Matches b) {
+        int[] ordinals = new int[Math.min(a.size, b.size)];
+        int[] scores = new int[ordinals.length];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.size && j < b.size; ) {
+            if (a.ordinals[i] < b.ordinals[j]) {
+                i++;
+            } else if (a.ordinals[i] > b.ordinals[j]) {
+                j++;
+            } else {
+                ordinals[count] = a.ordinals[i];
+                scores[count++] = a.scores[i++] + b.scores[j++];
+            }
+        }
+        return new Matches(ordinals, scores, count);
+    }
+
+    private void addOrdinal(int term, int ordinal) {
+        PostingList list = ordinalLists[term];
+        if (list != null) {
+            list.add(ordinal);
+        } else if (soleOrdinals[term] == NONE) {
+            soleOrdinals[term] = ordinal;
+        } else if (soleOrdinals[term] != ordinal) {
+            list = new PostingList();
+            list.add(soleOrdinals[term]);
+            list.add(ordinal);
+            ordinalLists[term] = list;
+        }
+    }
+
+    private int termId(String term) {
+        int mask = termTable.length - 1;
+        for (int slot = spread(term.hashCode()) & mask; termTable[slot] != 0; slot = (slot + 1) & mask) {
+            int candidate = termTable[slot] - 1;
+            if (length(candidate) == term.length() && indexOf(candidate, term) == 0) {
+                return candidate;
+            }
+        }
+        return NONE;
+    }
+
+    private int termIdOrAdd(String term) {
+        int existing = termId(term);
+        if (existing != NONE) {
+            return existing;
+        }
+        int id = terms++;
+        if (id == soleOrdinals.length) {
+            int capacity = id + (id >> 1);
+            termStarts = Arrays.copyOf(termStarts, capacity + 1);
+            soleOrdinals = Arrays.copyOf(soleOrdinals, capacity);
+            ordinalLists = Arrays.copyOf(ordinalLists, capacity);
+        }
+        int start = termStarts[id];
+        if (start + term.length() > termChars.length) {
+            termChars = Arrays.copyOf(termChars, Math.max(start + term.length(), termChars.length + (termChars.length >> 1)));
+        }
+        term.getChars(0, term.length(), termChars, start);
+        termStarts[id + 1] = start + term.length();
+        soleOrdinals[id] = NONE;
+
+        // Stay at or below half full so probe sequences stay short
+        if (terms * 2 > termTable.length) {
+            rehash(termTable.length * 2);
+        } else {
+            insert(termTable, id, term.hashCode());
+        }
+
+        // Term ids only grow, so every list stays sorted
+        for (int i = 0; i + SearchTokens.TRIGRAM <= term.length(); i++) {
+            gramTerms(trigramSlots, trigramTerms, trigramKey(term, i, term.length(), false)).add(id);
+        }
+        if (term.length() >= SearchTokens.TRIGRAM) {
+            gramTerms(trigramSlots, trigramTerms, trigramKey(term, 0, term.length(), true)).add(id);
+        }
+        return id;
+    }
+
+    private void markFuzzy(int term) {
+        if (fuzzy.get(term)) {
+            return;
+        }
+        fuzzy.set(term);
+        int number = fuzzyCount++;
+        if (number == fuzzyTermIds.length) {
+            fuzzyTermIds = Arrays.copyOf(fuzzyTermIds, number + (number >> 1));
+        }
+        fuzzyTermIds[number] = term;
+        int length = length(term);
+        for (long gram : paddedBigrams(new String(termChars, termStarts[term], length))) {
+            gramTerms(bigramSlots, bigramTerms, gram | length).add(number);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        for (int t = 0; t < terms; t++) {
+            int hash = 0;
+            for (int i = termStarts[t]; i < termStarts[t + 1]; i++) {
+                hash = 31 * hash + termChars[i];
+            }
+            insert(table, t, hash);
+        }
+        termTable = table;
+    }
+
+    private static void insert(int[] table, int term, int hash) {
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = term + 1;
+    }
+
+    private static PostingList gramTerms(LongIntHashMap slots, List<PostingList> lists, long gram) {
+        int slot = slots.get(gram);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = lists.size();
+            lists.add(new PostingList());
+            slots.put(gram, slot);
+        }
+        return lists.get(slot);
+    }
+
+    private int length(int term) {
+        return termStarts[term + 1] - termStarts[term];
+    }
+
+    private int indexOf(int term, String word) {
+        int start = termStarts[term];
+        int last = termStarts[term + 1] - word.length();
+        for (int from = start; from <= last; from++) {
+            int i = 0;
+            while (i < word.length() && termChars[from + i] == word.charAt(i)) {
+                i++;
+            }
+            if (i == word.length()) {
+                return from - start;
+            }
+        }
+        return NONE;
+    }
+
+    // A trigram of the word with a term length in the low byte, and a flag for the trigram that starts a term
+    private static long trigramKey(String word, int start, int length, boolean first) {
+        return (SearchTokens.trigram(word, start) << 8) | length | (first ? FIRST_TRIGRAM : 0);
+    }
+
+    // Distinct bigrams of the word padded with a space on both ends, with the low byte free for a term length
+    private static long[] paddedBigrams(String word) {
+        long[] grams = new long[word.length() + 1];
+        for (int i = 0; i <= word.length(); i++) {
+            char first = i == 0 ? PAD : word.charAt(i - 1);
+            char second = i == word.length() ? PAD : word.charAt(i);
+            grams[i] = ((long) first << 24) | ((long) second << 8);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static String clip(String term) {
+        return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Terms a query word matches and the score of each, best first.
+     */
+    private record WordQuery(int[] terms, int[] scores) {
+    }
+
+    /**
+     * The best {@link #MAX_TERMS_PER_WORD} matched terms, packed as score, then length, then id so that smaller
+     * keys rank better scores and shorter terms first. A max-heap on the key keeps the worst kept term on top.
+     */
+    private static final class Expansions {
+
+        private final long[] heap = new long[MAX_TERMS_PER_WORD];
+        private int size;
+
+        static long key(int score, int length, int term) {
+            return ((long) (EXACT - score) << 40) | ((long) length << 32) | term;
+        }
+
+        boolean full() {
+            return size == heap.length;
+        }
+
+        long worst() {
+            return heap[0];
+        }
+
+        void add(int score, int term, int length) {
+            long key = key(score, length, term);
+            if (size < heap.length) {
+                int index = size++;
+                heap[index] = key;
+                while (index > 0 && heap[(index - 1) >>> 1] < heap[index]) {
+                    swap(index, (index - 1) >>> 1);
+                    index = (index - 1) >>> 1;
+                }
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                int index = 0;
+                while (true) {
+                    int largest = index;
+                    int left = 2 * index + 1;
+                    if (left < size && heap[left] > heap[largest]) {
+                        largest = left;
+                    }
+                    if (left + 1 < size && heap[left + 1] > heap[largest]) {
+                        largest = left + 1;
+                    }
+                    if (largest == index) {
+                        break;
+                    }
+                    swap(index, largest);
+                    index = largest;
+                }
+            }
+        }
+
+        WordQuery best() {
+            Arrays.sort(heap, 0, size);
+            int[] terms = new int[size];
+            int[] scores = new int[size];
+            for (int i = 0; i < size; i++) {
+                terms[i] = (int) heap[i];
+                scores[i] = EXACT - (int) (heap[i] >>> 40);
+            }
+            return new WordQuery(terms, scores);
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.exm.search;
+
+import com.example.exm.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Word and trigram posting lists over product text. Every indexed product gets the next ordinal; re-indexing a
+ * product retires its old ordinal instead of rewriting the posting lists, so lists stay sorted and append-only.
+ * Retired ordinals are skipped at query time and dropped by building a fresh index. Safe for concurrent
+ * searches, but changes need exclusive access.
+ */
+final class InvertedIndex {
+
+    // A substring-only match is worth less than a whole word in any field
+    static final int SUBSTRING_WEIGHT = 1;
+
+    private static final PostingList NO_POSTINGS = new PostingList(new int[0], 0);
+
+    private final Map<SearchField, Map<String, PostingList>> words = new EnumMap<>(SearchField.class);
+    private final LongIntHashMap trigramSlots;
+    private final List<PostingList> trigrams = new ArrayList<>();
+    private final LongIntHashMap ordinalByProductId;
+    private final BitSet retired = new BitSet();
+    private long[] productIds;
+    private int ordinals;
+    private int retiredCount;
+
+    InvertedIndex(int expectedProducts) {
+        for (SearchField field : SearchField.values()) {
+            words.put(field, new HashMap<>());
+        }
+        trigramSlots = new LongIntHashMap(Math.max(1024, expectedProducts));
+        ordinalByProductId = new LongIntHashMap(expectedProducts);
+        productIds = new long[Math.max(16, expectedProducts)];
+    }
+
+    /**
+     * Indexes the product, replacing what was indexed for it before.
+     */
+    void put(long productId, String name, String brand, String category, String description) {
+        remove(productId);
+        int ordinal = ordinals++;
+        if (ordinal == productIds.length) {
+            productIds = Arrays.copyOf(productIds, ordinal + (ordinal >> 1));
+        }
+        productIds[ordinal] = productId;
+        ordinalByProductId.put(productId, ordinal);
+
+        index(SearchField.NAME, name, ordinal);
+        index(SearchField.BRAND, brand, ordinal);
+        index(SearchField.CATEGORY, category, ordinal);
+        index(SearchField.DESCRIPTION, description, ordinal);
+    }
+
+    void remove(long productId) {
+        int ordinal = ordinalByProductId.get(productId);
+        if (ordinal != LongIntHashMap.MISSING) {
+            retired.set(ordinal);
+            retiredCount++;
+            ordinalByProductId.put(productId, LongIntHashMap.MISSING);
+        }
+    }
+
+    /**
+     * Products containing every query token, best first: a token scores the weight of each field where it is a
+     * whole word, or {@link #SUBSTRING_WEIGHT} when it only occurs inside a name, brand or category word. Ties
+     * go to the lower product id.
+     */
+    SearchHits search(String query, long offset, int limit) {
+        List<TokenQuery> queries = new ArrayList<>();
+        for (String token : SearchTokens.distinctTokens(query)) {
+            queries.add(prepare(token));
+        }
+        if (queries.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+        // Collect the rarest token in full, then only probe its matches for the others
+        queries.sort(Comparator.comparingLong(TokenQuery::cost));
+        Matches matches = queries.get(0).collect();
+        for (int i = 1; i < queries.size() && matches.size > 0; i++) {
+            matches = queries.get(i).filter(matches);
+        }
+        return matches.size == 0 ? SearchHits.EMPTY : matches.top(offset, limit, productIds, retired);
+    }
+
+    int size() {
+        return ordinals - retiredCount;
+    }
+
+    int retiredCount() {
+        return retiredCount;
+    }
+
+    /**
+     * Releases the spare capacity of every posting list and builds the bitmaps of dense ones, after a bulk load.
+     */
+    void trim() {
+        words.values().forEach(postings -> postings.values().forEach(list -> list.trim(ordinals)));
+        trigrams.forEach(list -> list.trim(ordinals));
+        productIds = Arrays.copyOf(productIds, Math.max(16, ordinals));
+    }
+
+    long estimatedBytes() {
+        long bytes = (long) productIds.length * Long.BYTES + ordinalByProductId.estimatedBytes()
+                + trigramSlots.estimatedBytes();
+        for (PostingList postings : trigrams) {
+            bytes += postings.estimatedBytes();
+        }
+        for (Map<String, PostingList> postings : words.values()) {
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                // Map entry and key string, roughly
+                bytes += 80 + 2L * entry.getKey().length() + entry.getValue().estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private void index(SearchField field, String text, int ordinal) {
+        Map<String, PostingList> postings = words.get(field);
+        for (String token : SearchTokens.tokens(text)) {
+            postings.computeIfAbsent(token, key -> new PostingList()).add(ordinal);
+            if (field.substrings()) {
+                for (int start = 0; start + SearchTokens.TRIGRAM <= token.length(); start++) {
+                    trigramPostings(SearchTokens.trigram(token, start)).add(ordinal);
+                }
+            }
+        }
+    }
+
+    private PostingList trigramPostings(long trigram) {
+        int slot = trigramSlots.get(trigram);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = trigrams.size();
+            trigrams.add(new PostingList());
+            trigramSlots.put(trigram, slot);
+        }
+        return trigrams.get(slot);
+    }
+
+    private TokenQuery prepare(String token) {
+        List<PostingList> lists = new ArrayList<>(SearchField.values().length);
+        List<SearchField> fields = new ArrayList<>(SearchField.values().length);
+        words.forEach((field, postings) -> {
+            PostingList list = postings.get(token);
+            if (list != null) {
+                lists.add(list);
+                fields.add(field);
+            }
+        });
+        int[] weights = new int[fields.size()];
+        boolean[] substringFields = new boolean[fields.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = fields.get(i).weight();
+            substringFields[i] = fields.get(i).substrings();
+        }
+
+        // Substring matches need every trigram of the token in the name, brand or category words
+        PostingList[] trigramLists = null;
+        if (token.length() >= SearchTokens.TRIGRAM) {
+            trigramLists = new PostingList[token.length() - SearchTokens.TRIGRAM + 1];
+            for (int start = 0; start < trigramLists.length; start++) {
+                int slot = trigramSlots.get(SearchTokens.trigram(token, start));
+                if (slot == LongIntHashMap.MISSING) {
+                    trigramLists = null;
+                    break;
+                }
+                trigramLists[start] = trigrams.get(slot);
+            }
+        }
+        if (trigramLists != null) {
+            // Rarest first keeps every intermediate result as small as possible
+            Arrays.sort(trigramLists, Comparator.comparingInt(list -> list.size));
+        }
+        return new TokenQuery(lists.toArray(PostingList[]::new), weights, substringFields, trigramLists);
+    }
+
+    /**
+     * Posting lists of one query token: whole-word lists with their field weights, and the trigram lists that a
+     * substring match must appear in. The trigrams are only probed for products without a whole-word match in a
+     * field they cover.
+     */
+    private record TokenQuery(PostingList[] words, int[] weights, boolean[] substringFields, PostingList[] trigrams) {
+
+        long cost() {
+            long cost = trigrams == null ? 0 : trigrams[0].size;
+            for (PostingList list : words) {
+                cost += list.size;
+            }
+            return cost;
+        }
+
+        Matches collect() {
+            PostingList substrings = trigrams == null ? NO_POSTINGS : trigrams[0];
+            for (int i = 1; trigrams != null && i < trigrams.length && substrings.size > 0; i++) {
+                substrings = substrings.intersect(trigrams[i]);
+            }
+
+            int capacity = substrings.size;
+            for (PostingList list : words) {
+                capacity += list.size;
+            }
+            int[] ordinals = new int[capacity];
+            int[] scores = new int[capacity];
+            int[] positions = new int[words.length];
+            int substringPosition = 0;
+            int count = 0;
+            while (true) {
+                int next = substringPosition < substrings.size ? substrings.ordinals[substringPosition] : Integer.MAX_VALUE;
+                for (int i = 0; i < words.length; i++) {
+                    if (positions[i] < words[i].size && words[i].ordinals[positions[i]] < next) {
+                        next = words[i].ordinals[positions[i]];
+                    }
+                }
+                if (next == Integer.MAX_VALUE) {
+                    return new Matches(ordinals, scores, count);
+                }
+                int score = 0;
+                boolean wordInSubstringField = false;
+                for (int i = 0; i < words.length; i++) {
+                    if (positions[i] < words[i].size && words[i].ordinals[positions[i]] == next) {
+                        score += weights[i];
+                        wordInSubstringField |= substringFields[i];
+                        positions[i]++;
+                    }
+                }
+                if (substringPosition < substrings.size && substrings.ordinals[substringPosition] == next) {
+                    substringPosition++;
+                    if (!wordInSubstringField) {
+                        score += SUBSTRING_WEIGHT;
+                    }
+                }
+                ordinals[count] = next;
+                scores[count++] = score;
+            }
+        }
+
+        /**
+         * Keeps the candidates this token also matches, adding its score. Candidates are ascending, so sparse
+         * lists are walked forward once, galloping over the ordinals between candidates.
+         */
+        Matches filter(Matches candidates) {
+            int[] wordPositions = new int[words.length];
+            int[] trigramPositions = trigrams == null ? null : new int[trigrams.length];
+            int[] ordinals = new int[candidates.size];
+            int[] scores = new int[candidates.size];
+            int count = 0;
+            for (int c = 0; c < candidates.size; c++) {
+                int ordinal = candidates.ordinals[c];
+                int score = 0;
+                boolean wordInSubstringField = false;
+                for (int i = 0; i < words.length; i++) {
+                    if (words[i].contains(ordinal, wordPositions, i)) {
+                        score += weights[i];
+                        wordInSubstringField |= substringFields[i];
+                    }
+                }
+                if (!wordInSubstringField && trigramPositions != null
+                        && containsAll(trigrams, trigramPositions, ordinal)) {
+                    score += SUBSTRING_WEIGHT;
+                }
+                if (score > 0) {
+                    ordinals[count] = ordinal;
+                    scores[count++] = candidates.scores[c] + score;
+                }
+            }
+            return new Matches(ordinals, scores, count);
+        }
+
+        private static boolean containsAll(PostingList[] lists, int[] positions, int ordinal) {
+            for (int i = 0; i < lists.length; i++) {
+                if (!lists[i].contains(ordinal, positions, i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.exm.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Ascending document ordinals with the score accumulated for each.
+ */
+final class Matches {
+
+    final int[] ordinals;
+    final int[] scores;
+    final int size;
+
+    Matches(int[] ordinals, int[] scores, int size) {
+        this.ordinals = ordinals;
+        this.scores = scores;
+        this.size = size;
+    }
+
+    /**
+     * The page starting at {@code offset}, best score first and ties to the lower id, and the number of matches
+     * that are not retired. A bounded min-heap keeps the best {@code offset + limit}, so every match is never
+     * sorted.
+     */
+    SearchHits top(long offset, int limit, long[] ids, BitSet retired) {
+        int wanted = (int) Math.min(offset + limit, size);
+        int[] heap = new int[Math.max(1, wanted)];
+        int heapSize = 0;
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            if (retired.get(ordinals[i])) {
+                continue;
+            }
+            total++;
+            if (heapSize < wanted) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, ids);
+            } else if (wanted > 0 && better(i, heap[0], ids)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, ids);
+            }
+        }
+
+        int[] ranked = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, ids);
+        }
+        List<Long> page = new ArrayList<>(Math.max(0, ranked.length - (int) Math.min(offset, ranked.length)));
+        for (int i = (int) Math.min(offset, ranked.length); i < ranked.length; i++) {
+            page.add(ids[ordinals[ranked[i]]]);
+        }
+        return new SearchHits(total, page);
+    }
+
+    private boolean better(int a, int b, long[] ids) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        return ids[ordinals[a]] < ids[ordinals[b]];
+    }
+
+    private void siftUp(int[] heap, int index, long[] ids) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index], ids)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, long[] ids) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && better(heap[worst], heap[left], ids)) {
+                worst = left;
+            }
+            if (right < size && better(heap[worst], heap[right], ids)) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.exm.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of document ordinals that, unlike a {@link PostingList}, supports removal. It is a sorted array while it
+ * holds few of the ordinals, and switches to a bitmap once it holds more than 1 in 32 of them, so rare values stay
+ * small and common ones are counted with popcounts. Not thread-safe.
+ */
+final class OrdinalSet {
+
+    private int[] sorted = new int[4];
+    // Replaces the sorted array once the set is dense
+    private long[] words;
+    private int size;
+
+    void add(int ordinal) {
+        if (words != null) {
+            if ((ordinal >>> 6) >= words.length) {
+                words = Arrays.copyOf(words, Math.max((ordinal >>> 6) + 1, words.length + (words.length >> 1)));
+            }
+            long bit = 1L << ordinal;
+            if ((words[ordinal >>> 6] & bit) == 0) {
+                words[ordinal >>> 6] |= bit;
+                size++;
+            }
+            return;
+        }
+        // Ordinals mostly arrive in increasing order, so this is usually an append
+        int position = size > 0 && sorted[size - 1] < ordinal ? size : Arrays.binarySearch(sorted, 0, size, ordinal);
+        if (position < 0) {
+            position = -position - 1;
+        } else if (position < size) {
+            return;
+        }
+        if (size == sorted.length) {
+            sorted = Arrays.copyOf(sorted, size + (size >> 1) + 1);
+        }
+        System.arraycopy(sorted, position, sorted, position + 1, size - position);
+        sorted[position] = ordinal;
+        size++;
+    }
+
+    void remove(int ordinal) {
+        if (words != null) {
+            long bit = 1L << ordinal;
+            if ((ordinal >>> 6) < words.length && (words[ordinal >>> 6] & bit) != 0) {
+                words[ordinal >>> 6] &= ~bit;
+                size--;
+            }
+            return;
+        }
+        int position = Arrays.binarySearch(sorted, 0, size, ordinal);
+        if (position >= 0) {
+            System.arraycopy(sorted, position + 1, sorted, position, size - position - 1);
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Releases spare capacity, and switches to a bitmap when the set is dense among {@code universe} ordinals.
+     */
+    void trim(int universe) {
+        densifyIfCommon(universe);
+        if (words == null && sorted.length != size) {
+            sorted = Arrays.copyOf(sorted, size);
+        }
+    }
+
+    void densifyIfCommon(int universe) {
+        if (words != null || size <= universe / Integer.SIZE) {
+            return;
+        }
+        words = new long[(universe + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < size; i++) {
+            words[sorted[i] >>> 6] |= 1L << sorted[i];
+        }
+        sorted = null;
+    }
+
+    /**
+     * How many of the ordinals are also set in {@code mask}.
+     */
+    int countIn(long[] mask) {
+        int count = 0;
+        if (words != null) {
+            int length = Math.min(words.length, mask.length);
+            for (int i = 0; i < length; i++) {
+                count += Long.bitCount(words[i] & mask[i]);
+            }
+            return count;
+        }
+        for (int i = 0; i < size; i++) {
+            int ordinal = sorted[i];
+            if ((ordinal >>> 6) < mask.length && (mask[ordinal >>> 6] & (1L << ordinal)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sets the bits of every ordinal in {@code mask}.
+     */
+    void orInto(long[] mask) {
+        if (words != null) {
+            int length = Math.min(words.length, mask.length);
+            for (int i = 0; i < length; i++) {
+                mask[i] |= words[i];
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if ((sorted[i] >>> 6) < mask.length) {
+                mask[sorted[i] >>> 6] |= 1L << sorted[i];
+            }
+        }
+    }
+
+    void forEach(IntConsumer action) {
+        if (words != null) {
+            for (int i = 0; i < words.length; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    action.accept(i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            action.accept(sorted[i]);
+        }
+    }
+
+    long estimatedBytes() {
+        return 24 + (words != null ? (long) words.length * Long.BYTES : (long) sorted.length * Integer.BYTES);
+    }
+}
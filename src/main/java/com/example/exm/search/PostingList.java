@@ -0,0 +1,112 @@
+package com.example.exm.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable, ascending array of document ordinals. Ordinals are appended in increasing order, so a repeated
+ * term in the same document only has to be compared with the last entry. Lists holding more than 1 in 32 of
+ * the ordinals also get a bitmap when trimmed, which turns membership tests into a single bit lookup and is
+ * smaller than the array itself. Not thread-safe.
+ */
+final class PostingList {
+
+    int[] ordinals;
+    int size;
+    // Covers the ordinals below bitsLimit; ordinals appended after the bitmap was built are only in the array
+    private long[] bits;
+    private int bitsLimit;
+
+    PostingList() {
+        this(new int[4], 0);
+    }
+
+    PostingList(int[] ordinals, int size) {
+        this.ordinals = ordinals;
+        this.size = size;
+    }
+
+    void add(int ordinal) {
+        if (size > 0 && ordinals[size - 1] == ordinal) {
+            return;
+        }
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size + (size >> 1) + 1);
+        }
+        ordinals[size++] = ordinal;
+    }
+
+    /**
+     * Releases spare capacity, and builds the bitmap when the list is dense among {@code universe} ordinals.
+     */
+    void trim(int universe) {
+        if (ordinals.length != size) {
+            ordinals = Arrays.copyOf(ordinals, size);
+        }
+        if (size > universe / Integer.SIZE) {
+            bits = new long[(universe + Long.SIZE - 1) / Long.SIZE];
+            bitsLimit = universe;
+            for (int i = 0; i < size; i++) {
+                bits[ordinals[i] >>> 6] |= 1L << ordinals[i];
+            }
+        }
+    }
+
+    long estimatedBytes() {
+        return 16 + (long) ordinals.length * Integer.BYTES + (bits == null ? 0 : (long) bits.length * Long.BYTES);
+    }
+
+    /**
+     * Whether the list holds {@code ordinal}, for ascending probes: {@code cursors[slot]} keeps this list's
+     * position between calls.
+     */
+    boolean contains(int ordinal, int[] cursors, int slot) {
+        if (bits != null && ordinal < bitsLimit) {
+            return (bits[ordinal >>> 6] & (1L << ordinal)) != 0;
+        }
+        int position = advance(cursors[slot], ordinal);
+        cursors[slot] = position;
+        return position < size && ordinals[position] == ordinal;
+    }
+
+    /**
+     * Ordinals present in both lists. Walks this list and probes the other, so this one should be the shorter.
+     */
+    PostingList intersect(PostingList other) {
+        int[] result = new int[Math.min(size, other.size)];
+        int count = 0;
+        int[] cursor = new int[1];
+        for (int i = 0; i < size; i++) {
+            if (other.contains(ordinals[i], cursor, 0)) {
+                result[count++] = ordinals[i];
+            }
+        }
+        return new PostingList(result, count);
+    }
+
+    /**
+     * Position of the first ordinal at or after {@code from} that is not below {@code target}, or {@link #size}.
+     * Gallops ahead then binary-searches, so skipping far costs O(log distance).
+     */
+    int advance(int from, int target) {
+        if (from >= size || ordinals[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int high = from + 1;
+        for (int step = 1; high < size && ordinals[high] < target; step <<= 1) {
+            low = high;
+            high = low + step;
+        }
+        high = Math.min(high, size);
+        // ordinals[low] < target, and high is the size or ordinals[high] >= target
+        while (low + 1 < high) {
+            int middle = (low + high) >>> 1;
+            if (ordinals[middle] < target) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.exm.search;
+
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over product name, brand, category and description, so searches never scan the
+ * products table, a suggestion trie over the names and brands of active products for typeahead, and facet sets
+ * for counting products by category, brand, status and price bucket. All are built from the database in one pass
+ * at startup and kept current by the product service: changes are applied after their transaction commits.
+ * Suggestions are ranked by units ordered, as of the last rebuild.
+ * <p>
+ * Products written on other nodes, and products deleted outside the service, only show up after the periodic
+ * rebuild, which also drops the ordinals retired by updates.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final String LOAD_SQL = "SELECT p.id, p.name, p.brand, p.category, p.description, p.status, " +
+            "COALESCE(s.units, 0), p.price, p.stock_quantity " +
+            "FROM products p " +
+            "LEFT JOIN (SELECT product_id, SUM(quantity) AS units FROM order_items GROUP BY product_id) s " +
+            "ON s.product_id = p.id " +
+            "ORDER BY p.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int suggestionsPerPrefix;
+    private final BigDecimal[] priceBuckets;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private InvertedIndex index = new InvertedIndex(16);
+    private SuggestionTrie suggestions;
+    private FacetIndex facets;
+    private volatile boolean ready;
+    // Changes made while a rebuild is reading the database; replayed onto the rebuilt structures
+    private List<Consumer<Structures>> pendingChanges;
+
+    public ProductSearchIndex(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              @Value("${app.search.enabled:true}") boolean enabled,
+                              @Value("${app.search.load-fetch-size:5000}") int fetchSize,
+                              @Value("${app.search.suggestions-per-prefix:10}") int suggestionsPerPrefix,
+                              @Value("${app.search.price-buckets:25,50,100,250,500,1000}") BigDecimal[] priceBuckets) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.suggestionsPerPrefix = suggestionsPerPrefix;
+        this.priceBuckets = priceBuckets;
+        this.suggestions = new SuggestionTrie(suggestionsPerPrefix, 16);
+        this.facets = new FacetIndex(priceBuckets, 16);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval:30m}",
+            initialDelayString = "${app.search.rebuild-interval:30m}")
+    public void rebuildIfEnabled() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds a fresh index from the products table without blocking searches or product writes, and returns
+     * the number of products indexed.
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        int expectedProducts = Math.max(16, size());
+        Structures built = new Structures(new InvertedIndex(expectedProducts),
+                new SuggestionTrie(suggestionsPerPrefix, expectedProducts), new FacetIndex(priceBuckets, expectedProducts));
+        try {
+            // Inside a transaction so the driver can stream with the fetch size instead of buffering every row
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(LOAD_SQL, rs -> {
+                long productId = rs.getLong(1);
+                built.index().put(productId, rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+                if (ProductStatus.ACTIVE.name().equals(rs.getString(6))) {
+                    built.suggestions().put(productId, rs.getString(2), rs.getString(3), rs.getLong(7));
+                }
+                built.facets().put(productId, rs.getString(4), rs.getString(3), ProductStatus.valueOf(rs.getString(6)),
+                        rs.getBigDecimal(8), rs.getInt(9));
+            }));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        built.index().trim();
+        built.facets().trim();
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(built));
+            pendingChanges = null;
+            index = built.index();
+            suggestions = built.suggestions();
+            facets = built.facets();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Indexed {} products for search and {} for suggestions in {} ms (~{} KB of posting lists, "
+                        + "~{} KB of facet sets)", built.index().size(), built.suggestions().size(),
+                (System.nanoTime() - start) / 1_000_000, built.index().estimatedBytes() / 1024,
+                built.facets().estimatedBytes() / 1024);
+        return built.index().size();
+    }
+
+    /**
+     * Whether searches can be served from memory; false when disabled or before the first build.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Re-indexes a created, updated or discontinued product once the current transaction commits. Only active
+     * products are suggested; a product keeps the popularity it had until the next rebuild.
+     */
+    public void recordProduct(Product product) {
+        if (!enabled) {
+            return;
+        }
+        // Copy the values now: the entity may be changed by the time the transaction commits
+        long productId = product.getId();
+        String name = product.getName();
+        String brand = product.getBrand();
+        String category = product.getCategory();
+        String description = product.getDescription();
+        ProductStatus status = product.getStatus();
+        BigDecimal price = product.getPrice();
+        int stockQuantity = product.getStockQuantity();
+        boolean active = status == ProductStatus.ACTIVE;
+        afterCommit(target -> {
+            target.index().put(productId, name, brand, category, description);
+            target.facets().put(productId, category, brand, status, price, stockQuantity);
+            if (active) {
+                target.suggestions().put(productId, name, brand, target.suggestions().popularity(productId));
+            } else {
+                target.suggestions().remove(productId);
+            }
+        });
+    }
+
+    /**
+     * Applies stock changes, by product id, once the current transaction commits.
+     */
+    public void recordStockChanged(Map<Long, Integer> deltas) {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, Integer> copy = Map.copyOf(deltas);
+        afterCommit(target -> copy.forEach(target.facets()::changeStock));
+    }
+
+    /**
+     * Ids of the products matching every word of the query, for the page starting at {@code offset}.
+     */
+    public SearchHits search(String query, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} active products whose name or brand starts with the prefix, most ordered first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return suggestions.suggest(prefix, Math.min(limit, suggestionsPerPrefix));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * How many products match the filter, and how many would match for each value of each facet.
+     */
+    public FacetCounts countFacets(FacetFilter filter) {
+        lock.readLock().lock();
+        try {
+            return facets.count(filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Consumer<Structures> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<Structures> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(new Structures(index, suggestions, facets));
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Structures(InvertedIndex index, SuggestionTrie suggestions, FacetIndex facets) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.exm.search;
+
+/**
+ * Product fields covered by the search index, with the score a whole-word match in each one is worth.
+ * Only the short fields are split into trigrams for substring matching; descriptions match whole words.
+ */
+enum SearchField {
+    NAME(8, true),
+    BRAND(4, true),
+    CATEGORY(2, true),
+    DESCRIPTION(1, false);
+
+    private final int weight;
+    private final boolean substrings;
+
+    SearchField(int weight, boolean substrings) {
+        this.weight = weight;
+        this.substrings = substrings;
+    }
+
+    int weight() {
+        return weight;
+    }
+
+    boolean substrings() {
+        return substrings;
+    }
+}
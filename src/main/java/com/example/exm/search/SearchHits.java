@@ -0,0 +1,11 @@
+package com.example.exm.search;
+
+import java.util.List;
+
+/**
+ * One page of search results: ids by relevance, and how many documents matched in total.
+ */
+public record SearchHits(long total, List<Long> ids) {
+
+    public static final SearchHits EMPTY = new SearchHits(0, List.of());
+}
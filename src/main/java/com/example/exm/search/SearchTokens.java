@@ -0,0 +1,46 @@
+package com.example.exm.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-case runs of letters and digits, and packs token trigrams into {@code long} keys.
+ */
+final class SearchTokens {
+
+    static final int TRIGRAM = 3;
+
+    private SearchTokens() {
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> distinctTokens(String text) {
+        return new LinkedHashSet<>(tokens(text));
+    }
+
+    // Letters and digits are never U+0000, so a packed trigram is always a valid positive map key
+    static long trigram(String token, int start) {
+        return ((long) token.charAt(start) << 32) | ((long) token.charAt(start + 1) << 16) | token.charAt(start + 2);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.exm.search;
+
+/**
+ * A typeahead suggestion: just enough to render the entry and link to the product.
+ */
+public record Suggestion(long productId, String name) {
+}
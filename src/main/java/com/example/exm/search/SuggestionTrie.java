@@ -0,0 +1,367 @@
+package com.example.exm.search;
+
+import com.example.exm.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Radix trie over lower-cased product names and brands. Every node keeps the best {@code topN} products of its
+ * subtree, ranked by popularity, so a lookup walks the prefix and returns a precomputed list without visiting
+ * the subtree. Inserting a product only re-ranks the nodes on its paths; removing one recomputes the nodes
+ * that listed it from their children's lists. Safe for concurrent lookups, but changes need exclusive access.
+ */
+final class SuggestionTrie {
+
+    private static final int[] NO_SLOTS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int topN;
+    private final Node root = new Node(new char[0]);
+    private final LongIntHashMap slotByProductId;
+    private long[] productIds;
+    private String[] names;
+    private String[] brands;
+    private long[] popularity;
+    private int slots;
+    private int size;
+
+    SuggestionTrie(int topN, int expectedProducts) {
+        this.topN = topN;
+        slotByProductId = new LongIntHashMap(expectedProducts);
+        productIds = new long[Math.max(16, expectedProducts)];
+        names = new String[productIds.length];
+        brands = new String[productIds.length];
+        popularity = new long[productIds.length];
+    }
+
+    /**
+     * Adds the product under its name and brand, replacing what was there for it before.
+     */
+    void put(long productId, String name, String brand, long productPopularity) {
+        remove(productId);
+        int slot = slots++;
+        if (slot == productIds.length) {
+            int capacity = slot + (slot >> 1);
+            productIds = Arrays.copyOf(productIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            brands = Arrays.copyOf(brands, capacity);
+            popularity = Arrays.copyOf(popularity, capacity);
+        }
+        productIds[slot] = productId;
+        names[slot] = name;
+        brands[slot] = brand;
+        popularity[slot] = productPopularity;
+        slotByProductId.put(productId, slot);
+        size++;
+
+        for (String key : keys(slot)) {
+            insert(key, slot);
+        }
+    }
+
+    void remove(long productId) {
+        int slot = slotByProductId.get(productId);
+        if (slot == LongIntHashMap.MISSING) {
+            return;
+        }
+        for (String key : keys(slot)) {
+            delete(key, slot);
+        }
+        slotByProductId.put(productId, LongIntHashMap.MISSING);
+        names[slot] = null;
+        brands[slot] = null;
+        size--;
+    }
+
+    /**
+     * Popularity the product was added with, or 0 when it is not in the trie.
+     */
+    long popularity(long productId) {
+        int slot = slotByProductId.get(productId);
+        return slot == LongIntHashMap.MISSING ? 0 : popularity[slot];
+    }
+
+    /**
+     * Up to {@code limit} products whose name or brand starts with the prefix, most popular first.
+     */
+    List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            node = child(node, key.charAt(matched));
+            if (node == null) {
+                return List.of();
+            }
+            int common = commonPrefix(node.label, key, matched);
+            if (matched + common < key.length() && common < node.label.length) {
+                return List.of();
+            }
+            matched += common;
+        }
+
+        int count = Math.min(limit, node.top.length);
+        List<Suggestion> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = node.top[i];
+            suggestions.add(new Suggestion(productIds[slot], names[slot]));
+        }
+        return suggestions;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = key.length() > 0;
+            } else {
+                if (space) {
+                    key.append(' ');
+                    space = false;
+                }
+                key.append(c);
+            }
+        }
+        // A trailing space is kept: "apple " should not suggest "applesauce"
+        if (space) {
+            key.append(' ');
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private List<String> keys(int slot) {
+        List<String> keys = new ArrayList<>(2);
+        String name = normalize(names[slot]).strip();
+        if (!name.isEmpty()) {
+            keys.add(name);
+        }
+        String brand = normalize(brands[slot]).strip();
+        if (!brand.isEmpty() && !brand.equals(name)) {
+            keys.add(brand);
+        }
+        return keys;
+    }
+
+    private void insert(String key, int slot) {
+        Node node = root;
+        offer(node, slot);
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = child(node, key.charAt(matched));
+            if (child == null) {
+                child = new Node(key.substring(matched).toCharArray());
+                addChild(node, child);
+            } else {
+                int common = commonPrefix(child.label, key, matched);
+                if (common < child.label.length) {
+                    child = split(node, child, common);
+                }
+            }
+            node = child;
+            matched += node.label.length;
+            offer(node, slot);
+        }
+        node.terminals = append(node.terminals, slot);
+    }
+
+    private void delete(String key, int slot) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            node = child(node, key.charAt(matched));
+            if (node == null || commonPrefix(node.label, key, matched) < node.label.length) {
+                return;
+            }
+            matched += node.label.length;
+            path.add(node);
+        }
+        node.terminals = without(node.terminals, slot);
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.terminals.length == 0 && current.children.length <= 1) {
+                Node parent = path.get(i - 1);
+                if (current.children.length == 0) {
+                    removeChild(parent, current);
+                    continue;
+                }
+                // A pass-through node: fold it into its only child
+                Node onlyChild = current.children[0];
+                char[] label = Arrays.copyOf(current.label, current.label.length + onlyChild.label.length);
+                System.arraycopy(onlyChild.label, 0, label, current.label.length, onlyChild.label.length);
+                onlyChild.label = label;
+                replaceChild(parent, current, onlyChild);
+                continue;
+            }
+            if (contains(current.top, slot)) {
+                recompute(current);
+            }
+        }
+    }
+
+    private Node split(Node parent, Node child, int common) {
+        Node middle = new Node(Arrays.copyOf(child.label, common));
+        child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+        middle.children = new Node[]{child};
+        middle.top = child.top.clone();
+        replaceChild(parent, child, middle);
+        return middle;
+    }
+
+    // Keeps node.top sorted best first and at most topN long
+    private void offer(Node node, int slot) {
+        int[] top = node.top;
+        if (contains(top, slot) || (top.length == topN && !better(slot, top[top.length - 1]))) {
+            return;
+        }
+        int position = 0;
+        while (position < top.length && better(top[position], slot)) {
+            position++;
+        }
+        int length = Math.min(topN, top.length + 1);
+        int[] updated = new int[length];
+        System.arraycopy(top, 0, updated, 0, position);
+        updated[position] = slot;
+        System.arraycopy(top, position, updated, position + 1, length - position - 1);
+        node.top = updated;
+    }
+
+    private void recompute(Node node) {
+        node.top = NO_SLOTS;
+        for (int slot : node.terminals) {
+            offer(node, slot);
+        }
+        for (Node child : node.children) {
+            for (int slot : child.top) {
+                offer(node, slot);
+            }
+        }
+    }
+
+    private boolean better(int a, int b) {
+        if (popularity[a] != popularity[b]) {
+            return popularity[a] > popularity[b];
+        }
+        int byName = names[a].compareToIgnoreCase(names[b]);
+        return byName != 0 ? byName < 0 : productIds[a] < productIds[b];
+    }
+
+    private static Node child(Node node, char first) {
+        Node[] children = node.children;
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char c = children[middle].label[0];
+            if (c < first) {
+                low = middle + 1;
+            } else if (c > first) {
+                high = middle - 1;
+            } else {
+                return children[middle];
+            }
+        }
+        return null;
+    }
+
+    private static void addChild(Node node, Node child) {
+        Node[] children = node.children;
+        int position = 0;
+        while (position < children.length && children[position].label[0] < child.label[0]) {
+            position++;
+        }
+        Node[] updated = new Node[children.length + 1];
+        System.arraycopy(children, 0, updated, 0, position);
+        updated[position] = child;
+        System.arraycopy(children, position, updated, position + 1, children.length - position);
+        node.children = updated;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        Node[] children = node.children;
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] == child) {
+                Node[] updated = new Node[children.length - 1];
+                System.arraycopy(children, 0, updated, 0, i);
+                System.arraycopy(children, i + 1, updated, i, children.length - i - 1);
+                node.children = updated.length == 0 ? NO_CHILDREN : updated;
+                return;
+            }
+        }
+    }
+
+    private static void replaceChild(Node node, Node child, Node replacement) {
+        for (int i = 0; i < node.children.length; i++) {
+            if (node.children[i] == child) {
+                node.children[i] = replacement;
+                return;
+            }
+        }
+    }
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int length = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < length && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean contains(int[] slots, int slot) {
+        for (int s : slots) {
+            if (s == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] append(int[] slots, int slot) {
+        int[] updated = Arrays.copyOf(slots, slots.length + 1);
+        updated[slots.length] = slot;
+        return updated;
+    }
+
+    private static int[] without(int[] slots, int slot) {
+        int[] updated = new int[slots.length];
+        int count = 0;
+        for (int s : slots) {
+            if (s != slot) {
+                updated[count++] = s;
+            }
+        }
+        return count == 0 ? NO_SLOTS : Arrays.copyOf(updated, count);
+    }
+
+    private static final class Node {
+
+        char[] label;
+        Node[] children = NO_CHILDREN;
+        // Products whose key ends at this node
+        int[] terminals = NO_SLOTS;
+        // Best products of the subtree, best first
+        int[] top = NO_SLOTS;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+    }
+}
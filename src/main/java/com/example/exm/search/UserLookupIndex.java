@@ -0,0 +1,179 @@
+package com.example.exm.search;
+
+import com.example.exm.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory, typo-tolerant index over user names, email local-parts and phone numbers, so support lookups never
+ * scan the users table. Built from the database in one pass at startup and kept current by the user service:
+ * changes are applied after their transaction commits.
+ * <p>
+ * Users written on other nodes only show up after the periodic rebuild, which also drops the ordinals retired
+ * by updates.
+ */
+@Component
+@Slf4j
+public class UserLookupIndex {
+
+    private static final String LOAD_SQL = "SELECT id, first_name, last_name, email, phone_number FROM users ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FuzzyTermIndex index = new FuzzyTermIndex(16);
+    private volatile boolean ready;
+    // Changes made while a rebuild is reading the database; replayed onto the rebuilt index
+    private List<Consumer<FuzzyTermIndex>> pendingChanges;
+
+    public UserLookupIndex(DataSource dataSource, PlatformTransactionManager transactionManager,
+                           @Value("${app.user-lookup.enabled:true}") boolean enabled,
+                           @Value("${app.user-lookup.load-fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.user-lookup.rebuild-interval:30m}",
+            initialDelayString = "${app.user-lookup.rebuild-interval:30m}")
+    public void rebuildIfEnabled() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds a fresh index from the users table without blocking lookups or user writes, and returns the number
+     * of users indexed.
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        FuzzyTermIndex built = new FuzzyTermIndex(Math.max(16, size()));
+        try {
+            // Inside a transaction so the driver can stream with the fetch size instead of buffering every row
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(LOAD_SQL, rs -> {
+                built.put(rs.getLong(1), UserLookupTerms.nameTerms(rs.getString(2), rs.getString(3)),
+                        UserLookupTerms.contactTerms(rs.getString(4), rs.getString(5)));
+            }));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        built.trim();
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(built));
+            pendingChanges = null;
+            index = built;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Indexed {} users ({} distinct terms) for lookup in {} ms (~{} KB)", built.size(), built.termCount(),
+                (System.nanoTime() - start) / 1_000_000, built.estimatedBytes() / 1024);
+        return built.size();
+    }
+
+    /**
+     * Whether lookups can be served from memory; false when disabled or before the first build.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Re-indexes a created or updated user once the current transaction commits.
+     */
+    public void recordUser(User user) {
+        if (!enabled) {
+            return;
+        }
+        // Compute the terms now: the entity may be changed by the time the transaction commits
+        long userId = user.getId();
+        Set<String> nameTerms = UserLookupTerms.nameTerms(user.getFirstName(), user.getLastName());
+        Set<String> contactTerms = UserLookupTerms.contactTerms(user.getEmail(), user.getPhoneNumber());
+        afterCommit(target -> target.put(userId, nameTerms, contactTerms));
+    }
+
+    /**
+     * Ids of the users matching every word of the query, for the page starting at {@code offset}.
+     */
+    public SearchHits lookup(String query, long offset, int limit) {
+        List<String> words = UserLookupTerms.queryWords(query);
+        lock.readLock().lock();
+        try {
+            return index.search(words, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Consumer<FuzzyTermIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<FuzzyTermIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
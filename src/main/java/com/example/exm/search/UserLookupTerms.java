@@ -0,0 +1,96 @@
+package com.example.exm.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Terms a user can be looked up by, and the words of a lookup query, normalized the same way: lower case,
+ * accents removed, split into runs of letters and digits. Phone numbers are reduced to their digits. Name words
+ * tolerate typos; email and phone terms are matched whole or by a fragment.
+ */
+final class UserLookupTerms {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    // "+1", "(555)", "123-4567" or "555.123.4567": query words that are part of a phone number
+    private static final Pattern PHONE_PART = Pattern.compile("[+(]*\\d[\\d().\\-]*");
+
+    private UserLookupTerms() {
+    }
+
+    static Set<String> nameTerms(String firstName, String lastName) {
+        Set<String> terms = new LinkedHashSet<>(words(firstName));
+        terms.addAll(words(lastName));
+        return terms;
+    }
+
+    /**
+     * Words of the email local-part, since domains are shared by too many users to tell them apart, and the
+     * digits of the phone number.
+     */
+    static Set<String> contactTerms(String email, String phoneNumber) {
+        Set<String> terms = new LinkedHashSet<>(words(localPart(email)));
+        String digits = digits(phoneNumber);
+        if (!digits.isEmpty()) {
+            terms.add(digits);
+        }
+        return terms;
+    }
+
+    /**
+     * Distinct query words. Consecutive phone number parts are joined into one word of digits, and a full email
+     * address is reduced to its local-part.
+     */
+    static List<String> queryWords(String query) {
+        Set<String> words = new LinkedHashSet<>();
+        StringBuilder phone = new StringBuilder();
+        for (String part : query.strip().split("\\s+")) {
+            if (PHONE_PART.matcher(part).matches()) {
+                phone.append(digits(part));
+                continue;
+            }
+            if (!phone.isEmpty()) {
+                words.add(phone.toString());
+                phone.setLength(0);
+            }
+            words.addAll(words(localPart(part)));
+        }
+        if (!phone.isEmpty()) {
+            words.add(phone.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SearchTokens.tokens(stripped);
+    }
+
+    private static String localPart(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        return at < 0 ? email : email.substring(0, at);
+    }
+
+    private static String digits(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.exm.service;
+
+import com.example.exm.analytics.GroupBy;
+import com.example.exm.dto.response.AnalyticsResponse;
+import com.example.exm.entity.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public interface AnalyticsService {
+    AnalyticsResponse aggregateOrders(GroupBy groupBy, LocalDate fromDate, LocalDate toDate, Set<OrderStatus> statuses);
+    int reload();
+}
@@ -0,0 +1,46 @@
+package com.example.exm.service;
+
+import com.example.exm.exception.BusinessException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface OrderExportService {
+
+    /**
+     * Writes every order placed in the range to {@code out} as it is read, ordered by order date.
+     */
+    long exportOrders(LocalDateTime startDate, LocalDateTime endDate, Format format, OutputStream out) throws IOException;
+
+    enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new BusinessException("Unsupported export format: " + name + ". Use ndjson or csv");
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.exm.service;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.OrderResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface OrderIntakeService {
+    CompletableFuture<OrderResponse> submit(CreateOrderRequest request);
+    OrderResponse createOrder(CreateOrderRequest request);
+}
@@ -1,11 +1,17 @@
 package com.example.exm.service;
 
+import com.example.exm.dto.request.BulkCancelRequest;
+import com.example.exm.dto.request.BulkStatusUpdateRequest;
 import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.BatchOrderResponse;
+import com.example.exm.dto.response.BulkOperationResponse;
+import com.example.exm.dto.response.CursorPage;
 import com.example.exm.dto.response.OrderResponse;
 import com.example.exm.entity.Order;
 import com.example.exm.entity.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,15 +19,19 @@ import java.util.List;
 
 public interface OrderService {
     OrderResponse createOrder(CreateOrderRequest request);
+    BatchOrderResponse createOrders(List<CreateOrderRequest> requests);
     OrderResponse updateOrderStatus(Long id, OrderStatus status);
+    BulkOperationResponse updateOrderStatuses(BulkStatusUpdateRequest request);
     OrderResponse getOrderById(Long id);
     Order findOrderById(Long id);
     OrderResponse getOrderByOrderNumber(String orderNumber);
     Page<OrderResponse> getAllOrders(Pageable pageable);
+    CursorPage<OrderResponse> scrollOrders(String sortBy, Sort.Direction direction, String cursor, int size);
     Page<OrderResponse> getOrdersByUserId(Long userId, Pageable pageable);
     Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable);
     List<OrderResponse> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate);
     BigDecimal getTotalRevenue(LocalDateTime startDate, LocalDateTime endDate);
     void cancelOrder(Long id);
-    List<OrderResponse> getOrdersWithMultipleItems(int minItems);
+    BulkOperationResponse cancelOrders(BulkCancelRequest request);
+    Page<OrderResponse> getOrdersWithMultipleItems(int minItems, Pageable pageable);
 }
\ No newline at end of file
@@ -1,27 +1,44 @@
 package com.example.exm.service;
 
 import com.example.exm.dto.request.CreateProductRequest;
+import com.example.exm.dto.request.ProductFilterRequest;
+import com.example.exm.dto.response.CursorPage;
+import com.example.exm.dto.response.ProductFilterResponse;
 import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.dto.response.ProductSuggestionResponse;
 import com.example.exm.entity.Product;
 import com.example.exm.entity.ProductStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface ProductService {
     ProductResponse createProduct(CreateProductRequest request);
     ProductResponse updateProduct(Long id, CreateProductRequest request);
     ProductResponse getProductById(Long id);
     Product findProductById(Long id);
+    Map<Long, Product> findProductsByIds(Collection<Long> ids);
     Page<ProductResponse> getAllProducts(Pageable pageable);
+    CursorPage<ProductResponse> scrollProducts(String sortBy, Sort.Direction direction, String cursor, int size);
     Page<ProductResponse> getProductsByStatus(ProductStatus status, Pageable pageable);
     Page<ProductResponse> getProductsByCategory(String category, Pageable pageable);
-    List<ProductResponse> searchProductsByName(String name);
+    Page<ProductResponse> searchProducts(String query, Pageable pageable);
+    List<ProductSuggestionResponse> suggestProducts(String prefix, int limit);
+    ProductFilterResponse filterProducts(ProductFilterRequest filter, Pageable pageable);
     List<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
     List<ProductResponse> getLowStockProducts();
     void deleteProduct(Long id);
     void updateProductStock(Long id, Integer quantity);
     boolean isProductInStock(Long id, Integer requiredQuantity);
+    boolean decreaseStock(Long id, Integer quantity);
+    void increaseStock(Long id, Integer quantity);
+    Set<Long> decreaseStocks(Map<Long, Integer> quantitiesByProductId);
+    void increaseStocks(Map<Long, Integer> quantitiesByProductId);
+    Map<Long, Product> reserveStock(Map<Long, Integer> quantitiesByProductId);
 }
\ No newline at end of file
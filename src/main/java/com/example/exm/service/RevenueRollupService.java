@@ -0,0 +1,18 @@
+package com.example.exm.service;
+
+import com.example.exm.dto.response.RevenueDiscrepancy;
+import com.example.exm.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface RevenueRollupService {
+    void recordStatusChanges(Collection<Long> orderIds, Set<OrderStatus> fromStatuses, OrderStatus status);
+    BigDecimal getRevenue(LocalDateTime startDate, LocalDateTime endDate);
+    int rebuild(LocalDate fromDate, LocalDate toDate);
+    List<RevenueDiscrepancy> findDiscrepancies(LocalDate fromDate, LocalDate toDate);
+}
@@ -2,25 +2,41 @@ package com.example.exm.service;
 
 import com.example.exm.dto.request.CreateUserRequest;
 import com.example.exm.dto.request.UpdateUserRequest;
+import com.example.exm.dto.response.CursorPage;
 import com.example.exm.dto.response.UserResponse;
+import com.example.exm.entity.Order;
+import com.example.exm.entity.OrderStatus;
 import com.example.exm.entity.User;
 import com.example.exm.entity.UserStatus;
+import com.example.exm.leaderboard.CustomerRanking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface UserService {
     UserResponse createUser(CreateUserRequest request);
     UserResponse updateUser(Long id, UpdateUserRequest request);
     UserResponse getUserById(Long id);
     User findUserById(Long id);
+    Map<Long, User> findUsersByIds(Collection<Long> ids);
     UserResponse getUserByEmail(String email);
     Page<UserResponse> getAllUsers(Pageable pageable);
+    CursorPage<UserResponse> scrollUsers(String sortBy, Sort.Direction direction, String cursor, int size);
+    CursorPage<UserResponse> scrollRecentlyActiveUsers(int days, String cursor, int size);
     Page<UserResponse> getUsersByStatus(UserStatus status, Pageable pageable);
     List<UserResponse> searchUsersByName(String name);
+    Page<UserResponse> lookupUsers(String query, Pageable pageable);
     void deleteUser(Long id);
     boolean existsByEmail(String email);
     List<UserResponse> getUsersWithActiveOrders();
-    List<UserResponse> getTopCustomers(int limit);
+    Page<UserResponse> getUsersWithActiveOrders(Pageable pageable);
+    boolean hasActiveOrders(Long userId);
+    List<UserResponse> getTopCustomers(int limit, CustomerRanking ranking);
+    void recordOrdersPlaced(Collection<Order> orders);
+    void recordStatusChanges(Collection<Long> orderIds, Set<OrderStatus> fromStatuses, OrderStatus status);
 }
\ No newline at end of file
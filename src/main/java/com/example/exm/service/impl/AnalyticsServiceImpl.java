@@ -0,0 +1,54 @@
+package com.example.exm.service.impl;
+
+import com.example.exm.analytics.GroupBy;
+import com.example.exm.analytics.GroupTotal;
+import com.example.exm.analytics.OrderAnalyticsStore;
+import com.example.exm.dto.response.AnalyticsResponse;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers order group-bys from the in-memory {@link OrderAnalyticsStore} rather than the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final OrderAnalyticsStore orderAnalyticsStore;
+
+    @Override
+    public AnalyticsResponse aggregateOrders(GroupBy groupBy, LocalDate fromDate, LocalDate toDate,
+                                             Set<OrderStatus> statuses) {
+        if (fromDate.isAfter(toDate)) {
+            throw new BusinessException("fromDate must not be after toDate");
+        }
+        Set<OrderStatus> included = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(OrderStatus.class)
+                : statuses;
+
+        List<GroupTotal> totals = orderAnalyticsStore.aggregate(groupBy, fromDate, toDate, included);
+        List<AnalyticsResponse.Group> groups = totals.stream()
+                .map(total -> new AnalyticsResponse.Group(total.key(), BigDecimal.valueOf(total.revenueCents(), 2),
+                        total.units(), total.lines()))
+                .toList();
+        long linesMatched = totals.stream().mapToLong(GroupTotal::lines).sum();
+        return new AnalyticsResponse(groupBy.name(), linesMatched, groups);
+    }
+
+    @Override
+    public int reload() {
+        log.info("Reloading the order analytics store");
+        return orderAnalyticsStore.reload();
+    }
+}
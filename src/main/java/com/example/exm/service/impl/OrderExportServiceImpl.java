@@ -0,0 +1,150 @@
+package com.example.exm.service.impl;
+
+import com.example.exm.dto.response.OrderExportRow;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.service.OrderExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "order_id,order_number,order_date,status,total_amount,user_id,user_email," +
+            "product_id,product_name,quantity,unit_price,line_total";
+
+    private final OrderRepository orderRepository;
+    private final ObjectWriter lineWriter;
+
+    public OrderExportServiceImpl(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        // One order per line, so the shared pretty-printing configuration is switched off
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public long exportOrders(LocalDateTime startDate, LocalDateTime endDate, Format format, OutputStream out)
+            throws IOException {
+        log.info("Exporting orders between {} and {} as {}", startDate, endDate, format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long exported;
+        try (Stream<OrderExportRow> rows = orderRepository.streamExportRows(startDate, endDate)) {
+            exported = switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), writer);
+                case CSV -> writeCsv(rows.iterator(), writer);
+            };
+        }
+        writer.flush();
+
+        log.info("Exported {} orders between {} and {}", exported, startDate, endDate);
+        return exported;
+    }
+
+    /**
+     * Rows arrive ordered by order, so only the lines of the order being written are held in memory.
+     */
+    private long writeNdjson(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        long orders = 0;
+        ExportedOrder current = null;
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            if (current == null || !current.id().equals(row.orderId())) {
+                if (current != null) {
+                    writeLine(current, writer);
+                }
+                current = ExportedOrder.of(row);
+                orders++;
+            }
+            if (row.productId() != null) {
+                current.items().add(ExportedItem.of(row));
+            }
+        }
+        if (current != null) {
+            writeLine(current, writer);
+        }
+        return orders;
+    }
+
+    private void writeLine(ExportedOrder order, Writer writer) throws IOException {
+        writer.write(lineWriter.writeValueAsString(order));
+        writer.write('\n');
+    }
+
+    private long writeCsv(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long orders = 0;
+        Long lastOrderId = null;
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            if (!row.orderId().equals(lastOrderId)) {
+                lastOrderId = row.orderId();
+                orders++;
+            }
+            writeCsvRow(writer, row.orderId(), row.orderNumber(), row.orderDate(), row.status(), row.totalAmount(),
+                    row.userId(), row.userEmail(), row.productId(), row.productName(), row.quantity(),
+                    row.unitPrice(), row.lineTotal());
+        }
+        return orders;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String csvField(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private record ExportedOrder(Long id, String orderNumber, LocalDateTime orderDate, OrderStatus status,
+                                 BigDecimal totalAmount, Long userId, String userEmail, List<ExportedItem> items) {
+
+        static ExportedOrder of(OrderExportRow row) {
+            return new ExportedOrder(row.orderId(), row.orderNumber(), row.orderDate(), row.status(),
+                    row.totalAmount(), row.userId(), row.userEmail(), new ArrayList<>());
+        }
+    }
+
+    private record ExportedItem(Long productId, String productName, Integer quantity, BigDecimal unitPrice,
+                                BigDecimal totalPrice) {
+
+        static ExportedItem of(OrderExportRow row) {
+            return new ExportedItem(row.productId(), row.productName(), row.quantity(), row.unitPrice(),
+                    row.lineTotal());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.exm.service.impl;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.BatchOrderResponse;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.exception.OrderIntakeRejectedException;
+import com.example.exm.exception.OrderIntakeTimeoutException;
+import com.example.exm.service.OrderIntakeService;
+import com.example.exm.service.OrderService;
+import com.example.exm.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group-commit intake: requests are queued in a bounded buffer and writer threads place them through
+ * {@link OrderService#createOrders} in groups of {@code group-size}, or whatever arrived within
+ * {@code max-delay}, so one transaction commit covers a whole group. A full buffer rejects new requests,
+ * a caller whose order is still buffered after {@code response-timeout} withdraws it, and on shutdown the buffer
+ * is drained before the writers exit.
+ */
+@Service
+@ConditionalOnProperty(name = "app.order.intake.enabled", havingValue = "true")
+@Slf4j
+public class OrderIntakeServiceImpl implements OrderIntakeService, SmartLifecycle {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final OrderService orderService;
+    private final BlockingQueue<PendingOrder> buffer;
+    private final int groupSize;
+    private final long maxDelayNanos;
+    private final int writerThreads;
+    private final Duration shutdownTimeout;
+    private final Duration responseTimeout;
+    private final List<Thread> writers = new ArrayList<>();
+    private final AtomicLong committedGroups = new AtomicLong();
+    private volatile boolean running;
+
+    public OrderIntakeServiceImpl(OrderService orderService,
+                                  @Value("${app.order.intake.capacity:10000}") int capacity,
+                                  @Value("${app.order.intake.group-size:50}") int groupSize,
+                                  @Value("${app.order.intake.max-delay:5ms}") Duration maxDelay,
+                                  @Value("${app.order.intake.writer-threads:2}") int writerThreads,
+                                  @Value("${app.order.intake.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                  @Value("${app.order.intake.response-timeout:10s}") Duration responseTimeout) {
+        this.orderService = orderService;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        // createOrders commits at most one chunk per transaction, so larger groups would not commit together
+        this.groupSize = Math.min(groupSize, Constants.ORDER_BATCH_CHUNK_SIZE);
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.writerThreads = writerThreads;
+        this.shutdownTimeout = shutdownTimeout;
+        this.responseTimeout = responseTimeout;
+    }
+
+    @Override
+    public CompletableFuture<OrderResponse> submit(CreateOrderRequest request) {
+        return enqueue(request).response();
+    }
+
+    @Override
+    public OrderResponse createOrder(CreateOrderRequest request) {
+        PendingOrder pending = enqueue(request);
+        try {
+            return pending.response().get(responseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (TimeoutException e) {
+            return withdrawOrAwait(pending,
+                    "Order was not placed within " + responseTimeout.toMillis() + " ms, please retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return withdrawOrAwait(pending, "Interrupted while waiting for the order to be placed");
+        }
+    }
+
+    public long getCommittedGroups() {
+        return committedGroups.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::drain, "order-intake-writer-" + i);
+            writer.start();
+            writers.add(writer);
+        }
+        log.info("Order intake started with {} writers, group size {}", writerThreads, groupSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        boolean interrupted = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                interrupted = true;
+                break;
+            }
+        }
+        // A writer still running could take an order the loop below rejects, so it is interrupted and waited
+        // for: it finishes the group in hand but takes no more orders
+        for (Thread writer : writers) {
+            if (writer.isAlive()) {
+                log.warn("Order intake writer {} did not drain within {}, interrupting it",
+                        writer.getName(), shutdownTimeout);
+                writer.interrupt();
+            }
+        }
+        for (Thread writer : writers) {
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        writers.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        PendingOrder abandoned;
+        while ((abandoned = buffer.poll()) != null) {
+            abandoned.response().completeExceptionally(
+                    new OrderIntakeRejectedException("Order intake shut down before the order was placed"));
+        }
+        log.info("Order intake stopped after {} group commits", committedGroups.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server so no request can enqueue while the buffer drains
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private PendingOrder enqueue(CreateOrderRequest request) {
+        if (!running) {
+            throw new OrderIntakeRejectedException("Order intake is not accepting orders");
+        }
+        PendingOrder pending = new PendingOrder(request, new CompletableFuture<>());
+        if (!buffer.offer(pending)) {
+            throw new OrderIntakeRejectedException("Order intake buffer is full, please retry later");
+        }
+        return pending;
+    }
+
+    /**
+     * Takes a caller's order back out of the buffer, so a timeout always means the order was not placed and a
+     * retry with the same idempotency key cannot place it twice. An order a writer already took is in a group
+     * being committed, so the caller waits for that group's outcome instead.
+     */
+    private OrderResponse withdrawOrAwait(PendingOrder pending, String timeoutMessage) {
+        if (buffer.remove(pending)) {
+            throw new OrderIntakeTimeoutException(timeoutMessage);
+        }
+        try {
+            return pending.response().join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Order intake failed", cause);
+    }
+
+    private void drain() {
+        List<PendingOrder> group = new ArrayList<>(groupSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingOrder first = buffer.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < groupSize) {
+                    PendingOrder next = buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                // Interrupted while collecting a group, so the orders already taken were never placed
+                fail(group, new OrderIntakeRejectedException("Order intake shut down before the order was placed"));
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                // The writer dies, but no caller may be left waiting on an order it had already taken
+                fail(group, e);
+                throw e;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingOrder> group) {
+        try {
+            BatchOrderResponse response = orderService.createOrders(
+                    group.stream().map(PendingOrder::request).toList());
+            committedGroups.incrementAndGet();
+            for (BatchOrderResponse.OrderResult result : response.getResults()) {
+                CompletableFuture<OrderResponse> future = group.get(result.getIndex()).response();
+                if (result.isSuccess()) {
+                    future.complete(result.getOrder());
+                } else {
+                    future.completeExceptionally(new BusinessException(result.getError()));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Order intake group of {} failed", group.size(), e);
+            fail(group, e);
+        } catch (Throwable e) {
+            log.error("Order intake writer failed on a group of {}", group.size(), e);
+            fail(group, e);
+            throw e;
+        }
+    }
+
+    private static void fail(List<PendingOrder> group, Throwable failure) {
+        // Orders of the group that were already answered keep their response
+        group.forEach(pending -> pending.response().completeExceptionally(failure));
+    }
+
+    private record PendingOrder(CreateOrderRequest request, CompletableFuture<OrderResponse> response) {
+    }
+}
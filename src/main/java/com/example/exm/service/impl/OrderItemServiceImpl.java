@@ -6,6 +6,7 @@ import com.example.exm.entity.Product;
 import com.example.exm.exception.BusinessException;
 import com.example.exm.exception.ResourceNotFoundException;
 import com.example.exm.repository.OrderItemRepository;
+import com.example.exm.repository.OrderRepository;
 import com.example.exm.service.OrderItemService;
 import com.example.exm.service.ProductService;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ import java.util.List;
 public class OrderItemServiceImpl implements OrderItemService {
 
     private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
     private final ProductService productService;
 
     @Override
@@ -34,6 +36,8 @@ public class OrderItemServiceImpl implements OrderItemService {
         }
 
         List<OrderItem> savedItems = orderItemRepository.saveAll(orderItems);
+        orderRepository.addItemTotals(orderId, savedItems.size(),
+                savedItems.stream().mapToInt(OrderItem::getQuantity).sum());
         log.info("Created {} order items for order ID: {}", savedItems.size(), orderId);
 
         return savedItems;
@@ -62,23 +66,24 @@ public class OrderItemServiceImpl implements OrderItemService {
             throw new BusinessException("Quantity must be greater than 0");
         }
 
-        // Check if product is available in required quantity
+        // Apply only the difference to stock, atomically and without loading the product
         Product product = orderItem.getProduct();
-        int currentQuantity = orderItem.getQuantity();
-        int stockChange = quantity - currentQuantity;
+        int stockChange = quantity - orderItem.getQuantity();
 
-        if (stockChange > 0 && product.getStockQuantity() < stockChange) {
-            throw new BusinessException("Insufficient stock for product: " + product.getName());
+        if (stockChange > 0 && !productService.decreaseStock(product.getId(), stockChange)) {
+            throw new BusinessException("Insufficient stock for product ID: " + product.getId());
+        }
+        if (stockChange < 0) {
+            productService.increaseStock(product.getId(), -stockChange);
         }
 
         orderItem.setQuantity(quantity);
         orderItem.setTotalPrice(orderItem.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
 
         orderItemRepository.save(orderItem);
-
-        // Update product stock
-        int newStock = product.getStockQuantity() - stockChange;
-        productService.updateProductStock(product.getId(), newStock);
+        if (stockChange != 0) {
+            orderRepository.addItemTotals(orderItem.getOrder().getId(), 0, stockChange);
+        }
 
         log.info("Order item updated successfully with ID: {}", id);
     }
@@ -91,11 +96,10 @@ public class OrderItemServiceImpl implements OrderItemService {
                 .orElseThrow(() -> new ResourceNotFoundException("OrderItem", "id", id));
 
         // Restore product stock
-        Product product = orderItem.getProduct();
-        int restoredStock = product.getStockQuantity() + orderItem.getQuantity();
-        productService.updateProductStock(product.getId(), restoredStock);
+        productService.increaseStock(orderItem.getProduct().getId(), orderItem.getQuantity());
 
         orderItemRepository.delete(orderItem);
+        orderRepository.addItemTotals(orderItem.getOrder().getId(), -1, -orderItem.getQuantity());
 
         log.info("Order item deleted successfully with ID: {}", id);
     }
@@ -1,28 +1,61 @@
 package com.example.exm.service.impl;
 
+import com.example.exm.analytics.OrderAnalyticsStore;
 import com.example.exm.dto.mapper.OrderMapper;
+import com.example.exm.dto.request.BulkCancelRequest;
+import com.example.exm.dto.request.BulkStatusUpdateRequest;
 import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.BatchOrderResponse;
+import com.example.exm.dto.response.BulkOperationResponse;
+import com.example.exm.dto.response.CursorPage;
 import com.example.exm.dto.response.OrderResponse;
 import com.example.exm.entity.*;
 import com.example.exm.exception.BusinessException;
+import com.example.exm.exception.OrderStatusConflictException;
 import com.example.exm.exception.ResourceNotFoundException;
+import com.example.exm.repository.OrderItemRepository;
 import com.example.exm.repository.OrderRepository;
 import com.example.exm.service.OrderItemService;
 import com.example.exm.service.OrderService;
 import com.example.exm.service.ProductService;
+import com.example.exm.service.RevenueRollupService;
 import com.example.exm.service.UserService;
+import com.example.exm.outbox.OutboxPayloads;
+import com.example.exm.outbox.OutboxRecorder;
+import com.example.exm.util.Constants;
+import com.example.exm.util.CursorKey;
+import com.example.exm.util.KeysetCursor;
 import com.example.exm.util.OrderNumberGenerator;
+import com.example.exm.util.OrderStatusTransitions;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,12 +64,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final Set<OrderStatus> CANCELLABLE_STATUSES =
+            EnumSet.complementOf(EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED));
+
+    // Backed by the (order_date, id) and primary key indexes
+    private static final Map<String, CursorKey<OrderResponse>> CURSOR_KEYS = CursorKey.index(
+            CursorKey.of(Constants.SORT_BY_ORDER_DATE, LocalDateTime.class, OrderResponse::getOrderDate, OrderResponse::getId),
+            CursorKey.id(OrderResponse::getId));
+
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final OrderMapper orderMapper;
     private final OrderNumberGenerator orderNumberGenerator;
     private final UserService userService;
     private final ProductService productService;
     private final OrderItemService orderItemService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final OutboxRecorder outboxRecorder;
+    private final RevenueRollupService revenueRollupService;
+    private final OrderAnalyticsStore orderAnalyticsStore;
 
     @Override
     public OrderResponse createOrder(CreateOrderRequest request) {
@@ -45,46 +92,42 @@ public class OrderServiceImpl implements OrderService {
         // Validate user exists
         User user = userService.findUserById(request.getUserId());
 
-        // Validate products and stock
-        validateOrderItems(request.getOrderItems());
-
-        // Create order
-        Order order = orderMapper.toEntity(request);
-        order.setUser(user);
-        order.setOrderNumber(orderNumberGenerator.generateOrderNumber());
-        order.setOrderDate(LocalDateTime.now());
-
-        // Calculate total amount and create order items
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new ArrayList<>();
+        // Validate and atomically decrement stock for every product in the order in one pass
+        Map<Long, Product> products = productService.reserveStock(aggregateQuantities(request.getOrderItems()));
 
-        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getOrderItems()) {
-            Product product = productService.findProductById(itemRequest.getProductId());
+        Order order = buildOrder(request, user, products, orderNumberGenerator.generateOrderNumber());
+        Order savedOrder = orderRepository.save(order);
+        userService.recordOrdersPlaced(List.of(savedOrder));
+        orderAnalyticsStore.recordOrders(List.of(savedOrder));
+        recordOrderCreated(savedOrder);
 
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProduct(product);
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setUnitPrice(product.getPrice());
-            orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+        log.info("Order created successfully with ID: {} and order number: {}",
+                savedOrder.getId(), savedOrder.getOrderNumber());
 
-            orderItems.add(orderItem);
-            totalAmount = totalAmount.add(orderItem.getTotalPrice());
+        return orderMapper.toResponse(savedOrder);
+    }
 
-            // Update product stock
-            int newStock = product.getStockQuantity() - itemRequest.getQuantity();
-            productService.updateProductStock(product.getId(), newStock);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchOrderResponse createOrders(List<CreateOrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("At least one order is required");
+        }
+        if (requests.size() > Constants.MAX_ORDER_BATCH_SIZE) {
+            throw new BusinessException("A batch can contain at most " + Constants.MAX_ORDER_BATCH_SIZE + " orders");
         }
 
-        order.setTotalAmount(totalAmount);
-        order.setOrderItems(orderItems);
+        log.info("Creating batch of {} orders", requests.size());
 
-        Order savedOrder = orderRepository.save(order);
-
-        log.info("Order created successfully with ID: {} and order number: {}",
-                savedOrder.getId(), savedOrder.getOrderNumber());
+        List<BatchOrderResponse.OrderResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += Constants.ORDER_BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + Constants.ORDER_BATCH_CHUNK_SIZE, requests.size());
+            results.addAll(createOrderChunk(requests, from, to));
+        }
 
-        return orderMapper.toResponse(savedOrder);
+        BatchOrderResponse response = BatchOrderResponse.of(results);
+        log.info("Order batch completed: {} created, {} failed", response.getSuccessCount(), response.getFailureCount());
+        return response;
     }
 
     @Override
@@ -96,17 +139,26 @@ public class OrderServiceImpl implements OrderService {
 
         validateStatusTransition(previousStatus, status);
 
-        order.setStatus(status);
-        Order updatedOrder = orderRepository.save(order);
+        // The order was read without a lock, so it only moves if it is still in the status that was validated;
+        // otherwise a concurrent change would be counted twice in the user, revenue and analytics totals, or
+        // bypass the transition table. Cancelling goes through the cancellation statements to hand the stock back
+        Set<OrderStatus> fromStatuses = EnumSet.of(previousStatus);
+        List<Long> movedIds = status == OrderStatus.CANCELLED
+                ? cancelLockedOrders(List.of(id), fromStatuses)
+                : transitionLockedOrders(List.of(id), fromStatuses, status);
+        if (movedIds.isEmpty()) {
+            throw new OrderStatusConflictException("Order " + id + " is no longer " + previousStatus);
+        }
 
         log.info("Order status updated successfully for ID: {}", id);
-        return orderMapper.toResponse(updatedOrder);
+        return getOrderById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
-        Order order = findOrderById(id);
+        Order order = orderRepository.findWithDetailsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
         return orderMapper.toResponse(order);
     }
 
@@ -120,7 +172,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getOrderByOrderNumber(String orderNumber) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        Order order = orderRepository.findWithDetailsByOrderNumber(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
         return orderMapper.toResponse(order);
     }
@@ -128,118 +180,403 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponse> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable)
-                .map(orderMapper::toResponse);
+        return toResponsePage(orderRepository.findIds(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponse> scrollOrders(String sortBy, Sort.Direction direction, String cursor, int size) {
+        CursorKey<OrderResponse> key = CursorKey.resolve(CURSOR_KEYS, sortBy);
+        KeysetCursor after = KeysetCursor.decode(cursor, key, direction);
+
+        List<Long> ids = orderRepository.findIdsAfter(key.property(), direction, after, size + 1);
+        boolean hasNext = ids.size() > size;
+        return CursorPage.of(toResponses(hasNext ? ids.subList(0, size) : ids), size, hasNext, key, direction);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponse> getOrdersByUserId(Long userId, Pageable pageable) {
         User user = userService.findUserById(userId);
-        return orderRepository.findByUser(user, pageable)
-                .map(orderMapper::toResponse);
+        return toResponsePage(orderRepository.findIdsByUserId(user.getId(), pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        return orderRepository.findByStatus(status, pageable)
-                .map(orderMapper::toResponse);
+        return toResponsePage(orderRepository.findIdsByStatus(status, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByOrderDateBetween(startDate, endDate)
-                .stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(orderRepository.findIdsByOrderDateBetween(startDate, endDate));
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getTotalRevenue(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.getTotalRevenueByDateRange(startDate, endDate);
+        return revenueRollupService.getRevenue(startDate, endDate);
     }
 
     @Override
     public void cancelOrder(Long id) {
         log.info("Cancelling order with ID: {}", id);
 
-        Order order = findOrderById(id);
-
-        if (order.getStatus() == OrderStatus.DELIVERED) {
-            throw new BusinessException("Cannot cancel a delivered order");
+        if (cancelLockedOrders(List.of(id), CANCELLABLE_STATUSES).isEmpty()) {
+            Order order = findOrderById(id);
+            if (order.getStatus() == OrderStatus.DELIVERED) {
+                throw new BusinessException("Cannot cancel a delivered order");
+            }
+            throw new BusinessException("Order is already cancelled");
         }
 
-        if (order.getStatus() == OrderStatus.CANCELLED) {
-            throw new BusinessException("Order is already cancelled");
+        log.info("Order cancelled successfully with ID: {}", id);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOperationResponse cancelOrders(BulkCancelRequest request) {
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        boolean byFilter = request.getStatus() != null || request.getOrderedBefore() != null;
+        if (byIds == byFilter) {
+            throw new BusinessException("Specify either order IDs or a status/orderedBefore filter");
         }
+        if (request.getStatus() != null && !CANCELLABLE_STATUSES.contains(request.getStatus())) {
+            throw new BusinessException("Orders in status " + request.getStatus() + " cannot be cancelled");
+        }
+
+        return byIds
+                ? cancelOrdersById(new ArrayList<>(new LinkedHashSet<>(request.getOrderIds())))
+                : cancelOrdersByFilter(request.getStatus(), request.getOrderedBefore());
+    }
 
-        // Restore product stock
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            int restoredStock = product.getStockQuantity() + item.getQuantity();
-            productService.updateProductStock(product.getId(), restoredStock);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOperationResponse updateOrderStatuses(BulkStatusUpdateRequest request) {
+        OrderStatus status = request.getStatus();
+        Set<OrderStatus> fromStatuses = OrderStatusTransitions.predecessorsOf(status);
+        if (fromStatuses.isEmpty()) {
+            throw new BusinessException("Orders cannot be moved to status " + status);
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+        log.info("Updating status of {} orders to {}", orderIds.size(), status);
 
-        log.info("Order cancelled successfully with ID: {}", id);
+        // Cancelling has to hand the stock back as well, so it goes through the cancellation statements
+        Function<List<Long>, List<Long>> transition = status == OrderStatus.CANCELLED
+                ? chunk -> cancelLockedOrders(chunk, fromStatuses)
+                : chunk -> transitionLockedOrders(chunk, fromStatuses, status);
+        return applyInChunks(orderIds, transition);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersWithMultipleItems(int minItems) {
-        return orderRepository.findOrdersWithMultipleItems(minItems)
-                .stream()
+    public Page<OrderResponse> getOrdersWithMultipleItems(int minItems, Pageable pageable) {
+        return toResponsePage(orderRepository.findIdsByItemCountAtLeast(minItems, pageable));
+    }
+
+    private Page<OrderResponse> toResponsePage(Page<Long> orderIds) {
+        return new PageImpl<>(toResponses(orderIds.getContent()), orderIds.getPageable(), orderIds.getTotalElements());
+    }
+
+    /**
+     * Maps orders to responses in the order of the given ids. Orders are loaded together with their user,
+     * items and products, one query per chunk of ids, so mapping never triggers lazy loads.
+     */
+    private List<OrderResponse> toResponses(List<Long> orderIds) {
+        Map<Long, Order> ordersById = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += Constants.ORDER_FETCH_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + Constants.ORDER_FETCH_CHUNK_SIZE, orderIds.size()));
+            orderRepository.findWithDetailsByIdIn(chunk).forEach(order -> ordersById.put(order.getId(), order));
+        }
+        return orderIds.stream()
+                .map(ordersById::get)
                 .map(orderMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
-    private void validateOrderItems(List<CreateOrderRequest.OrderItemRequest> orderItems) {
+    private BulkOperationResponse cancelOrdersById(List<Long> orderIds) {
+        log.info("Cancelling {} orders by ID", orderIds.size());
+        return applyInChunks(orderIds, chunk -> cancelLockedOrders(chunk, CANCELLABLE_STATUSES));
+    }
+
+    private BulkOperationResponse applyInChunks(List<Long> orderIds, Function<List<Long>, List<Long>> transition) {
+        long updated = 0;
+        List<Long> rejectedIds = new ArrayList<>();
+        for (int from = 0; from < orderIds.size(); from += Constants.BULK_UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + Constants.BULK_UPDATE_CHUNK_SIZE, orderIds.size()));
+            updated += applyToChunk(chunk, transition, rejectedIds);
+        }
+
+        log.info("Bulk order update finished: {} updated, {} rejected", updated, rejectedIds.size());
+        return BulkOperationResponse.of(orderIds.size(), updated, rejectedIds);
+    }
+
+    private BulkOperationResponse cancelOrdersByFilter(OrderStatus status, LocalDateTime orderedBefore) {
+        log.info("Cancelling orders with status: {} placed before: {}", status, orderedBefore);
+
+        Set<OrderStatus> statuses = status != null ? EnumSet.of(status) : CANCELLABLE_STATUSES;
+        Pageable chunkPage = PageRequest.of(0, Constants.BULK_UPDATE_CHUNK_SIZE);
+
+        long processed = 0;
+        long cancelled = 0;
+        List<Long> rejectedIds = new ArrayList<>();
+        long afterId = 0;
+        List<Long> chunk;
+        // Walk the matching ids in primary key order so every chunk is a short transaction of its own
+        while (!(chunk = orderRepository.findIdsByStatusInAndOrderDateBefore(afterId, statuses, orderedBefore, chunkPage)).isEmpty()) {
+            processed += chunk.size();
+            cancelled += applyToChunk(chunk, ids -> cancelLockedOrders(ids, CANCELLABLE_STATUSES), rejectedIds);
+            afterId = chunk.get(chunk.size() - 1);
+        }
+
+        log.info("Bulk cancellation finished: {} cancelled, {} rejected", cancelled, rejectedIds.size());
+        return BulkOperationResponse.of(processed, cancelled, rejectedIds);
+    }
+
+    private int applyToChunk(List<Long> orderIds, Function<List<Long>, List<Long>> transition, List<Long> rejectedIds) {
+        Set<Long> updated = new HashSet<>(transactionTemplate.execute(status -> transition.apply(orderIds)));
+        for (Long orderId : orderIds) {
+            if (!updated.contains(orderId)) {
+                rejectedIds.add(orderId);
+            }
+        }
+        return updated.size();
+    }
+
+    /**
+     * Moves the orders that are currently in one of {@code fromStatuses} to {@code status} with one guarded
+     * UPDATE, without loading the entities. Returns the ids that were moved.
+     */
+    private List<Long> transitionLockedOrders(List<Long> orderIds, Set<OrderStatus> fromStatuses, OrderStatus status) {
+        List<Long> lockedIds = orderRepository.lockIdsByIdInAndStatusIn(orderIds, fromStatuses);
+        if (!lockedIds.isEmpty()) {
+            userService.recordStatusChanges(lockedIds, fromStatuses, status);
+            revenueRollupService.recordStatusChanges(lockedIds, fromStatuses, status);
+            orderAnalyticsStore.recordStatusChange(lockedIds, status);
+            orderRepository.updateStatus(lockedIds, fromStatuses, status);
+            recordStatusChanged(lockedIds, fromStatuses, status);
+        }
+        return lockedIds;
+    }
+
+    /**
+     * Cancels the given orders that are still cancellable with a fixed number of statements: lock the
+     * rows, sum item quantities per product, restore stock in one batch and flip the status in one update.
+     * Returns the ids that were cancelled; the rest were missing, delivered or already cancelled.
+     */
+    private List<Long> cancelLockedOrders(Collection<Long> orderIds, Set<OrderStatus> fromStatuses) {
+        List<Long> lockedIds = orderRepository.lockIdsByIdInAndStatusIn(orderIds, fromStatuses);
+        if (lockedIds.isEmpty()) {
+            return lockedIds;
+        }
+
+        userService.recordStatusChanges(lockedIds, fromStatuses, OrderStatus.CANCELLED);
+        revenueRollupService.recordStatusChanges(lockedIds, fromStatuses, OrderStatus.CANCELLED);
+        orderAnalyticsStore.recordStatusChange(lockedIds, OrderStatus.CANCELLED);
+        orderRepository.updateStatus(lockedIds, fromStatuses, OrderStatus.CANCELLED);
+
+        Map<Long, Integer> quantitiesByProductId = new TreeMap<>();
+        for (Object[] row : orderItemRepository.sumQuantitiesByProductForOrders(lockedIds)) {
+            quantitiesByProductId.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        if (!quantitiesByProductId.isEmpty()) {
+            productService.increaseStocks(quantitiesByProductId);
+        }
+        recordStatusChanged(lockedIds, fromStatuses, OrderStatus.CANCELLED);
+        return lockedIds;
+    }
+
+    private List<BatchOrderResponse.OrderResult> createOrderChunk(List<CreateOrderRequest> requests, int from, int to) {
+        try {
+            return transactionTemplate.execute(status -> placeOrderChunk(requests, from, to));
+        } catch (RuntimeException e) {
+            // Stock moved underneath us or the chunk hit a database error; retry it one order per transaction
+            log.warn("Order batch chunk [{}, {}) rolled back, retrying orders individually: {}", from, to, e.getMessage());
+            List<BatchOrderResponse.OrderResult> results = new ArrayList<>(to - from);
+            for (int index = from; index < to; index++) {
+                results.add(createSingleOrder(index, requests.get(index)));
+            }
+            return results;
+        }
+    }
+
+    private BatchOrderResponse.OrderResult createSingleOrder(int index, CreateOrderRequest request) {
+        String violation = validateBatchRequest(request);
+        if (violation != null) {
+            return BatchOrderResponse.OrderResult.failure(index, violation);
+        }
+        try {
+            OrderResponse order = transactionTemplate.execute(status -> createOrder(request));
+            return BatchOrderResponse.OrderResult.success(index, order);
+        } catch (RuntimeException e) {
+            return BatchOrderResponse.OrderResult.failure(index, e.getMessage());
+        }
+    }
+
+    private List<BatchOrderResponse.OrderResult> placeOrderChunk(List<CreateOrderRequest> requests, int from, int to) {
+        BatchOrderResponse.OrderResult[] results = new BatchOrderResponse.OrderResult[to - from];
+
+        List<Integer> candidates = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (int index = from; index < to; index++) {
+            CreateOrderRequest request = requests.get(index);
+            String violation = validateBatchRequest(request);
+            if (violation != null) {
+                results[index - from] = BatchOrderResponse.OrderResult.failure(index, violation);
+                continue;
+            }
+            candidates.add(index);
+            userIds.add(request.getUserId());
+            request.getOrderItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+
+        // One query each for every user and product referenced by the chunk
+        Map<Long, User> users = userService.findUsersByIds(userIds);
+        Map<Long, Product> products = productService.findProductsByIds(productIds);
+
+        // Allocate stock in memory in request order, then decrement the aggregated quantities in one batch
+        Map<Long, Integer> remainingStock = new HashMap<>();
+        products.values().forEach(product -> remainingStock.put(product.getId(), product.getStockQuantity()));
+        Map<Long, Integer> reserved = new TreeMap<>();
+        List<Order> orders = new ArrayList<>();
+        List<Integer> orderIndexes = new ArrayList<>();
+
+        for (Integer index : candidates) {
+            CreateOrderRequest request = requests.get(index);
+            User user = users.get(request.getUserId());
+            if (user == null) {
+                results[index - from] = BatchOrderResponse.OrderResult.failure(index,
+                        new ResourceNotFoundException("User", "id", request.getUserId()).getMessage());
+                continue;
+            }
+
+            Map<Long, Integer> quantities = aggregateQuantities(request.getOrderItems());
+            String shortage = findStockShortage(quantities, products, remainingStock);
+            if (shortage != null) {
+                results[index - from] = BatchOrderResponse.OrderResult.failure(index, shortage);
+                continue;
+            }
+            quantities.forEach((productId, quantity) -> {
+                remainingStock.merge(productId, -quantity, Integer::sum);
+                reserved.merge(productId, quantity, Integer::sum);
+            });
+
+            orders.add(buildOrder(request, user, products, orderNumberGenerator.generateOrderNumber()));
+            orderIndexes.add(index);
+        }
+
+        if (!reserved.isEmpty() && !productService.decreaseStocks(reserved).isEmpty()) {
+            throw new BusinessException("Stock changed concurrently while reserving the order batch");
+        }
+
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        userService.recordOrdersPlaced(savedOrders);
+        orderAnalyticsStore.recordOrders(savedOrders);
+        savedOrders.forEach(this::recordOrderCreated);
+        for (int i = 0; i < savedOrders.size(); i++) {
+            int index = orderIndexes.get(i);
+            results[index - from] = BatchOrderResponse.OrderResult.success(index, orderMapper.toResponse(savedOrders.get(i)));
+        }
+
+        log.info("Created {} of {} orders in batch chunk [{}, {})", savedOrders.size(), to - from, from, to);
+        return Arrays.asList(results);
+    }
+
+    private String validateBatchRequest(CreateOrderRequest request) {
+        if (request == null) {
+            return "Order is required";
+        }
+        Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        boolean invalidQuantity = request.getOrderItems().stream().anyMatch(item -> item.getQuantity() <= 0);
+        return invalidQuantity ? "Order item quantity must be greater than 0" : null;
+    }
+
+    private String findStockShortage(Map<Long, Integer> quantities, Map<Long, Product> products,
+                                     Map<Long, Integer> remainingStock) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                return new ResourceNotFoundException("Product", "id", entry.getKey()).getMessage();
+            }
+            int available = remainingStock.get(product.getId());
+            if (product.getStatus() != ProductStatus.ACTIVE || available < entry.getValue()) {
+                return String.format("Product '%s' is not available in requested quantity. Available: %d, Requested: %d",
+                        product.getName(), available, entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    private Order buildOrder(CreateOrderRequest request, User user, Map<Long, Product> products, String orderNumber) {
+        Order order = orderMapper.toEntity(request);
+        order.setUser(user);
+        order.setOrderNumber(orderNumber);
+        order.setOrderDate(LocalDateTime.now());
+
+        // Calculate total amount and create order items
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>();
+
+        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getOrderItems()) {
+            Product product = products.get(itemRequest.getProductId());
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(product);
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setUnitPrice(product.getPrice());
+            orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+
+            orderItems.add(orderItem);
+            totalAmount = totalAmount.add(orderItem.getTotalPrice());
+        }
+
+        order.setTotalAmount(totalAmount);
+        order.setOrderItems(orderItems);
+        order.setItemCount(orderItems.size());
+        order.setTotalUnits(orderItems.stream().mapToInt(OrderItem::getQuantity).sum());
+        return order;
+    }
+
+    private Map<Long, Integer> aggregateQuantities(List<CreateOrderRequest.OrderItemRequest> orderItems) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (CreateOrderRequest.OrderItemRequest item : orderItems) {
-            if (!productService.isProductInStock(item.getProductId(), item.getQuantity())) {
-                Product product = productService.findProductById(item.getProductId());
-                throw new BusinessException(
-                        String.format("Product '%s' is not available in requested quantity. Available: %d, Requested: %d",
-                                product.getName(), product.getStockQuantity(), item.getQuantity()));
+            if (item.getQuantity() <= 0) {
+                throw new BusinessException("Order item quantity must be greater than 0");
             }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
+        return quantities;
+    }
+
+    private void recordOrderCreated(Order order) {
+        outboxRecorder.record(OutboxEventType.ORDER_CREATED, order.getId(), new OutboxPayloads.OrderCreated(
+                order.getId(), order.getOrderNumber(), order.getUser().getId(), order.getStatus(), order.getTotalAmount()));
+    }
+
+    // One event per statement rather than per order, so bulk changes add a single outbox row
+    private void recordStatusChanged(List<Long> orderIds, Set<OrderStatus> fromStatuses, OrderStatus status) {
+        Long aggregateId = orderIds.size() == 1 ? orderIds.get(0) : null;
+        OrderStatus previousStatus = fromStatuses.size() == 1 ? fromStatuses.iterator().next() : null;
+        outboxRecorder.record(OutboxEventType.ORDER_STATUS_CHANGED, aggregateId,
+                new OutboxPayloads.OrderStatusChanged(List.copyOf(orderIds), previousStatus, status));
     }
 
     private void validateStatusTransition(OrderStatus from, OrderStatus to) {
-        // Define valid transitions
-        switch (from) {
-            case PENDING:
-                if (to != OrderStatus.CONFIRMED && to != OrderStatus.CANCELLED) {
-                    throw new BusinessException("Invalid status transition from PENDING to " + to);
-                }
-                break;
-            case CONFIRMED:
-                if (to != OrderStatus.PROCESSING && to != OrderStatus.CANCELLED) {
-                    throw new BusinessException("Invalid status transition from CONFIRMED to " + to);
-                }
-                break;
-            case PROCESSING:
-                if (to != OrderStatus.SHIPPED && to != OrderStatus.CANCELLED) {
-                    throw new BusinessException("Invalid status transition from PROCESSING to " + to);
-                }
-                break;
-            case SHIPPED:
-                if (to != OrderStatus.DELIVERED) {
-                    throw new BusinessException("Invalid status transition from SHIPPED to " + to);
-                }
-                break;
-            case DELIVERED:
-                if (to != OrderStatus.REFUNDED) {
-                    throw new BusinessException("Invalid status transition from DELIVERED to " + to);
-                }
-                break;
-            case CANCELLED:
-            case REFUNDED:
-                throw new BusinessException("Cannot change status from " + from);
-        }
-    }
-}
\ No newline at end of file
+        if (OrderStatusTransitions.isTerminal(from)) {
+            throw new BusinessException("Cannot change status from " + from);
+        }
+        if (!OrderStatusTransitions.isAllowed(from, to)) {
+            throw new BusinessException("Invalid status transition from " + from + " to " + to);
+        }
+    }
+}
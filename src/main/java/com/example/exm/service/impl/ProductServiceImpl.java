@@ -2,23 +2,53 @@ package com.example.exm.service.impl;
 
 import com.example.exm.dto.mapper.ProductMapper;
 import com.example.exm.dto.request.CreateProductRequest;
+import com.example.exm.dto.request.ProductFilterRequest;
+import com.example.exm.dto.response.CursorPage;
+import com.example.exm.dto.response.ProductFilterResponse;
 import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.dto.response.ProductSuggestionResponse;
+import com.example.exm.entity.OutboxEventType;
 import com.example.exm.entity.Product;
 import com.example.exm.entity.ProductStatus;
 import com.example.exm.exception.BusinessException;
 import com.example.exm.exception.ResourceNotFoundException;
+import com.example.exm.outbox.OutboxPayloads;
+import com.example.exm.outbox.OutboxRecorder;
 import com.example.exm.repository.ProductRepository;
+import com.example.exm.search.FacetCounts;
+import com.example.exm.search.FacetFilter;
+import com.example.exm.search.ProductSearchIndex;
+import com.example.exm.search.SearchHits;
 import com.example.exm.service.ProductService;
+import com.example.exm.specification.ProductSpecification;
 import com.example.exm.util.Constants;
+import com.example.exm.util.CursorKey;
+import com.example.exm.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,8 +57,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+    // Backed by the (name, id) and primary key indexes
+    private static final Map<String, CursorKey<ProductResponse>> CURSOR_KEYS = CursorKey.index(
+            CursorKey.of(Constants.SORT_BY_NAME, String.class, ProductResponse::getName, ProductResponse::getId),
+            CursorKey.id(ProductResponse::getId));
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final OutboxRecorder outboxRecorder;
+    private final ProductSearchIndex productSearchIndex;
 
     @Override
     public ProductResponse createProduct(CreateProductRequest request) {
@@ -36,6 +73,7 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = productMapper.toEntity(request);
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.recordProduct(savedProduct);
 
         log.info("Product created successfully with ID: {}", savedProduct.getId());
         return productMapper.toResponse(savedProduct);
@@ -57,6 +95,7 @@ public class ProductServiceImpl implements ProductService {
         product.setStatus(request.getStatus());
 
         Product updatedProduct = productRepository.save(product);
+        productSearchIndex.recordProduct(updatedProduct);
 
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
         return productMapper.toResponse(updatedProduct);
@@ -76,34 +115,116 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Product> findProductsByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(productMapper::toResponse);
+        return productRepository.findAllResponses(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> scrollProducts(String sortBy, Sort.Direction direction, String cursor, int size) {
+        CursorKey<ProductResponse> key = CursorKey.resolve(CURSOR_KEYS, sortBy);
+        KeysetCursor after = KeysetCursor.decode(cursor, key, direction);
+        return CursorPage.of(productRepository.findResponsesAfter(key.property(), direction, after, size + 1),
+                size, key, direction);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByStatus(ProductStatus status, Pageable pageable) {
-        return productRepository.findByStatus(status, pageable)
-                .map(productMapper::toResponse);
+        return productRepository.findResponsesByStatus(status, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByCategory(String category, Pageable pageable) {
-        return productRepository.findByCategory(category, pageable)
-                .map(productMapper::toResponse);
+        return productRepository.findResponsesByCategory(category, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> searchProductsByName(String name) {
-        return productRepository.findByNameContaining(name)
+    public Page<ProductResponse> searchProducts(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Search query must not be blank");
+        }
+        if (!productSearchIndex.isReady()) {
+            return productRepository.findResponsesByNameContaining(query.trim(), pageable);
+        }
+
+        SearchHits hits = productSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+        Map<Long, ProductResponse> responsesById = productRepository.findResponsesByIdIn(hits.ids())
                 .stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        // Keep the relevance order; ids removed from the table since the last rebuild are dropped
+        List<ProductResponse> content = hits.ids().stream()
+                .map(responsesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductSuggestionResponse> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        // Called on every keystroke: served from memory without a transaction or a connection
+        if (!productSearchIndex.isReady()) {
+            return productRepository.findSuggestionsByPrefix(prefix.strip().toLowerCase(Locale.ROOT),
+                    PageRequest.of(0, limit));
+        }
+        return productSearchIndex.suggest(prefix, limit)
+                .stream()
+                .map(suggestion -> new ProductSuggestionResponse(suggestion.productId(), suggestion.name()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFilterResponse filterProducts(ProductFilterRequest filter, Pageable pageable) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new BusinessException("Minimum price must not be greater than maximum price");
+        }
+
+        List<Specification<Product>> specifications = new ArrayList<>(List.of(
+                ProductSpecification.hasCategory(filter.getCategory()),
+                ProductSpecification.hasBrand(filter.getBrand()),
+                ProductSpecification.hasStatus(filter.getStatus()),
+                ProductSpecification.priceBetween(filter.getMinPrice(), filter.getMaxPrice())));
+        if (filter.isInStock()) {
+            specifications.add(ProductSpecification.isInStock());
+        }
+        Page<ProductResponse> products = productRepository.findAll(Specification.allOf(specifications), pageable)
+                .map(productMapper::toResponse);
+
+        ProductFilterResponse response = new ProductFilterResponse();
+        response.setProducts(products);
+        // Counted in memory: one GROUP BY per facet would scan the filtered products four more times
+        if (productSearchIndex.isReady()) {
+            FacetCounts counts = productSearchIndex.countFacets(new FacetFilter(filter.getCategory(),
+                    filter.getBrand(), filter.getStatus(), filter.getMinPrice(), filter.getMaxPrice(),
+                    filter.isInStock()));
+            response.setCategoryCounts(counts.categories());
+            response.setBrandCounts(counts.brands());
+            response.setStatusCounts(counts.statuses());
+            response.setPriceBucketCounts(counts.priceBuckets());
+            response.setFacetCountsAvailable(true);
+        }
+        return response;
     }
 
     @Override
@@ -131,6 +252,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = findProductById(id);
         product.setStatus(ProductStatus.DISCONTINUED);
         productRepository.save(product);
+        productSearchIndex.recordProduct(product);
 
         log.info("Product marked as discontinued with ID: {}", id);
     }
@@ -145,8 +267,12 @@ public class ProductServiceImpl implements ProductService {
             throw new BusinessException("Stock quantity cannot be negative");
         }
 
+        int delta = quantity - product.getStockQuantity();
         product.setStockQuantity(quantity);
         productRepository.save(product);
+        if (delta != 0) {
+            recordStockChanged(Map.of(id, delta));
+        }
 
         log.info("Stock updated successfully for product ID: {}", id);
     }
@@ -158,4 +284,131 @@ public class ProductServiceImpl implements ProductService {
         return product.getStockQuantity() >= requiredQuantity &&
                 product.getStatus() == ProductStatus.ACTIVE;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean decreaseStock(Long id, Integer quantity) {
+        log.info("Decreasing stock for product ID: {} by {}", id, quantity);
+        validateStockDelta(quantity);
+
+        boolean decreased = productRepository.decrementStockIfAvailable(id, quantity) == 1;
+
+        if (decreased) {
+            recordStockChanged(Map.of(id, -quantity));
+        } else {
+            log.info("Insufficient stock to decrease product ID: {} by {}", id, quantity);
+        }
+        return decreased;
+    }
+
+    @Override
+    public void increaseStock(Long id, Integer quantity) {
+        log.info("Increasing stock for product ID: {} by {}", id, quantity);
+        validateStockDelta(quantity);
+
+        if (productRepository.incrementStock(id, quantity) == 0) {
+            throw new ResourceNotFoundException("Product", "id", id);
+        }
+        recordStockChanged(Map.of(id, quantity));
+    }
+
+    @Override
+    public Set<Long> decreaseStocks(Map<Long, Integer> quantitiesByProductId) {
+        log.info("Decreasing stock for {} products", quantitiesByProductId.size());
+        quantitiesByProductId.values().forEach(this::validateStockDelta);
+
+        // The conditional decrement re-checks stock atomically, so a concurrent checkout can never oversell
+        SortedMap<Long, Integer> quantities = new TreeMap<>(quantitiesByProductId);
+        int[] updateCounts = productRepository.decrementStockIfAvailable(quantities);
+
+        Set<Long> failedProductIds = new LinkedHashSet<>();
+        Map<Long, Integer> deltas = new TreeMap<>();
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (!updated(updateCounts[index++], entry.getKey())) {
+                failedProductIds.add(entry.getKey());
+            } else {
+                deltas.put(entry.getKey(), -entry.getValue());
+            }
+        }
+        if (!deltas.isEmpty()) {
+            recordStockChanged(deltas);
+        }
+        return failedProductIds;
+    }
+
+    @Override
+    public void increaseStocks(Map<Long, Integer> quantitiesByProductId) {
+        log.info("Increasing stock for {} products", quantitiesByProductId.size());
+        quantitiesByProductId.values().forEach(this::validateStockDelta);
+
+        // Sorted so concurrent restores touch product rows in the same order as checkouts
+        SortedMap<Long, Integer> quantities = new TreeMap<>(quantitiesByProductId);
+        int[] updateCounts = productRepository.incrementStock(quantities);
+        int index = 0;
+        for (Long productId : quantities.keySet()) {
+            if (!updated(updateCounts[index++], productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+        }
+        recordStockChanged(quantities);
+    }
+
+    /**
+     * Whether the batched update changed the product's row. A driver may report {@link Statement#SUCCESS_NO_INFO}
+     * instead of a row count; that says nothing about the stock guard, so the transaction is failed rather than
+     * counting the row as updated.
+     */
+    private static boolean updated(int updateCount, Long productId) {
+        if (updateCount == 1) {
+            return true;
+        }
+        if (updateCount == 0) {
+            return false;
+        }
+        throw new IllegalStateException("Unverifiable update count " + updateCount + " for product " + productId);
+    }
+
+    @Override
+    public Map<Long, Product> reserveStock(Map<Long, Integer> quantitiesByProductId) {
+        log.info("Reserving stock for {} products", quantitiesByProductId.size());
+
+        Map<Long, Product> productsById = findProductsByIds(quantitiesByProductId.keySet());
+
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            Product product = productsById.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", entry.getKey());
+            }
+            if (product.getStatus() != ProductStatus.ACTIVE || product.getStockQuantity() < entry.getValue()) {
+                throw insufficientStock(product, entry.getValue());
+            }
+        }
+
+        Set<Long> failedProductIds = decreaseStocks(quantitiesByProductId);
+        if (!failedProductIds.isEmpty()) {
+            Long productId = failedProductIds.iterator().next();
+            throw insufficientStock(productsById.get(productId), quantitiesByProductId.get(productId));
+        }
+
+        log.info("Stock reserved successfully for products: {}", quantitiesByProductId.keySet());
+        return productsById;
+    }
+
+    private void recordStockChanged(Map<Long, Integer> deltas) {
+        Long aggregateId = deltas.size() == 1 ? deltas.keySet().iterator().next() : null;
+        outboxRecorder.record(OutboxEventType.STOCK_CHANGED, aggregateId, new OutboxPayloads.StockChanged(deltas));
+        productSearchIndex.recordStockChanged(deltas);
+    }
+
+    private void validateStockDelta(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new BusinessException("Stock change quantity must be greater than 0");
+        }
+    }
+
+    private BusinessException insufficientStock(Product product, Integer requested) {
+        return new BusinessException(
+                String.format("Product '%s' is not available in requested quantity. Available: %d, Requested: %d",
+                        product.getName(), product.getStockQuantity(), requested));
+    }
+}
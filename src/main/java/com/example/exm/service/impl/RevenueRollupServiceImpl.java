@@ -0,0 +1,166 @@
+package com.example.exm.service.impl;
+
+import com.example.exm.dto.response.RevenueDiscrepancy;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.RevenueDaily;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.RevenueDailyRepository;
+import com.example.exm.service.RevenueRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code revenue_daily}: revenue per order date of the orders that are CONFIRMED or DELIVERED.
+ * Transitions add or subtract the order total on its day, so a range query only scans raw orders for the
+ * partial days at either end.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    public static final Set<OrderStatus> REVENUE_STATUSES = EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.DELIVERED);
+
+    private static final Set<OrderStatus> NON_REVENUE_STATUSES = EnumSet.complementOf(EnumSet.copyOf(REVENUE_STATUSES));
+
+    private final RevenueDailyRepository revenueDailyRepository;
+    private final OrderRepository orderRepository;
+
+    /**
+     * Must run before the orders are moved, while they still carry their previous status.
+     */
+    @Override
+    public void recordStatusChanges(Collection<Long> orderIds, Set<OrderStatus> fromStatuses, OrderStatus status) {
+        boolean after = REVENUE_STATUSES.contains(status);
+        // Only orders crossing the revenue boundary change a day's total
+        Set<OrderStatus> crossing = EnumSet.copyOf(after ? NON_REVENUE_STATUSES : REVENUE_STATUSES);
+        crossing.retainAll(fromStatuses);
+        if (crossing.isEmpty() || orderIds.isEmpty()) {
+            return;
+        }
+
+        // Sorted so concurrent transitions update the same days in the same order
+        Map<LocalDate, DayTotal> totalsByDate = new TreeMap<>();
+        for (Object[] row : orderRepository.findRevenueByIdInAndStatusIn(orderIds, crossing)) {
+            LocalDate date = ((LocalDateTime) row[0]).toLocalDate();
+            totalsByDate.merge(date, new DayTotal((BigDecimal) row[1], 1), DayTotal::plus);
+        }
+        totalsByDate.forEach((date, total) -> revenueDailyRepository.addRevenue(date,
+                after ? total.revenue() : total.revenue().negate(),
+                after ? total.orderCount() : -total.orderCount()));
+    }
+
+    /**
+     * Whole days inside the range come from the rollup; the partial days at either end are summed from orders.
+     * The range is inclusive at both ends, like the raw query it replaces.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getRevenue(LocalDateTime startDate, LocalDateTime endDate) {
+        if (endDate.isBefore(startDate)) {
+            return BigDecimal.ZERO;
+        }
+
+        LocalDate firstFullDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate afterLastFullDay = endDate.toLocalTime().equals(LocalTime.MAX)
+                ? endDate.toLocalDate().plusDays(1)
+                : endDate.toLocalDate();
+
+        if (!firstFullDay.isBefore(afterLastFullDay)) {
+            return orderRepository.getTotalRevenueByDateRange(startDate, endDate);
+        }
+
+        BigDecimal revenue = revenueDailyRepository.sumRevenue(firstFullDay, afterLastFullDay);
+        if (startDate.isBefore(firstFullDay.atStartOfDay())) {
+            revenue = revenue.add(orderRepository.sumRevenue(startDate, firstFullDay.atStartOfDay(), REVENUE_STATUSES));
+        }
+        if (!endDate.isBefore(afterLastFullDay.atStartOfDay())) {
+            revenue = revenue.add(orderRepository.getTotalRevenueByDateRange(afterLastFullDay.atStartOfDay(), endDate));
+        }
+        return revenue;
+    }
+
+    /**
+     * Recomputes the rollup for {@code [fromDate, toDate)} from the orders table. Status changes committed while
+     * the rebuild runs may be missed, so run it when order traffic for those days has settled.
+     */
+    @Override
+    public int rebuild(LocalDate fromDate, LocalDate toDate) {
+        validateRange(fromDate, toDate);
+        log.info("Rebuilding daily revenue rollup for [{}, {})", fromDate, toDate);
+
+        revenueDailyRepository.deleteRange(fromDate, toDate);
+        int days = revenueDailyRepository.insertFromOrders(fromDate.atStartOfDay(), toDate.atStartOfDay(),
+                REVENUE_STATUSES);
+
+        log.info("Rebuilt daily revenue rollup for {} days in [{}, {})", days, fromDate, toDate);
+        return days;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueDiscrepancy> findDiscrepancies(LocalDate fromDate, LocalDate toDate) {
+        validateRange(fromDate, toDate);
+
+        Map<LocalDate, RevenueDaily> rollup = revenueDailyRepository
+                .findByRevenueDateGreaterThanEqualAndRevenueDateLessThanOrderByRevenueDate(fromDate, toDate)
+                .stream()
+                .collect(Collectors.toMap(RevenueDaily::getRevenueDate, Function.identity()));
+        Map<LocalDate, DayTotal> actual = new TreeMap<>();
+        for (Object[] row : orderRepository.sumRevenueByDay(fromDate.atStartOfDay(), toDate.atStartOfDay(), REVENUE_STATUSES)) {
+            actual.put((LocalDate) row[0], new DayTotal((BigDecimal) row[1], ((Number) row[2]).longValue()));
+        }
+
+        Set<LocalDate> dates = new TreeSet<>(rollup.keySet());
+        dates.addAll(actual.keySet());
+
+        List<RevenueDiscrepancy> discrepancies = new ArrayList<>();
+        for (LocalDate date : dates) {
+            RevenueDaily stored = rollup.get(date);
+            DayTotal expected = actual.getOrDefault(date, DayTotal.ZERO);
+            BigDecimal storedRevenue = stored == null ? BigDecimal.ZERO : stored.getRevenue();
+            long storedCount = stored == null ? 0 : stored.getOrderCount();
+            if (storedRevenue.compareTo(expected.revenue()) != 0 || storedCount != expected.orderCount()) {
+                discrepancies.add(new RevenueDiscrepancy(date, storedRevenue, expected.revenue(),
+                        storedCount, expected.orderCount()));
+            }
+        }
+        return discrepancies;
+    }
+
+    private void validateRange(LocalDate fromDate, LocalDate toDate) {
+        if (!fromDate.isBefore(toDate)) {
+            throw new BusinessException("Rollup range start must be before its end");
+        }
+    }
+
+    private record DayTotal(BigDecimal revenue, long orderCount) {
+
+        static final DayTotal ZERO = new DayTotal(BigDecimal.ZERO, 0);
+
+        DayTotal plus(DayTotal other) {
+            return new DayTotal(revenue.add(other.revenue), orderCount + other.orderCount);
+        }
+    }
+}
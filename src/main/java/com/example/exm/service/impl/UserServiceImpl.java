@@ -3,21 +3,45 @@ package com.example.exm.service.impl;
 import com.example.exm.dto.mapper.UserMapper;
 import com.example.exm.dto.request.CreateUserRequest;
 import com.example.exm.dto.request.UpdateUserRequest;
+import com.example.exm.dto.response.CursorPage;
 import com.example.exm.dto.response.UserResponse;
+import com.example.exm.entity.Order;
+import com.example.exm.entity.OrderStatus;
 import com.example.exm.entity.User;
 import com.example.exm.entity.UserStatus;
 import com.example.exm.exception.BusinessException;
 import com.example.exm.exception.ResourceNotFoundException;
+import com.example.exm.leaderboard.CustomerLeaderboard;
+import com.example.exm.leaderboard.CustomerRanking;
 import com.example.exm.repository.UserRepository;
+import com.example.exm.repository.custom.CustomUserRepository.OrderTotals;
+import com.example.exm.search.SearchHits;
+import com.example.exm.search.UserLookupIndex;
 import com.example.exm.service.UserService;
+import com.example.exm.util.Constants;
+import com.example.exm.util.CursorKey;
+import com.example.exm.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,8 +50,25 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    // Backed by the (created_at, id) and primary key indexes
+    private static final Map<String, CursorKey<UserResponse>> CURSOR_KEYS = CursorKey.index(
+            CursorKey.of(Constants.SORT_BY_CREATED_DATE, LocalDateTime.class, UserResponse::getCreatedAt, UserResponse::getId),
+            CursorKey.id(UserResponse::getId));
+
+    // Recently active users are always read newest first, backed by the (last_order_at, id) index
+    private static final CursorKey<UserResponse> LAST_ORDER_KEY =
+            CursorKey.of("lastOrderAt", LocalDateTime.class, UserResponse::getLastOrderAt, UserResponse::getId);
+
+    private static final Set<OrderStatus> ACTIVE_ORDER_STATUSES =
+            EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PROCESSING);
+
+    // Orders in these statuses no longer count towards a user's lifetime spend
+    private static final Set<OrderStatus> WITHDRAWN_ORDER_STATUSES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.REFUNDED);
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final CustomerLeaderboard customerLeaderboard;
+    private final UserLookupIndex userLookupIndex;
 
     @Override
     public UserResponse createUser(CreateUserRequest request) {
@@ -39,6 +80,7 @@ public class UserServiceImpl implements UserService {
 
         User user = userMapper.toEntity(request);
         User savedUser = userRepository.save(user);
+        userLookupIndex.recordUser(savedUser);
 
         log.info("User created successfully with ID: {}", savedUser.getId());
         return userMapper.toResponse(savedUser);
@@ -58,6 +100,7 @@ public class UserServiceImpl implements UserService {
 
         userMapper.updateEntity(user, request);
         User updatedUser = userRepository.save(user);
+        userLookupIndex.recordUser(updatedUser);
 
         log.info("User updated successfully with ID: {}", updatedUser.getId());
         return userMapper.toResponse(updatedUser);
@@ -77,6 +120,14 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, User> findUsersByIds(Collection<Long> ids) {
+        return userRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserResponse getUserByEmail(String email) {
@@ -92,6 +143,32 @@ public class UserServiceImpl implements UserService {
                 .map(userMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> scrollUsers(String sortBy, Sort.Direction direction, String cursor, int size) {
+        CursorKey<UserResponse> key = CursorKey.resolve(CURSOR_KEYS, sortBy);
+        KeysetCursor after = KeysetCursor.decode(cursor, key, direction);
+        List<UserResponse> rows = userRepository.findUsersAfter(key.property(), direction, after, size + 1)
+                .stream()
+                .map(userMapper::toResponse)
+                .collect(Collectors.toList());
+        return CursorPage.of(rows, size, key, direction);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> scrollRecentlyActiveUsers(int days, String cursor, int size) {
+        if (days < 1) {
+            throw new BusinessException("days must be at least 1");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor, LAST_ORDER_KEY, Sort.Direction.DESC);
+        List<UserResponse> rows = userRepository.findUsersOrderedSince(LocalDateTime.now().minusDays(days), after, size + 1)
+                .stream()
+                .map(userMapper::toResponse)
+                .collect(Collectors.toList());
+        return CursorPage.of(rows, size, LAST_ORDER_KEY, Sort.Direction.DESC);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<UserResponse> getUsersByStatus(UserStatus status, Pageable pageable) {
@@ -108,6 +185,32 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserResponse> lookupUsers(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Lookup query must not be blank");
+        }
+        if (!userLookupIndex.isReady()) {
+            return userRepository.findByLookupFragment(query.strip().toLowerCase(Locale.ROOT), pageable)
+                    .map(userMapper::toResponse);
+        }
+
+        SearchHits hits = userLookupIndex.lookup(query, pageable.getOffset(), pageable.getPageSize());
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+        Map<Long, User> usersById = userRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // Keep the relevance order; ids removed from the table since the last rebuild are dropped
+        List<UserResponse> content = hits.ids().stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(userMapper::toResponse)
+                .toList();
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
     @Override
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
@@ -136,10 +239,87 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserResponse> getTopCustomers(int limit) {
-        return userRepository.findTopCustomersByOrderCount(limit)
-                .stream()
+    public Page<UserResponse> getUsersWithActiveOrders(Pageable pageable) {
+        return userRepository.findWithActiveOrders(pageable).map(userMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasActiveOrders(Long userId) {
+        return userRepository.findActiveOrderCountById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId)) > 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> getTopCustomers(int limit, CustomerRanking ranking) {
+        if (!customerLeaderboard.isReady()) {
+            List<User> users = ranking == CustomerRanking.SPEND
+                    ? userRepository.findTopCustomersBySpend(limit)
+                    : userRepository.findTopCustomersByOrderCount(limit);
+            // Like the leaderboard, only users who ordered are ranked
+            return users.stream()
+                    .filter(user -> user.getOrderCount() > 0)
+                    .map(userMapper::toResponse)
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> userIds = customerLeaderboard.topUserIds(ranking, limit);
+        Map<Long, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
                 .map(userMapper::toResponse)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    @Override
+    public void recordOrdersPlaced(Collection<Order> orders) {
+        // Sorted so concurrent batches touching the same users lock their rows in the same order
+        SortedMap<Long, OrderTotals> totalsByUserId = new TreeMap<>();
+        for (Order order : orders) {
+            totalsByUserId.merge(order.getUser().getId(),
+                    new OrderTotals(1, order.getTotalAmount(), ACTIVE_ORDER_STATUSES.contains(order.getStatus()) ? 1 : 0,
+                            order.getOrderDate()),
+                    OrderTotals::plus);
+        }
+        if (!totalsByUserId.isEmpty()) {
+            userRepository.addOrderTotals(totalsByUserId);
+            customerLeaderboard.recordDeltas(totalsByUserId);
+        }
+    }
+
+    /**
+     * Adjusts active order counts and lifetime spend for orders about to move from one of {@code fromStatuses}
+     * to {@code status}. Must run before the status is written.
+     */
+    @Override
+    public void recordStatusChanges(Collection<Long> orderIds, Set<OrderStatus> fromStatuses, OrderStatus status) {
+        boolean toActive = ACTIVE_ORDER_STATUSES.contains(status);
+        boolean toWithdrawn = WITHDRAWN_ORDER_STATUSES.contains(status);
+        boolean changesTotals = fromStatuses.stream().anyMatch(from ->
+                ACTIVE_ORDER_STATUSES.contains(from) != toActive || (toWithdrawn && !WITHDRAWN_ORDER_STATUSES.contains(from)));
+        if (orderIds.isEmpty() || !changesTotals) {
+            return;
+        }
+
+        SortedMap<Long, OrderTotals> deltasByUserId = new TreeMap<>();
+        for (Object[] row : userRepository.summarizeOrdersByUser(
+                orderIds, fromStatuses, ACTIVE_ORDER_STATUSES, WITHDRAWN_ORDER_STATUSES)) {
+            int orders = ((Number) row[1]).intValue();
+            int activeOrders = ((Number) row[2]).intValue();
+            BigDecimal spend = row[3] == null ? BigDecimal.ZERO : new BigDecimal(row[3].toString());
+
+            int activeDelta = toActive ? orders - activeOrders : -activeOrders;
+            BigDecimal spendDelta = toWithdrawn ? spend.negate() : BigDecimal.ZERO;
+            if (activeDelta != 0 || spendDelta.signum() != 0) {
+                deltasByUserId.put((Long) row[0], new OrderTotals(0, spendDelta, activeDelta, null));
+            }
+        }
+        if (!deltasByUserId.isEmpty()) {
+            userRepository.addOrderTotals(deltasByUserId);
+            customerLeaderboard.recordDeltas(deltasByUserId);
+        }
+    }
+}
@@ -6,6 +6,14 @@ public class Constants {
     public static final int MAX_PAGE_SIZE = 100;
     public static final int LOW_STOCK_THRESHOLD = 10;
 
+    public static final int MAX_ORDER_BATCH_SIZE = 1000;
+    public static final int ORDER_BATCH_CHUNK_SIZE = 100;
+    public static final int BULK_UPDATE_CHUNK_SIZE = 500;
+    public static final int ORDER_FETCH_CHUNK_SIZE = 500;
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENCY_KEY_PARAM = "idempotencyKey";
+
     public static final String SORT_BY_CREATED_DATE = "createdAt";
     public static final String SORT_BY_UPDATED_DATE = "updatedAt";
     public static final String SORT_BY_NAME = "name";
@@ -0,0 +1,56 @@
+package com.example.exm.util;
+
+import com.example.exm.exception.BusinessException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A sort key that cursor pagination accepts for a listing. Only register keys backed by a {@code (key, id)}
+ * index, otherwise the seek predicate degrades into a scan. The id is always the tie-breaker.
+ */
+public record CursorKey<T>(String property, Class<?> type, Function<T, ?> value, Function<T, Long> id) {
+
+    public static final String ID = "id";
+
+    public static <T> CursorKey<T> of(String property, Class<?> type, Function<T, ?> value, Function<T, Long> id) {
+        return new CursorKey<>(property, type, value, id);
+    }
+
+    public static <T> CursorKey<T> id(Function<T, Long> id) {
+        return new CursorKey<>(ID, Long.class, id, id);
+    }
+
+    @SafeVarargs
+    public static <T> Map<String, CursorKey<T>> index(CursorKey<T>... keys) {
+        Map<String, CursorKey<T>> index = new LinkedHashMap<>();
+        Arrays.stream(keys).forEach(key -> index.put(key.property(), key));
+        return Collections.unmodifiableMap(index);
+    }
+
+    public static <T> CursorKey<T> resolve(Map<String, CursorKey<T>> keys, String sortBy) {
+        CursorKey<T> key = keys.get(sortBy);
+        if (key == null) {
+            throw new BusinessException("Cursor pagination can only sort by " + String.join(", ", keys.keySet()));
+        }
+        return key;
+    }
+
+    public boolean isId() {
+        return ID.equals(property);
+    }
+
+    Object parse(String raw) {
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(raw);
+        }
+        if (type == Long.class) {
+            return Long.valueOf(raw);
+        }
+        return raw;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.exm.util;
+
+import com.example.exm.exception.BusinessException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row a client has seen: its sort key value and id. Travels as an opaque URL-safe
+ * token that also carries the sort it was issued for, so it cannot be replayed against a different order.
+ */
+public record KeysetCursor(Object value, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static <T> String encode(T last, CursorKey<T> key, Sort.Direction direction) {
+        String raw = key.property() + SEPARATOR + direction + SEPARATOR + key.id().apply(last)
+                + SEPARATOR + key.value().apply(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns {@code null} for a missing token, i.e. the first page.
+     */
+    public static KeysetCursor decode(String token, CursorKey<?> key, Sort.Direction direction) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last so it may itself contain the separator
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4 || !parts[0].equals(key.property()) || !parts[1].equals(direction.name())) {
+                throw new BusinessException("Cursor does not match the requested sort");
+            }
+            return new KeysetCursor(key.parse(parts[3]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+}
@@ -1,20 +1,120 @@
 package com.example.exm.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Snowflake-style order numbers: {@code ORD} + {@code yyyyMMddHHmmss} + millis (3) + node id (3) + sequence (4),
+ * e.g. {@code ORD202501311245301230070042}. Numbers are unique per node without locking and unique across
+ * nodes as long as every node is configured with its own {@code app.order.node-id}.
+ * <p>
+ * The timestamp is rendered in UTC whatever the clock's zone: local time repeats an hour when daylight saving
+ * time ends, and numbers issued in the two passes through that hour would collide.
+ */
 @Component
 public class OrderNumberGenerator {
 
     private static final String PREFIX = "ORD";
-    private static final Random random = new Random();
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final int MAX_NODE_ID = 999;
+
+    private static final int TIMESTAMP_END = PREFIX.length() + 14;
+    private static final int LENGTH = TIMESTAMP_END + 3 + 3 + 4;
+
+    private final int nodeId;
+    private final Clock clock;
+
+    // Last issued logical millisecond in the high bits, sequence within that millisecond in the low bits
+    private final AtomicLong state = new AtomicLong();
+
+    private volatile SecondPrefix secondPrefix = new SecondPrefix(Long.MIN_VALUE, new char[0]);
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${app.order.node-id:0}") int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    OrderNumberGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
 
     public String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomSuffix = String.format("%03d", random.nextInt(1000));
-        return PREFIX + timestamp + randomSuffix;
+        long next = nextState();
+        return render(next >>> SEQUENCE_BITS, (int) (next & MAX_SEQUENCE));
+    }
+
+    private long nextState() {
+        while (true) {
+            long current = state.get();
+            long lastMillis = current >>> SEQUENCE_BITS;
+            long now = clock.millis();
+
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & MAX_SEQUENCE) < MAX_SEQUENCE) {
+                // Same millisecond, or the clock moved backwards: keep counting on the last logical millisecond
+                next = current + 1;
+            } else {
+                // Sequence exhausted: borrow the next millisecond instead of spinning until the clock catches up
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private String render(long millis, int sequence) {
+        long epochSecond = Math.floorDiv(millis, 1000L);
+        SecondPrefix prefix = secondPrefix;
+        if (prefix.epochSecond != epochSecond) {
+            prefix = SecondPrefix.of(epochSecond);
+            secondPrefix = prefix;
+        }
+
+        char[] chars = new char[LENGTH];
+        System.arraycopy(prefix.chars, 0, chars, 0, TIMESTAMP_END);
+        writeDigits(chars, TIMESTAMP_END, 3, Math.floorMod(millis, 1000L));
+        writeDigits(chars, TIMESTAMP_END + 3, 3, nodeId);
+        writeDigits(chars, TIMESTAMP_END + 6, 4, sequence);
+        return new String(chars);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int width, long value) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private record SecondPrefix(long epochSecond, char[] chars) {
+
+        static SecondPrefix of(long epochSecond) {
+            LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+
+            char[] chars = new char[TIMESTAMP_END];
+            PREFIX.getChars(0, PREFIX.length(), chars, 0);
+            int offset = PREFIX.length();
+            writeDigits(chars, offset, 4, time.getYear());
+            writeDigits(chars, offset + 4, 2, time.getMonthValue());
+            writeDigits(chars, offset + 6, 2, time.getDayOfMonth());
+            writeDigits(chars, offset + 8, 2, time.getHour());
+            writeDigits(chars, offset + 10, 2, time.getMinute());
+            writeDigits(chars, offset + 12, 2, time.getSecond());
+            return new SecondPrefix(epochSecond, chars);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.example.exm.util;
+
+import com.example.exm.entity.OrderStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed order status transitions. Each row is an {@link EnumSet} (a bit vector over the enum), and the reverse
+ * table gives the statuses an order may be in before moving to a target status, which bulk updates use directly
+ * as their {@code status IN (...)} guard.
+ */
+public final class OrderStatusTransitions {
+
+    private static final Map<OrderStatus, Set<OrderStatus>> SUCCESSORS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> PREDECESSORS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allow(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+        allow(OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.CANCELLED);
+        allow(OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+        allow(OrderStatus.DELIVERED, OrderStatus.REFUNDED);
+        allow(OrderStatus.CANCELLED);
+        allow(OrderStatus.REFUNDED);
+
+        for (OrderStatus to : OrderStatus.values()) {
+            EnumSet<OrderStatus> predecessors = EnumSet.noneOf(OrderStatus.class);
+            SUCCESSORS.forEach((from, successors) -> {
+                if (successors.contains(to)) {
+                    predecessors.add(from);
+                }
+            });
+            PREDECESSORS.put(to, Collections.unmodifiableSet(predecessors));
+        }
+    }
+
+    private OrderStatusTransitions() {
+    }
+
+    public static boolean isAllowed(OrderStatus from, OrderStatus to) {
+        return SUCCESSORS.get(from).contains(to);
+    }
+
+    public static boolean isTerminal(OrderStatus status) {
+        return SUCCESSORS.get(status).isEmpty();
+    }
+
+    public static Set<OrderStatus> predecessorsOf(OrderStatus to) {
+        return PREDECESSORS.get(to);
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... to) {
+        EnumSet<OrderStatus> successors = EnumSet.noneOf(OrderStatus.class);
+        Collections.addAll(successors, to);
+        SUCCESSORS.put(from, Collections.unmodifiableSet(successors));
+    }
+}
@@ -0,0 +1,13 @@
+-- Daily revenue rollup of CONFIRMED and DELIVERED orders, maintained on status transitions
+CREATE TABLE revenue_daily
+(
+    revenue_date DATE PRIMARY KEY,
+    revenue      DECIMAL(16, 2) NOT NULL,
+    order_count  BIGINT         NOT NULL
+);
+
+INSERT INTO revenue_daily (revenue_date, revenue, order_count)
+SELECT CAST(order_date AS DATE), SUM(total_amount), COUNT(*)
+FROM orders
+WHERE status IN ('CONFIRMED', 'DELIVERED')
+GROUP BY CAST(order_date AS DATE);
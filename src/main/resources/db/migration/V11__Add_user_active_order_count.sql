@@ -0,0 +1,13 @@
+-- Number of the user's orders in PENDING, CONFIRMED or PROCESSING, kept current by order status transitions
+ALTER TABLE users ADD COLUMN active_order_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET active_order_count = active.order_count
+FROM (SELECT user_id, COUNT(*) AS order_count
+      FROM orders
+      WHERE status IN ('PENDING', 'CONFIRMED', 'PROCESSING')
+      GROUP BY user_id) active
+WHERE active.user_id = u.id;
+
+-- Only users with active orders are indexed, so the index stays small and a page of them is an index range scan
+CREATE INDEX idx_users_active_orders ON users (id) WHERE active_order_count > 0;
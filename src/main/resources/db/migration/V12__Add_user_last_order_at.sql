@@ -0,0 +1,12 @@
+-- Order date of each user's latest order, so recent activity is a range scan over users instead of a join
+ALTER TABLE users ADD COLUMN last_order_at TIMESTAMP;
+
+UPDATE users u
+SET last_order_at = latest.last_order_at
+FROM (SELECT user_id, MAX(order_date) AS last_order_at
+      FROM orders
+      GROUP BY user_id) latest
+WHERE latest.user_id = u.id;
+
+-- Serves last_order_at >= ? ORDER BY last_order_at DESC, id DESC and its keyset seek, scanned backwards
+CREATE INDEX idx_users_last_order_at_id ON users (last_order_at, id);
@@ -0,0 +1,14 @@
+-- Line count and unit total per order, so filtering on the number of items no longer counts order_items per row
+ALTER TABLE orders ADD COLUMN item_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN total_units INTEGER NOT NULL DEFAULT 0;
+
+UPDATE orders o
+SET item_count  = items.item_count,
+    total_units = items.total_units
+FROM (SELECT order_id, COUNT(*) AS item_count, SUM(quantity) AS total_units
+      FROM order_items
+      GROUP BY order_id) items
+WHERE items.order_id = o.id;
+
+-- Serves item_count >= ? ORDER BY item_count DESC, id DESC, scanned backwards
+CREATE INDEX idx_orders_item_count_id ON orders (item_count, id);
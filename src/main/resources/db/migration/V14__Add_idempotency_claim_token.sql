@@ -0,0 +1,2 @@
+-- Identifies the request holding an in-progress key, so only that request can complete or release it
+ALTER TABLE idempotency_keys ADD COLUMN claim_token VARCHAR(36);
@@ -0,0 +1,18 @@
+-- Sequence-backed ids with pooled-lo allocation: each nextval reserves a block of 50 ids,
+-- which lets Hibernate batch inserts. Sequences start right after the current max ids.
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('products_seq', COALESCE((SELECT MAX(id) FROM products), 0) + 1, false);
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 1, false);
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, false);
+
+-- Plain SQL inserts draw from the same sequences; every nextval starts a fresh block,
+-- so they can never collide with ids Hibernate has already reserved.
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_seq');
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
@@ -0,0 +1,11 @@
+-- Backing table for app.idempotency.store=jdbc (multi-node idempotency key deduplication)
+CREATE TABLE idempotency_keys
+(
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash    VARCHAR(64) NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    response        TEXT,
+    expires_at      TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,12 @@
+-- Transactional outbox: events are inserted with the change they describe and deleted once relayed
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
+
+CREATE TABLE outbox_events
+(
+    id             BIGINT PRIMARY KEY DEFAULT nextval('outbox_events_seq'),
+    event_type     VARCHAR(50) NOT NULL,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id   BIGINT,
+    payload        TEXT        NOT NULL,
+    created_at     TIMESTAMP   NOT NULL
+);
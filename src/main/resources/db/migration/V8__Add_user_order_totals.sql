@@ -0,0 +1,13 @@
+-- Per-user order aggregates served by the user endpoints instead of loading every order
+ALTER TABLE users ADD COLUMN order_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN lifetime_spend DECIMAL(14, 2) NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET order_count    = totals.order_count,
+    lifetime_spend = totals.lifetime_spend
+FROM (SELECT user_id,
+             COUNT(*) AS order_count,
+             COALESCE(SUM(total_amount) FILTER (WHERE status NOT IN ('CANCELLED', 'REFUNDED')), 0) AS lifetime_spend
+      FROM orders
+      GROUP BY user_id) totals
+WHERE totals.user_id = u.id;
@@ -0,0 +1,4 @@
+-- Composite (sort key, id) indexes backing cursor pagination; the seek predicate and ORDER BY use both columns
+CREATE INDEX idx_orders_order_date_id ON orders (order_date, id);
+CREATE INDEX idx_products_name_id ON products (name, id);
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
@@ -0,0 +1,81 @@
+package com.example.exm.analytics;
+
+import com.example.exm.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregationTaskTest {
+
+    // Enough lines for the task to split into several leaves
+    private static final int ORDERS = 50_000;
+    private static final int LINES_PER_ORDER = 3;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void compute_ParallelScanMatchesSequentialTotals() {
+        // Given
+        OrderLineColumns columns = populate();
+        boolean[] statusMask = new boolean[OrderStatus.values().length];
+        statusMask[OrderStatus.CONFIRMED.ordinal()] = true;
+        statusMask[OrderStatus.DELIVERED.ordinal()] = true;
+        int fromDay = (int) FIRST_DAY.plusDays(30).toEpochDay();
+        int toDay = (int) FIRST_DAY.plusDays(200).toEpochDay();
+
+        // When
+        Map<Integer, long[]> parallel = ForkJoinPool.commonPool().invoke(
+                new AggregationTask(columns, GroupBy.CATEGORY, fromDay, toDay, statusMask, 0, columns.size));
+
+        // Then
+        Map<Integer, long[]> expected = new HashMap<>();
+        for (int row = 0; row < columns.size; row++) {
+            if (columns.epochDays[row] >= fromDay && columns.epochDays[row] <= toDay && statusMask[columns.statuses[row]]) {
+                long[] totals = expected.computeIfAbsent(columns.categoryCodes[row], key -> new long[3]);
+                totals[AggregationTask.CENTS] += columns.cents[row];
+                totals[AggregationTask.UNITS] += columns.units[row];
+                totals[AggregationTask.LINES]++;
+            }
+        }
+        assertEquals(expected.keySet(), parallel.keySet());
+        expected.forEach((code, totals) -> assertArrayEquals(totals, parallel.get(code)));
+    }
+
+    @Test
+    void setStatus_UpdatesEveryLineOfTheOrder() {
+        // Given
+        OrderLineColumns columns = new OrderLineColumns(16);
+        columns.append(7, FIRST_DAY, OrderStatus.PENDING, "Books", "Penguin", 0, 1, 1250);
+        columns.append(7, FIRST_DAY, OrderStatus.PENDING, "Home", null, 0, 2, 6000);
+        columns.append(8, FIRST_DAY, OrderStatus.PENDING, "Home", null, 0, 1, 3000);
+
+        // When
+        columns.setStatus(7, OrderStatus.SHIPPED);
+
+        // Then
+        assertArrayEquals(new byte[]{(byte) OrderStatus.SHIPPED.ordinal(), (byte) OrderStatus.SHIPPED.ordinal(),
+                (byte) OrderStatus.PENDING.ordinal()}, Arrays.copyOf(columns.statuses, 3));
+        assertTrue(columns.containsOrder(8));
+        assertFalse(columns.containsOrder(9));
+        assertEquals(StringDictionary.NONE, columns.brands.decode(columns.brandCodes[1]));
+    }
+
+    private static OrderLineColumns populate() {
+        OrderLineColumns columns = new OrderLineColumns(1024);
+        OrderStatus[] statuses = OrderStatus.values();
+        for (int order = 1; order <= ORDERS; order++) {
+            LocalDate day = FIRST_DAY.plusDays(order % 365);
+            OrderStatus status = statuses[order % statuses.length];
+            for (int line = 0; line < LINES_PER_ORDER; line++) {
+                columns.append(order, day, status, "Category " + (order + line) % 40, "Brand " + line,
+                        order % 24, 1 + line, 999L * (line + 1));
+            }
+        }
+        return columns;
+    }
+}
@@ -323,7 +323,7 @@ class OrderControllerTest {
         @DisplayName("GET /api/orders/multiple-items - Should return orders with multiple items")
         void getOrdersWithMultipleItems_Success() throws Exception {
             // Given
-            when(orderService.getOrdersWithMultipleItems(2)).thenReturn(orderList);
+            when(orderService.getOrdersWithMultipleItems(eq(2), any(Pageable.class))).thenReturn(orderPage);
 
             // When & Then
             mockMvc.perform(get("/api/orders/multiple-items")
@@ -331,9 +331,9 @@ class OrderControllerTest {
                     .andDo(print())
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
-                    .andExpect(jsonPath("$.data", hasSize(2)));
+                    .andExpect(jsonPath("$.data.content", hasSize(2)));
 
-            verify(orderService).getOrdersWithMultipleItems(2);
+            verify(orderService).getOrdersWithMultipleItems(eq(2), any(Pageable.class));
         }
 
         @Test
@@ -0,0 +1,172 @@
+package com.example.exm.idempotency;
+
+import com.example.exm.exception.BusinessException;
+import com.example.exm.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(
+            new ObjectMapper(), Duration.ofMinutes(10), 3, Duration.ofSeconds(5), clock);
+
+    @Test
+    void execute_RepeatedKey_ReplaysFirstResponse() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String first = store.execute("key-1", Map.of("order", 1), String.class, () -> "order-" + calls.incrementAndGet());
+        String second = store.execute("key-1", Map.of("order", 1), String.class, () -> "order-" + calls.incrementAndGet());
+
+        // Then
+        assertEquals("order-1", first);
+        assertEquals("order-1", second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_ThrowsIdempotencyConflictException() {
+        // Given
+        store.execute("key-1", Map.of("order", 1), String.class, () -> "order-1");
+
+        // When & Then
+        assertThrows(IdempotencyConflictException.class,
+                () -> store.execute("key-1", Map.of("order", 2), String.class, () -> "order-2"));
+    }
+
+    @Test
+    void execute_FailedRequest_IsNotRemembered() {
+        // Given
+        assertThrows(BusinessException.class, () -> store.execute("key-1", "request", String.class, () -> {
+            throw new BusinessException("Insufficient stock");
+        }));
+
+        // When
+        String retried = store.execute("key-1", "request", String.class, () -> "order-1");
+
+        // Then
+        assertEquals("order-1", retried);
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_WaitForFirstRequest() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        Future<String> first = executor.submit(() -> store.execute("key-1", "request", String.class, () -> {
+            firstStarted.countDown();
+            await(release);
+            return "order-" + calls.incrementAndGet();
+        }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        List<Future<String>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            duplicates.add(executor.submit(() -> store.execute("key-1", "request", String.class,
+                    () -> "order-" + calls.incrementAndGet())));
+        }
+        release.countDown();
+
+        // Then
+        assertEquals("order-1", first.get(5, TimeUnit.SECONDS));
+        for (Future<String> duplicate : duplicates) {
+            assertEquals("order-1", duplicate.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ExpiredKey_RunsAgain() {
+        // Given
+        store.execute("key-1", "request", String.class, () -> "order-1");
+
+        // When
+        clock.advance(Duration.ofMinutes(11));
+        String afterExpiry = store.execute("key-1", "request", String.class, () -> "order-2");
+
+        // Then
+        assertEquals("order-2", afterExpiry);
+    }
+
+    @Test
+    void execute_BeyondCapacity_EvictsOldestCompletedEntries() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            int order = i;
+            store.execute("key-" + i, "request", String.class, () -> "order-" + order);
+        }
+
+        // Then
+        assertEquals(3, store.size());
+        assertEquals("order-9", store.execute("key-9", "request", String.class, () -> "replaced"));
+        assertEquals("new", store.execute("key-0", "request", String.class, () -> "new"));
+    }
+
+    @Test
+    void execute_BlankKey_ThrowsBusinessException() {
+        // When & Then
+        assertThrows(BusinessException.class, () -> store.execute(" ", "request", String.class, () -> "order"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(1_000_000L);
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+    }
+}
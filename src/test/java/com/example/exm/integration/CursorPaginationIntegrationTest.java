@@ -0,0 +1,224 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.CursorPage;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.dto.response.UserResponse;
+import com.example.exm.entity.Order;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.example.exm.service.ProductService;
+import com.example.exm.service.UserService;
+import com.example.exm.util.JdbcStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks every listing end to end with continuation cursors, including rows that tie on the sort key.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcStatementCounter.class)
+class CursorPaginationIntegrationTest {
+
+    private static final int ROWS = 23;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+    private final List<User> users = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        for (int i = 0; i < ROWS; i++) {
+            User user = new User();
+            user.setFirstName("Scroll");
+            user.setLastName("User " + i);
+            user.setEmail("scroll" + i + "@example.com");
+            user.setStatus(UserStatus.ACTIVE);
+            users.add(userRepository.save(user));
+
+            Product product = new Product();
+            // Only a handful of distinct names, so most rows tie on the sort key
+            product.setName("Scroll Product " + (i % 4));
+            product.setPrice(new BigDecimal("3.00"));
+            product.setStockQuantity(100);
+            product.setStatus(ProductStatus.ACTIVE);
+            products.add(productRepository.save(product));
+        }
+        for (int i = 0; i < ROWS; i++) {
+            orderService.createOrder(order(users.get(i).getId(), products.get(i).getId()));
+        }
+
+        // Give some orders the same order date to exercise the id tie-breaker
+        LocalDateTime tied = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<Order> orders = orderRepository.findAll();
+        for (int i = 0; i < orders.size(); i += 2) {
+            orders.get(i).setOrderDate(tied);
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        users.clear();
+        products.clear();
+    }
+
+    @Test
+    void scrollOrders_VisitsEveryOrderOnceInSortOrder() {
+        List<OrderResponse> seen = scroll(cursor -> orderService.scrollOrders(
+                "orderDate", Sort.Direction.DESC, cursor, PAGE_SIZE));
+
+        assertThat(seen).extracting(OrderResponse::getId).doesNotHaveDuplicates().hasSize(ROWS);
+        assertThat(seen).isSortedAccordingTo(Comparator.comparing(OrderResponse::getOrderDate)
+                .thenComparing(OrderResponse::getId).reversed());
+    }
+
+    @Test
+    void scrollProducts_TiesOnNameAreBrokenById() {
+        List<ProductResponse> seen = scroll(cursor -> productService.scrollProducts(
+                "name", Sort.Direction.ASC, cursor, PAGE_SIZE));
+
+        assertThat(seen).extracting(ProductResponse::getId).doesNotHaveDuplicates().hasSize(ROWS);
+        assertThat(seen).isSortedAccordingTo(Comparator.comparing(ProductResponse::getName)
+                .thenComparing(ProductResponse::getId));
+    }
+
+    @Test
+    void scrollUsers_ById() {
+        List<UserResponse> seen = scroll(cursor -> userService.scrollUsers("id", Sort.Direction.DESC, cursor, PAGE_SIZE));
+
+        assertThat(seen).extracting(UserResponse::getId)
+                .containsExactlyElementsOf(users.stream().map(User::getId).sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    void scrollOrders_SkipsTheCountQuery() {
+        CursorPage<OrderResponse> first = orderService.scrollOrders("orderDate", Sort.Direction.DESC, null, PAGE_SIZE);
+
+        JdbcStatementCounter.reset();
+        orderService.scrollOrders("orderDate", Sort.Direction.DESC, first.getNextCursor(), PAGE_SIZE);
+
+        // One seek over ids and one fetch of the orders with their details
+        assertThat(JdbcStatementCounter.getRoundTrips()).isEqualTo(2);
+    }
+
+    @Test
+    void scroll_SeeksPastTheCursorWithARowValueComparison() {
+        String orderCursor = orderService.scrollOrders("orderDate", Sort.Direction.DESC, null, PAGE_SIZE).getNextCursor();
+        String productCursor = productService.scrollProducts("name", Sort.Direction.ASC, null, PAGE_SIZE).getNextCursor();
+
+        JdbcStatementCounter.reset();
+        orderService.scrollOrders("orderDate", Sort.Direction.DESC, orderCursor, PAGE_SIZE);
+        productService.scrollProducts("name", Sort.Direction.ASC, productCursor, PAGE_SIZE);
+
+        // (key, id) < (?, ?) is one start bound on the (key, id) index; an OR of comparisons is not
+        List<String> seeks = JdbcStatementCounter.getPreparedSql().stream()
+                .map(sql -> sql.replaceAll("\\s+", "").toLowerCase())
+                .filter(sql -> sql.contains("orderby"))
+                .toList();
+        assertThat(seeks).anyMatch(sql -> sql.matches(".*\\(\\w+\\.order_date,\\w+\\.id\\)<\\(\\?,\\?\\).*"));
+        assertThat(seeks).anyMatch(sql -> sql.matches(".*\\(\\w+\\.name,\\w+\\.id\\)>\\(\\?,\\?\\).*"));
+        assertThat(seeks).noneMatch(sql -> sql.contains("?or("));
+    }
+
+    @Test
+    void scrollEndpoints_RejectUnindexedSortKeysAndForeignCursors() throws Exception {
+        mockMvc.perform(get("/api/products/scroll").param("sortBy", "price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor pagination can only sort by name, id"));
+
+        String productCursor = productService.scrollProducts("name", Sort.Direction.ASC, null, PAGE_SIZE).getNextCursor();
+        mockMvc.perform(get("/api/orders/scroll").param("cursor", productCursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/scroll").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/users/scroll").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(3))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").isNotEmpty());
+    }
+
+    private <T> List<T> scroll(Function<String, CursorPage<T>> nextPage) {
+        List<T> seen = new ArrayList<>();
+        String cursor = null;
+        CursorPage<T> page;
+        do {
+            page = nextPage.apply(cursor);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+        assertThat(cursor).isNull();
+        return seen;
+    }
+
+    private CreateOrderRequest order(Long userId, Long productId) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(1);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(userId);
+        request.setShippingAddress("1 Cursor Court");
+        request.setOrderItems(new ArrayList<>(List.of(item)));
+        return request;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.UserResponse;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.leaderboard.CustomerLeaderboard;
+import com.example.exm.leaderboard.CustomerRanking;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.example.exm.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The in-memory leaderboard must rank customers exactly like the counters on the user rows, whether it got
+ * there through order deltas or a rebuild.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerLeaderboardIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private CustomerLeaderboard customerLeaderboard;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+    private Product product;
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        product = new Product();
+        product.setName("Leaderboard Product");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1_000);
+        product.setStatus(ProductStatus.ACTIVE);
+        product = productRepository.save(product);
+
+        alice = createUser("alice");
+        bob = createUser("bob");
+        carol = createUser("carol");
+        createUser("dave");
+        customerLeaderboard.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        customerLeaderboard.rebuild();
+    }
+
+    @Test
+    void getTopCustomers_RanksByOrdersOrSpendAsOrdersArePlacedAndCancelled() {
+        orderService.createOrder(order(alice, 1));
+        orderService.createOrder(order(alice, 1));
+        orderService.createOrders(List.of(order(alice, 1), order(carol, 2), order(carol, 2)));
+        Long bobsOrder = orderService.createOrder(order(bob, 10)).getId();
+
+        assertThat(topEmails(CustomerRanking.ORDERS, 10)).containsExactly("alice", "carol", "bob");
+        assertThat(topEmails(CustomerRanking.SPEND, 10)).containsExactly("bob", "carol", "alice");
+        assertThat(topEmails(CustomerRanking.SPEND, 2)).containsExactly("bob", "carol");
+
+        orderService.cancelOrder(bobsOrder);
+
+        // Cancelling takes back the spend but the order still counts
+        assertThat(topEmails(CustomerRanking.SPEND, 10)).containsExactly("carol", "alice", "bob");
+        assertThat(topEmails(CustomerRanking.ORDERS, 10)).containsExactly("alice", "carol", "bob");
+
+        customerLeaderboard.rebuild();
+        assertThat(topEmails(CustomerRanking.SPEND, 10)).containsExactly("carol", "alice", "bob");
+        assertThat(customerLeaderboard.size()).isEqualTo(3);
+    }
+
+    @Test
+    void getTopCustomers_RestEndpointAcceptsRanking() throws Exception {
+        orderService.createOrder(order(alice, 1));
+        orderService.createOrder(order(alice, 1));
+        orderService.createOrder(order(bob, 5));
+
+        mockMvc.perform(get("/api/users/top-customers").param("rankBy", "spend").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].email").value(email("bob")))
+                .andExpect(jsonPath("$.data[0].lifetimeSpend").value(50.0));
+
+        mockMvc.perform(get("/api/users/top-customers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].email").value(email("alice")))
+                .andExpect(jsonPath("$.data[0].totalOrders").value(2));
+
+        mockMvc.perform(get("/api/users/top-customers").param("rankBy", "returns"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<String> topEmails(CustomerRanking ranking, int limit) {
+        return userService.getTopCustomers(limit, ranking).stream()
+                .map(UserResponse::getEmail)
+                .map(email -> email.substring(0, email.indexOf('.')))
+                .toList();
+    }
+
+    private User createUser(String name) {
+        User user = new User();
+        user.setFirstName(name);
+        user.setLastName("Leader");
+        user.setEmail(email(name));
+        user.setStatus(UserStatus.ACTIVE);
+        return userRepository.save(user);
+    }
+
+    private static String email(String name) {
+        return name + ".leader@example.com";
+    }
+
+    private CreateOrderRequest order(User user, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("1 Podium Lane");
+        request.setOrderItems(new ArrayList<>(List.of(item)));
+        return request;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.exception.IdempotencyConflictException;
+import com.example.exm.idempotency.JdbcIdempotencyStore;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.example.exm.util.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        user = new User();
+        user.setFirstName("Retry");
+        user.setLastName("Client");
+        user.setEmail("retry.client@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        product = new Product();
+        product.setName("Retried Product");
+        product.setPrice(new BigDecimal("15.00"));
+        product.setStockQuantity(10);
+        product.setStatus(ProductStatus.ACTIVE);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrder_RetriedWithSameKey_CreatesOneOrder() throws Exception {
+        String body = objectMapper.writeValueAsString(order(2));
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockMvc.perform(post("/api/orders")
+                            .header(Constants.IDEMPOTENCY_KEY_HEADER, "retry-key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.data.totalAmount").value(30.0));
+        }
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    void createOrder_SameKeyDifferentBody_ReturnsConflict() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .header(Constants.IDEMPOTENCY_KEY_HEADER, "retry-key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(order(1))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/orders")
+                        .header(Constants.IDEMPOTENCY_KEY_HEADER, "retry-key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(order(3))))
+                .andExpect(status().isConflict());
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void jdbcStore_ConcurrentDuplicates_CreateOneOrder() throws Exception {
+        createIdempotencyKeysTable();
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(
+                jdbcTemplate, objectMapper, Duration.ofHours(1), Duration.ofSeconds(10), Duration.ofMinutes(5));
+        CreateOrderRequest request = order(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<OrderResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            responses.add(executor.submit(() -> store.execute("node-key-1", request, OrderResponse.class,
+                    () -> orderService.createOrder(request))));
+        }
+
+        List<Long> orderIds = new ArrayList<>();
+        for (Future<OrderResponse> response : responses) {
+            orderIds.add(response.get().getId());
+        }
+        executor.shutdown();
+
+        assertThat(orderIds).containsOnly(orderIds.get(0));
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(9);
+        assertThrows(IdempotencyConflictException.class,
+                () -> store.execute("node-key-1", order(2), OrderResponse.class, () -> orderService.createOrder(order(2))));
+
+        jdbcTemplate.execute("DROP TABLE idempotency_keys");
+    }
+
+    @Test
+    void jdbcStore_ClaimTakenOverDuringAction_LeavesTheNewOwnersClaimAlone() {
+        createIdempotencyKeysTable();
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(
+                jdbcTemplate, objectMapper, Duration.ofHours(1), Duration.ofSeconds(10), Duration.ofMinutes(5));
+
+        // Each action stands in for a request outliving its lease while another node claims the key
+        store.execute("lease-key", order(1), String.class, () -> {
+            jdbcTemplate.update("UPDATE idempotency_keys SET claim_token = 'other-node' "
+                    + "WHERE idempotency_key = 'lease-key'");
+            return "late response";
+        });
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM idempotency_keys WHERE idempotency_key = 'lease-key'", String.class))
+                .isEqualTo("IN_PROGRESS");
+
+        assertThrows(IllegalStateException.class, () -> store.execute("lease-key-2", order(1), String.class, () -> {
+            jdbcTemplate.update("UPDATE idempotency_keys SET claim_token = 'other-node' "
+                    + "WHERE idempotency_key = 'lease-key-2'");
+            throw new IllegalStateException("action failed");
+        }));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = 'lease-key-2'", Integer.class))
+                .isEqualTo(1);
+
+        jdbcTemplate.execute("DROP TABLE idempotency_keys");
+    }
+
+    /**
+     * Creates the table from the Flyway migrations, which the test profile does not run, so the store is tested
+     * against the schema it ships with.
+     */
+    private void createIdempotencyKeysTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS idempotency_keys");
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V6__Create_idempotency_keys.sql"),
+                new ClassPathResource("db/migration/V14__Add_idempotency_claim_token.sql"))
+                .execute(jdbcTemplate.getDataSource());
+    }
+
+    private CreateOrderRequest order(int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("7 Retry Lane");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
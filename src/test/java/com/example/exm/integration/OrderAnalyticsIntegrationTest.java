@@ -0,0 +1,204 @@
+package com.example.exm.integration;
+
+import com.example.exm.analytics.GroupBy;
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.AnalyticsResponse;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.AnalyticsService;
+import com.example.exm.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Aggregations from the in-memory analytics store must match the orders written through the order service,
+ * both for orders loaded by a reload and for orders and status changes applied after it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderAnalyticsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+    private User user;
+    private Product book;
+    private Product lamp;
+    private Product unbranded;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        today = LocalDate.now();
+
+        user = new User();
+        user.setFirstName("Analytics");
+        user.setLastName("Buyer");
+        user.setEmail("analytics.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        book = createProduct("Novel", "Books", "Penguin", "12.50");
+        lamp = createProduct("Desk Lamp", "Home", "Lumen", "30.00");
+        unbranded = createProduct("Mystery Box", null, null, "1.99");
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        analyticsService.reload();
+    }
+
+    @Test
+    void aggregateOrders_GroupsLinesLoadedByReload() {
+        orderService.createOrder(order(line(book, 2), line(lamp, 1)));
+        orderService.createOrder(order(line(book, 1), line(unbranded, 3)));
+
+        assertThat(analyticsService.reload()).isEqualTo(4);
+
+        AnalyticsResponse byCategory = aggregate(GroupBy.CATEGORY, Set.of());
+        assertThat(byCategory.linesMatched()).isEqualTo(4);
+        assertThat(byCategory.groups()).extracting(AnalyticsResponse.Group::key)
+                .containsExactly("Books", "Home", "(none)");
+        assertThat(revenueByKey(byCategory)).containsEntry("Books", new BigDecimal("37.50"))
+                .containsEntry("Home", new BigDecimal("30.00"))
+                .containsEntry("(none)", new BigDecimal("5.97"));
+        assertThat(byCategory.groups().get(0).units()).isEqualTo(3);
+
+        AnalyticsResponse byCohort = aggregate(GroupBy.COHORT, Set.of());
+        assertThat(byCohort.groups()).singleElement()
+                .satisfies(group -> assertThat(group.key()).isEqualTo(YearMonth.from(today).toString()));
+
+        AnalyticsResponse byDay = analyticsService.aggregateOrders(GroupBy.DAY, today.minusDays(7), today.minusDays(1), Set.of());
+        assertThat(byDay.groups()).isEmpty();
+    }
+
+    @Test
+    void aggregateOrders_ReflectsOrdersAndStatusChangesAfterReload() {
+        OrderResponse first = orderService.createOrder(order(line(lamp, 2)));
+        analyticsService.reload();
+
+        OrderResponse second = orderService.createOrder(order(line(book, 4)));
+        orderService.updateOrderStatus(first.getId(), OrderStatus.CANCELLED);
+
+        AnalyticsResponse byStatus = aggregate(GroupBy.STATUS, Set.of());
+        assertThat(revenueByKey(byStatus)).containsOnly(
+                Map.entry("PENDING", new BigDecimal("50.00")),
+                Map.entry("CANCELLED", new BigDecimal("60.00")));
+
+        orderService.updateOrderStatus(second.getId(), OrderStatus.CONFIRMED);
+        AnalyticsResponse confirmedByBrand = aggregate(GroupBy.BRAND, Set.of(OrderStatus.CONFIRMED));
+        assertThat(revenueByKey(confirmedByBrand)).containsOnly(Map.entry("Penguin", new BigDecimal("50.00")));
+
+        // A reload must land on the same totals as the incremental updates
+        Map<String, BigDecimal> incremental = revenueByKey(aggregate(GroupBy.STATUS, Set.of()));
+        analyticsService.reload();
+        assertThat(revenueByKey(aggregate(GroupBy.STATUS, Set.of()))).isEqualTo(incremental).containsOnly(
+                Map.entry("CONFIRMED", new BigDecimal("50.00")),
+                Map.entry("CANCELLED", new BigDecimal("60.00")));
+    }
+
+    @Test
+    void aggregateOrders_RestEndpointValidatesGroupBy() throws Exception {
+        orderService.createOrder(order(line(book, 1)));
+        analyticsService.reload();
+
+        mockMvc.perform(get("/api/analytics/orders")
+                        .param("groupBy", "brand")
+                        .param("fromDate", today.toString())
+                        .param("toDate", today.toString())
+                        .param("statuses", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.groupBy").value("BRAND"))
+                .andExpect(jsonPath("$.data.groups[0].key").value("Penguin"))
+                .andExpect(jsonPath("$.data.groups[0].revenue").value(12.5));
+
+        mockMvc.perform(get("/api/analytics/orders")
+                        .param("groupBy", "colour")
+                        .param("fromDate", today.toString())
+                        .param("toDate", today.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private AnalyticsResponse aggregate(GroupBy groupBy, Set<OrderStatus> statuses) {
+        return analyticsService.aggregateOrders(groupBy, today, today, statuses);
+    }
+
+    private static Map<String, BigDecimal> revenueByKey(AnalyticsResponse response) {
+        return response.groups().stream()
+                .collect(Collectors.toMap(AnalyticsResponse.Group::key, AnalyticsResponse.Group::revenue));
+    }
+
+    private Product createProduct(String name, String category, String brand, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setCategory(category);
+        product.setBrand(brand);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(100);
+        product.setStatus(ProductStatus.ACTIVE);
+        return productRepository.save(product);
+    }
+
+    private CreateOrderRequest order(CreateOrderRequest.OrderItemRequest... items) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("1 Analytics Way");
+        request.setOrderItems(new ArrayList<>(List.of(items)));
+        return request;
+    }
+
+    private static CreateOrderRequest.OrderItemRequest line(Product product, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        return item;
+    }
+}
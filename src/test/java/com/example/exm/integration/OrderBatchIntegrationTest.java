@@ -0,0 +1,175 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.BatchOrderResponse;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers POST /api/orders/batch.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderBatchIntegrationTest {
+
+    private static final int ORDER_COUNT = 60;
+    private static final int PRODUCT_COUNT = 20;
+    private static final int LINES_PER_ORDER = 3;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        user = new User();
+        user.setFirstName("Batch");
+        user.setLastName("Buyer");
+        user.setEmail("batch.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrders_ReportsFailuresPerOrderWithoutRollingBackTheBatch() {
+        Product product = createProduct("Limited Product", 5);
+
+        List<CreateOrderRequest> requests = List.of(
+                order(user.getId(), product.getId(), 2),
+                order(999_999L, product.getId(), 1),
+                order(user.getId(), product.getId(), 4),
+                new CreateOrderRequest(),
+                order(user.getId(), product.getId(), 3));
+
+        BatchOrderResponse response = orderService.createOrders(requests);
+
+        assertThat(response.getTotalCount()).isEqualTo(5);
+        assertThat(response.getSuccessCount()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BatchOrderResponse.OrderResult::isSuccess)
+                .containsExactly(true, false, false, false, true);
+        assertThat(response.getResults().get(1).getError()).contains("User not found");
+        assertThat(response.getResults().get(2).getError()).contains("Available: 3, Requested: 4");
+        assertThat(response.getResults().get(3).getError()).contains("User ID is required");
+
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    @Test
+    void createOrders_RestEndpointReturnsPerOrderResults() throws Exception {
+        Product product = createProduct("Rest Product", 10);
+        List<CreateOrderRequest> requests = List.of(
+                order(user.getId(), product.getId(), 4),
+                order(user.getId(), product.getId(), 20));
+
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.successCount").value(1))
+                .andExpect(jsonPath("$.data.failureCount").value(1))
+                .andExpect(jsonPath("$.data.results[0].order.totalAmount").value(40.0))
+                .andExpect(jsonPath("$.data.results[1].success").value(false));
+    }
+
+    @Test
+    void createOrders_MultiLineOrdersSharingProductsAllSucceed() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            products.add(createProduct("Shared Product " + i, 100));
+        }
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            CreateOrderRequest request = order(user.getId(), products.get(i % products.size()).getId(), 1);
+            for (int line = 1; line < LINES_PER_ORDER; line++) {
+                request.getOrderItems().add(item(products.get((i + line) % products.size()).getId(), 1));
+            }
+            requests.add(request);
+        }
+
+        BatchOrderResponse response = orderService.createOrders(requests);
+
+        assertThat(response.getSuccessCount()).isEqualTo(ORDER_COUNT);
+        assertThat(orderRepository.count()).isEqualTo(ORDER_COUNT);
+        // Every product is on LINES_PER_ORDER lines of every PRODUCT_COUNT consecutive orders
+        assertThat(productRepository.findAllById(products.stream().map(Product::getId).toList()))
+                .allSatisfy(product -> assertThat(product.getStockQuantity())
+                        .isEqualTo(100 - ORDER_COUNT * LINES_PER_ORDER / PRODUCT_COUNT));
+    }
+
+    private Product createProduct(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(stock);
+        product.setStatus(ProductStatus.ACTIVE);
+        return productRepository.save(product);
+    }
+
+    private CreateOrderRequest order(Long userId, Long productId, int quantity) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(userId);
+        request.setShippingAddress("1 Batch Street");
+        request.setOrderItems(new ArrayList<>(List.of(item(productId, quantity))));
+        return request;
+    }
+
+    private CreateOrderRequest.OrderItemRequest item(Long productId, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.BulkCancelRequest;
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.BulkOperationResponse;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.example.exm.util.JdbcStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers set-based cancellation: single orders, PUT /api/orders/cancel by ids and by filter.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcStatementCounter.class)
+class OrderCancellationIntegrationTest {
+
+    private static final int LINE_COUNT = 30;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private User user;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        user = new User();
+        user.setFirstName("Cancel");
+        user.setLastName("Buyer");
+        user.setEmail("cancel.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        for (int i = 0; i < LINE_COUNT; i++) {
+            Product product = new Product();
+            product.setName("Cancel Product " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(100);
+            product.setStatus(ProductStatus.ACTIVE);
+            products.add(productRepository.save(product));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        products.clear();
+    }
+
+    @Test
+    void cancelOrder_RoundTripsDoNotGrowWithLineCount() {
+        Long singleLine = createOrder(1, 1);
+        Long manyLines = createOrder(LINE_COUNT, 1);
+
+        JdbcStatementCounter.reset();
+        orderService.cancelOrder(singleLine);
+        long singleLineTrips = JdbcStatementCounter.getRoundTrips();
+
+        JdbcStatementCounter.reset();
+        orderService.cancelOrder(manyLines);
+        long manyLineTrips = JdbcStatementCounter.getRoundTrips();
+
+        // Either call may be the one that draws the next block of outbox event ids
+        assertThat(manyLineTrips).isLessThanOrEqualTo(singleLineTrips + 1);
+        assertThat(orderRepository.findById(manyLines).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(productRepository.findAllById(products.stream().map(Product::getId).toList()))
+                .allSatisfy(product -> assertThat(product.getStockQuantity()).isEqualTo(100));
+    }
+
+    @Test
+    void cancelOrder_AlreadyCancelled_ThrowsBusinessException() {
+        Long orderId = createOrder(1, 2);
+        orderService.cancelOrder(orderId);
+
+        assertThatThrownBy(() -> orderService.cancelOrder(orderId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Order is already cancelled");
+        assertThat(productRepository.findById(products.get(0).getId()).orElseThrow().getStockQuantity()).isEqualTo(100);
+    }
+
+    @Test
+    void updateOrderStatus_ToCancelled_RestoresStock() {
+        Long orderId = createOrder(3, 4);
+
+        OrderResponse response = orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(productRepository.findAllById(products.stream().map(Product::getId).toList()))
+                .allSatisfy(product -> assertThat(product.getStockQuantity()).isEqualTo(100));
+        assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void cancelOrders_ByIds_RestoresStockOnceAndReportsRejectedIds() throws Exception {
+        Long first = createOrder(3, 2);
+        Long second = createOrder(3, 5);
+        Long delivered = createOrder(1, 1);
+        orderService.updateOrderStatus(delivered, OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(delivered, OrderStatus.PROCESSING);
+        orderService.updateOrderStatus(delivered, OrderStatus.SHIPPED);
+        orderService.updateOrderStatus(delivered, OrderStatus.DELIVERED);
+
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setOrderIds(List.of(first, second, delivered, 999_999L, first));
+
+        mockMvc.perform(put("/api/orders/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.processedCount").value(4))
+                .andExpect(jsonPath("$.data.updatedCount").value(2))
+                .andExpect(jsonPath("$.data.rejectedIds.length()").value(2));
+
+        assertThat(orderRepository.findById(first).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(orderRepository.findById(delivered).orElseThrow().getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(productRepository.findById(products.get(0).getId()).orElseThrow().getStockQuantity()).isEqualTo(99);
+        assertThat(productRepository.findById(products.get(2).getId()).orElseThrow().getStockQuantity()).isEqualTo(100);
+    }
+
+    @Test
+    void cancelOrders_ByFilter_CancelsOnlyMatchingOrders() {
+        Long pending = createOrder(2, 1);
+        Long confirmed = createOrder(2, 1);
+        orderService.updateOrderStatus(confirmed, OrderStatus.CONFIRMED);
+
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setStatus(OrderStatus.PENDING);
+        request.setOrderedBefore(LocalDateTime.now().plusMinutes(1));
+
+        BulkOperationResponse response = orderService.cancelOrders(request);
+
+        assertThat(response.getUpdatedCount()).isEqualTo(1);
+        assertThat(response.getRejectedIds()).isEmpty();
+        assertThat(orderRepository.findById(pending).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(orderRepository.findById(confirmed).orElseThrow().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(productRepository.findById(products.get(0).getId()).orElseThrow().getStockQuantity()).isEqualTo(99);
+    }
+
+    @Test
+    void cancelOrders_RequiresEitherIdsOrFilter() {
+        assertThatThrownBy(() -> orderService.cancelOrders(new BulkCancelRequest()))
+                .isInstanceOf(BusinessException.class);
+
+        BulkCancelRequest delivered = new BulkCancelRequest();
+        delivered.setStatus(OrderStatus.DELIVERED);
+        assertThatThrownBy(() -> orderService.cancelOrders(delivered))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("cannot be cancelled");
+    }
+
+    private Long createOrder(int lines, int quantity) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("1 Cancel Court");
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+            item.setProductId(products.get(i).getId());
+            item.setQuantity(quantity);
+            items.add(item);
+        }
+        request.setOrderItems(items);
+        return orderService.createOrder(request).getId();
+    }
+}
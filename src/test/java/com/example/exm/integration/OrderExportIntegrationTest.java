@@ -0,0 +1,192 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderExportService;
+import com.example.exm.service.OrderService;
+import com.example.exm.util.JdbcStatementCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams the order export in both formats and checks it is read with a single cursor query.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcStatementCounter.class)
+class OrderExportIntegrationTest {
+
+    private static final int ORDERS = 30;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        User user = new User();
+        user.setFirstName("Export");
+        user.setLastName("Buyer");
+        user.setEmail("export.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        Product plain = createProduct("Plain Widget");
+        Product quoted = createProduct("Widget, \"large\"");
+
+        start = LocalDateTime.now().minusMinutes(1);
+        for (int i = 0; i < ORDERS; i++) {
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setUserId(user.getId());
+            request.setShippingAddress("1 Export Street");
+            List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>(List.of(item(plain.getId(), 1)));
+            if (i % 2 == 0) {
+                items.add(item(quoted.getId(), 2));
+            }
+            request.setOrderItems(items);
+            orderService.createOrder(request);
+        }
+        end = LocalDateTime.now().plusMinutes(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void exportOrders_NdjsonStreamsOneOrderPerLine() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/orders/export")
+                        .param("startDate", start.toString())
+                        .param("endDate", end.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.ndjson\""))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(ORDERS);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode order = objectMapper.readTree(lines[i]);
+            ids.add(order.get("id").asLong());
+            assertThat(order.get("userEmail").asText()).isEqualTo("export.buyer@example.com");
+            assertThat(order.get("items")).hasSize(i % 2 == 0 ? 2 : 1);
+        }
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void exportOrders_CsvWritesOneRowPerLineWithEscaping() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExportService.exportOrders(start, end, OrderExportService.Format.CSV, out);
+
+        List<String> rows = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(exported).isEqualTo(ORDERS);
+        assertThat(rows.get(0)).startsWith("order_id,order_number,order_date,status,total_amount");
+        assertThat(rows).hasSize(1 + ORDERS + ORDERS / 2);
+        assertThat(rows).filteredOn(row -> row.contains("Widget, "))
+                .hasSize(ORDERS / 2)
+                .allSatisfy(row -> assertThat(row).contains(",\"Widget, \"\"large\"\"\",2,"));
+    }
+
+    @Test
+    void exportOrders_ReadsTheWholeRangeWithOneQuery() throws Exception {
+        JdbcStatementCounter.reset();
+        long exported = orderExportService.exportOrders(start, end, OrderExportService.Format.NDJSON,
+                new ByteArrayOutputStream());
+
+        assertThat(exported).isEqualTo(ORDERS);
+        assertThat(JdbcStatementCounter.getRoundTrips()).isEqualTo(1);
+
+        assertThat(orderExportService.exportOrders(end, end.plusDays(1), OrderExportService.Format.NDJSON,
+                new ByteArrayOutputStream())).isZero();
+    }
+
+    @Test
+    void exportOrders_RejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/orders/export")
+                        .param("startDate", start.toString())
+                        .param("endDate", end.toString())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Product createProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("4.00"));
+        product.setStockQuantity(1_000);
+        product.setStatus(ProductStatus.ACTIVE);
+        return productRepository.save(product);
+    }
+
+    private CreateOrderRequest.OrderItemRequest item(Long productId, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
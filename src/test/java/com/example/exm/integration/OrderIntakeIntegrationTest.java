@@ -0,0 +1,160 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.OutboxEventRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.impl.OrderIntakeServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs order creation with the group-commit intake enabled.
+ */
+@SpringBootTest(properties = {
+        "app.order.intake.enabled=true",
+        "app.order.intake.group-size=50",
+        "app.order.intake.max-delay=5ms"
+})
+@ActiveProfiles("test")
+class OrderIntakeIntegrationTest {
+
+    private static final int CLIENT_THREADS = 16;
+    private static final int ORDERS_PER_CLIENT = 20;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderIntakeServiceImpl orderIntakeService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("Flash");
+        user.setLastName("Sale");
+        user.setEmail("flash.sale@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setName("Flash Product " + i);
+            product.setPrice(new BigDecimal("20.00"));
+            product.setStockQuantity(1_000_000);
+            product.setStatus(ProductStatus.ACTIVE);
+            products.add(productRepository.save(product));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        // This test runs in its own application context; leftover events would clash with the ids
+        // the shared context has already reserved from outbox_events_seq
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        products.clear();
+    }
+
+    @Test
+    void createOrder_ThroughRestEndpoint_ReturnsCreatedOrder() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(order(0))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.orderNumber").exists())
+                .andExpect(jsonPath("$.data.totalAmount").value(20.0));
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void createOrder_ConcurrentClients_ShareGroupCommits() throws Exception {
+        int orders = CLIENT_THREADS * ORDERS_PER_CLIENT;
+
+        long groupsBefore = orderIntakeService.getCommittedGroups();
+        runClients(ORDERS_PER_CLIENT, request -> orderIntakeService.createOrder(request));
+        long groups = orderIntakeService.getCommittedGroups() - groupsBefore;
+
+        assertThat(groups).isLessThan(orders);
+        assertThat(orderRepository.count()).isEqualTo(orders);
+    }
+
+    private void runClients(int ordersPerClient, Consumer<CreateOrderRequest> placeOrder) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        List<Future<?>> clients = new ArrayList<>();
+        for (int client = 0; client < CLIENT_THREADS; client++) {
+            int offset = client;
+            clients.add(executor.submit(() -> {
+                for (int i = 0; i < ordersPerClient; i++) {
+                    placeOrder.accept(order(offset + i));
+                }
+            }));
+        }
+        for (Future<?> client : clients) {
+            client.get();
+        }
+        executor.shutdown();
+    }
+
+    private CreateOrderRequest order(int seed) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(products.get(seed % products.size()).getId());
+        item.setQuantity(1);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("1 Flash Sale Avenue");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.example.exm.util.JdbcStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the JDBC round trips per created order do not grow with its line count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcStatementCounter.class)
+class OrderQueryCountIntegrationTest {
+
+    private static final int LINE_COUNT = 40;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("Query");
+        user.setLastName("Count");
+        user.setEmail("query.count@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        for (int i = 0; i < LINE_COUNT; i++) {
+            Product product = new Product();
+            product.setName("Bulk Product " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(1_000);
+            product.setStatus(ProductStatus.ACTIVE);
+            products.add(productRepository.save(product));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        products.clear();
+    }
+
+    @Test
+    void createOrder_RoundTripsDoNotGrowWithLineCount() {
+        // Warm up so the id sequences have already handed out a block
+        roundTripsForOrderWithLines(1);
+
+        long singleLine = roundTripsForOrderWithLines(1);
+        long manyLines = roundTripsForOrderWithLines(LINE_COUNT);
+
+        // order_items inserts are batched (hibernate.jdbc.batch_size=20), so 40 lines cost at most two extra batches
+        assertThat(manyLines - singleLine).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void createOrder_DecrementsStockForEveryLine() {
+        roundTripsForOrderWithLines(LINE_COUNT);
+
+        assertThat(productRepository.findAllById(products.stream().map(Product::getId).toList()))
+                .allSatisfy(product -> assertThat(product.getStockQuantity()).isEqualTo(999));
+    }
+
+    private long roundTripsForOrderWithLines(int lines) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("1 Benchmark Way");
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+            item.setProductId(products.get(i).getId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setOrderItems(items);
+
+        JdbcStatementCounter.reset();
+        orderService.createOrder(request);
+        return JdbcStatementCounter.getRoundTrips();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.entity.Order;
+import com.example.exm.entity.OrderItem;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderItemService;
+import com.example.exm.service.OrderService;
+import com.example.exm.util.JdbcStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order listings must cost the same number of statements whatever the page size: one id page, one count
+ * and one fetch of the orders with their user, items and products.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcStatementCounter.class)
+class OrderReadQueryCountIntegrationTest {
+
+    private static final int ORDER_COUNT = 60;
+    private static final int LINES_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Product product = new Product();
+            product.setName("Listed Product " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(10_000);
+            product.setStatus(ProductStatus.ACTIVE);
+            products.add(productRepository.save(product));
+        }
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setFirstName("Reader");
+            user.setLastName(String.valueOf(i));
+            user.setEmail("reader" + i + "@example.com");
+            user.setStatus(UserStatus.ACTIVE);
+            users.add(userRepository.save(user));
+        }
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setUserId(users.get(i % users.size()).getId());
+            request.setShippingAddress("1 Listing Lane");
+            List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+            for (int line = 0; line < LINES_PER_ORDER; line++) {
+                CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+                item.setProductId(products.get((i + line) % products.size()).getId());
+                item.setQuantity(1);
+                items.add(item);
+            }
+            request.setOrderItems(items);
+            orderService.createOrder(request);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        users.clear();
+    }
+
+    @Test
+    void getAllOrders_StatementsDoNotGrowWithPageSize() {
+        long small = statements(() -> orderService.getAllOrders(PageRequest.of(0, 5, Sort.by("orderDate").descending())));
+        long large = statements(() -> orderService.getAllOrders(PageRequest.of(0, 50, Sort.by("orderDate").descending())));
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void getOrdersByStatus_MapsCompletePages() {
+        long statements = statements(() -> orderService.getOrdersByStatus(OrderStatus.PENDING, PageRequest.of(1, 20)));
+        Page<OrderResponse> page = orderService.getOrdersByStatus(OrderStatus.PENDING, PageRequest.of(1, 20, Sort.by("id")));
+
+        assertThat(statements).isLessThanOrEqualTo(3);
+        assertThat(page.getTotalElements()).isEqualTo(ORDER_COUNT);
+        assertThat(page.getContent()).hasSize(20)
+                .allSatisfy(order -> assertThat(order.getOrderItems()).hasSize(LINES_PER_ORDER))
+                .extracting(OrderResponse::getId).isSorted();
+    }
+
+    @Test
+    void getOrdersByUserId_StatementsDoNotGrowWithPageSize() {
+        Long userId = users.get(0).getId();
+
+        // One extra statement loads the user to report a missing one as 404
+        long small = statements(() -> orderService.getOrdersByUserId(userId, PageRequest.of(0, 2)));
+        long large = statements(() -> orderService.getOrdersByUserId(userId, PageRequest.of(0, 10)));
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void unpagedListings_UseASingleFetch() {
+        long dateRange = statements(() -> orderService.getOrdersByDateRange(
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)));
+
+        assertThat(dateRange).isEqualTo(2);
+    }
+
+    @Test
+    void getOrdersWithMultipleItems_StatementsDoNotGrowWithPageSize() {
+        long small = statements(() -> orderService.getOrdersWithMultipleItems(LINES_PER_ORDER, PageRequest.of(0, 2)));
+        long large = statements(() -> orderService.getOrdersWithMultipleItems(LINES_PER_ORDER, PageRequest.of(0, 10)));
+
+        // Id page, count and one fetch of the page
+        assertThat(large).isEqualTo(small).isEqualTo(3);
+        assertThat(orderService.getOrdersWithMultipleItems(LINES_PER_ORDER, PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(ORDER_COUNT);
+        assertThat(orderService.getOrdersWithMultipleItems(LINES_PER_ORDER + 1, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void itemTotals_FollowOrderItemChanges() {
+        Order order = orderRepository.findAll().get(0);
+        List<OrderItem> items = orderItemService.getOrderItemsByOrderId(order.getId());
+
+        orderItemService.updateOrderItem(items.get(0).getId(), 4);
+        orderItemService.deleteOrderItem(items.get(1).getId());
+
+        Order updated = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(updated.getItemCount()).isEqualTo(LINES_PER_ORDER - 1);
+        assertThat(updated.getTotalUnits()).isEqualTo(4 + (LINES_PER_ORDER - 2));
+        assertThat(orderService.getOrdersWithMultipleItems(LINES_PER_ORDER, PageRequest.of(0, 100)).getContent())
+                .extracting(OrderResponse::getId).doesNotContain(order.getId());
+    }
+
+    private long statements(Supplier<?> read) {
+        JdbcStatementCounter.reset();
+        read.get();
+        return JdbcStatementCounter.getRoundTrips();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.BulkStatusUpdateRequest;
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.BulkOperationResponse;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.example.exm.util.JdbcStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers PUT /api/orders/status, the bulk transition path used by the warehouse scanners.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcStatementCounter.class)
+class OrderStatusUpdateIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        user = new User();
+        user.setFirstName("Status");
+        user.setLastName("Scanner");
+        user.setEmail("status.scanner@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        product = new Product();
+        product.setName("Scanned Product");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1_000);
+        product.setStatus(ProductStatus.ACTIVE);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateOrderStatuses_MovesOnlyOrdersInAnAllowedPredecessorStatus() throws Exception {
+        List<Long> processing = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long orderId = createOrder();
+            orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
+            orderService.updateOrderStatus(orderId, OrderStatus.PROCESSING);
+            processing.add(orderId);
+        }
+        Long pending = createOrder();
+
+        List<Long> orderIds = new ArrayList<>(processing);
+        orderIds.add(pending);
+        orderIds.add(999_999L);
+
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(orderIds, OrderStatus.SHIPPED))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.processedCount").value(5))
+                .andExpect(jsonPath("$.data.updatedCount").value(3))
+                .andExpect(jsonPath("$.data.rejectedIds.length()").value(2));
+
+        assertThat(orderRepository.findAllById(processing))
+                .allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED));
+        assertThat(orderRepository.findById(pending).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+    }
+
+    @Test
+    void updateOrderStatuses_RoundTripsDoNotGrowWithOrderCount() {
+        List<Long> few = new ArrayList<>();
+        List<Long> many = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            (i < 2 ? few : many).add(createOrder());
+        }
+
+        JdbcStatementCounter.reset();
+        orderService.updateOrderStatuses(request(few, OrderStatus.CONFIRMED));
+        long fewTrips = JdbcStatementCounter.getRoundTrips();
+
+        JdbcStatementCounter.reset();
+        BulkOperationResponse response = orderService.updateOrderStatuses(request(many, OrderStatus.CONFIRMED));
+        long manyTrips = JdbcStatementCounter.getRoundTrips();
+
+        assertThat(response.getUpdatedCount()).isEqualTo(many.size());
+        // Either call may be the one that draws the next block of outbox event ids
+        assertThat(manyTrips).isLessThanOrEqualTo(fewTrips + 1);
+    }
+
+    @Test
+    void updateOrderStatuses_CancelledRestoresStock() {
+        Long orderId = createOrder();
+
+        BulkOperationResponse response = orderService.updateOrderStatuses(request(List.of(orderId), OrderStatus.CANCELLED));
+
+        assertThat(response.getUpdatedCount()).isEqualTo(1);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(1_000);
+    }
+
+    @Test
+    void updateOrderStatuses_TargetWithoutPredecessors_ThrowsBusinessException() {
+        assertThatThrownBy(() -> orderService.updateOrderStatuses(request(List.of(1L), OrderStatus.PENDING)))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private BulkStatusUpdateRequest request(List<Long> orderIds, OrderStatus status) {
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setOrderIds(orderIds);
+        request.setStatus(status);
+        return request;
+    }
+
+    private Long createOrder() {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(1);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("1 Dock Road");
+        request.setOrderItems(List.of(item));
+        return orderService.createOrder(request).getId();
+    }
+}
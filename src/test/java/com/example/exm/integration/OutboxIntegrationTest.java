@@ -0,0 +1,215 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.OutboxEvent;
+import com.example.exm.entity.OutboxEventType;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.outbox.OutboxRelay;
+import com.example.exm.outbox.OutboxSink;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.OutboxEventRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that outbox rows commit and roll back with the business change, and that concurrent relays
+ * never publish an event twice.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final RecordingOutboxSink sink = new RecordingOutboxSink();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay outboxRelay;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        // A relay of our own, so the test sees what gets published without a separate application context
+        outboxRelay = new OutboxRelay(outboxEventRepository, sink, transactionTemplate, meterRegistry, true, 500);
+
+        user = new User();
+        user.setFirstName("Outbox");
+        user.setLastName("Buyer");
+        user.setEmail("outbox.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        product = new Product();
+        product.setName("Outbox Product");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1_000);
+        product.setStatus(ProductStatus.ACTIVE);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrder_WritesEventsInTheSameTransaction() {
+        Long orderId = orderService.createOrder(order(2)).getId();
+        orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
+
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getEventType)
+                .containsExactlyInAnyOrder(OutboxEventType.STOCK_CHANGED, OutboxEventType.ORDER_CREATED,
+                        OutboxEventType.ORDER_STATUS_CHANGED);
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getEventType() == OutboxEventType.STOCK_CHANGED)
+                .singleElement()
+                .satisfies(event -> assertThat(event.getPayload()).contains("\"" + product.getId() + "\":-2"));
+    }
+
+    @Test
+    void createOrder_RolledBack_LeavesNoEvents() {
+        assertThatThrownBy(() -> orderService.createOrder(order(5_000))).isInstanceOf(BusinessException.class);
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void relayBatch_PublishesAndDeletesEvents() {
+        Long orderId = orderService.createOrder(order(1)).getId();
+        orderService.cancelOrder(orderId);
+        double publishedBefore = meterRegistry.counter("outbox.relay.events").count();
+
+        int published = outboxRelay.relayBatch();
+
+        assertThat(published).isEqualTo(4);
+        assertThat(sink.events()).extracting(OutboxEvent::getEventType)
+                .containsExactly(OutboxEventType.STOCK_CHANGED, OutboxEventType.ORDER_CREATED,
+                        OutboxEventType.STOCK_CHANGED, OutboxEventType.ORDER_STATUS_CHANGED);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(meterRegistry.counter("outbox.relay.events").count()).isEqualTo(publishedBefore + 4);
+        assertThat(outboxRelay.relayBatch()).isZero();
+    }
+
+    @Test
+    void relayBatch_SinkFailure_KeepsEventsForTheNextRun() {
+        orderService.createOrder(order(1));
+        sink.failNext();
+
+        assertThatThrownBy(() -> outboxRelay.relayBatch()).isInstanceOf(IllegalStateException.class);
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        assertThat(outboxRelay.relayBatch()).isEqualTo(2);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void relayBatch_ConcurrentRelays_DeliverEveryEventOnce() throws Exception {
+        for (int i = 0; i < 300; i++) {
+            orderService.createOrder(order(1));
+        }
+        long pending = outboxEventRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> relays = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                relays.add(executor.submit(() -> {
+                    while (outboxRelay.relayBatch() > 0) {
+                        Thread.onSpinWait();
+                    }
+                }));
+            }
+            for (Future<?> relay : relays) {
+                relay.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> publishedIds = sink.events().stream().map(OutboxEvent::getId).toList();
+        assertThat(publishedIds).hasSize((int) pending).doesNotHaveDuplicates();
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private CreateOrderRequest order(int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(user.getId());
+        request.setShippingAddress("1 Outbox Lane");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+
+    static class RecordingOutboxSink implements OutboxSink {
+
+        private final List<OutboxEvent> events = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicBoolean failNext = new AtomicBoolean();
+
+        @Override
+        public void publish(List<OutboxEvent> batch) {
+            if (failNext.getAndSet(false)) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            events.addAll(batch);
+        }
+
+        List<OutboxEvent> events() {
+            return List.copyOf(events);
+        }
+
+        void failNext() {
+            failNext.set(true);
+        }
+    }
+}
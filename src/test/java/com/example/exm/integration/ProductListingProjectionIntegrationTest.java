@@ -0,0 +1,102 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.mapper.ProductMapper;
+import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product listings read through a constructor projection must match the entity-and-mapper path they replaced.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductListingProjectionIntegrationTest {
+
+    private static final int PRODUCTS = 500;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String description = "A fairly long product description. ".repeat(40);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName(String.format("Listed Product %03d", i));
+            product.setDescription(description);
+            product.setPrice(new BigDecimal("19.99"));
+            product.setStockQuantity(100);
+            product.setCategory(i % 2 == 0 ? "Books" : "Games");
+            product.setBrand("Brand " + (i % 7));
+            product.setStatus(i % 5 == 0 ? ProductStatus.INACTIVE : ProductStatus.ACTIVE);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void listings_MatchEntityMappingWithoutManagingEntities() {
+        Pageable pageable = PageRequest.of(1, PAGE_SIZE, Sort.by("name"));
+
+        readOnly.executeWithoutResult(status -> {
+            Page<ProductResponse> projected = productService.getAllProducts(pageable);
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+
+            Page<ProductResponse> mapped = productRepository.findAll(pageable).map(productMapper::toResponse);
+            assertThat(projected.getContent()).isEqualTo(mapped.getContent());
+            assertThat(projected.getTotalElements()).isEqualTo(PRODUCTS);
+        });
+
+        assertThat(productService.getProductsByStatus(ProductStatus.INACTIVE, pageable).getTotalElements())
+                .isEqualTo(PRODUCTS / 5);
+        assertThat(productService.getProductsByCategory("Books", pageable).getContent())
+                .hasSize(PAGE_SIZE)
+                .allSatisfy(response -> assertThat(response.getCategory()).isEqualTo("Books"));
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.request.CreateProductRequest;
+import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.dto.response.ProductSuggestionResponse;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.search.ProductSearchIndex;
+import com.example.exm.service.OrderService;
+import com.example.exm.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Product search and suggestions are served from memory, and must follow product writes once they commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSearchIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        productSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchProducts_FollowsCreatesAndUpdates() {
+        ProductResponse kettle = productService.createProduct(request("Steel Kettle", "Acme", "Kitchen", "Boils fast"));
+        ProductResponse teapot = productService.createProduct(request("Teapot", "Acme", "Kitchen", "Pairs with any kettle"));
+        productService.createProduct(request("Desk Lamp", "Acme", "Home", "Warm light"));
+
+        Page<ProductResponse> kettles = productService.searchProducts("kettle", PageRequest.of(0, 10));
+
+        assertThat(kettles.getTotalElements()).isEqualTo(2);
+        assertThat(kettles.getContent()).extracting(ProductResponse::getId)
+                .containsExactly(kettle.getId(), teapot.getId());
+
+        productService.updateProduct(kettle.getId(), request("Steel Jug", "Acme", "Kitchen", "Boils fast"));
+
+        assertThat(productService.searchProducts("kettle", PageRequest.of(0, 10)).getContent())
+                .extracting(ProductResponse::getId).containsExactly(teapot.getId());
+        assertThat(productService.searchProducts("jug", PageRequest.of(0, 10)).getContent())
+                .extracting(ProductResponse::getName).containsExactly("Steel Jug");
+    }
+
+    @Test
+    void rebuild_PicksUpProductsWrittenOutsideTheService() {
+        Product product = new Product();
+        product.setName("Imported Router");
+        product.setPrice(new BigDecimal("40.00"));
+        product.setStockQuantity(5);
+        product.setStatus(ProductStatus.ACTIVE);
+        productRepository.save(product);
+
+        assertThat(productService.searchProducts("router", PageRequest.of(0, 10))).isEmpty();
+
+        productSearchIndex.rebuild();
+
+        assertThat(productService.searchProducts("rout", PageRequest.of(0, 10)).getContent())
+                .extracting(ProductResponse::getName).containsExactly("Imported Router");
+    }
+
+    @Test
+    void searchEndpoint_ReturnsAPageOfMatches() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(productService.createProduct(request("Cable " + i, "Globex", "Electronics", null)).getId());
+        }
+        // Ties rank by id; ids are not always in creation order when test contexts share the database
+        ids.sort(null);
+
+        mockMvc.perform(get("/api/products/search").param("name", "globex cable").param("size", "2").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(5))
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.content[0].id").value(ids.get(2)))
+                .andExpect(jsonPath("$.data.content[1].id").value(ids.get(3)));
+
+        mockMvc.perform(get("/api/products/search").param("name", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggestProducts_RankByUnitsOrderedAndDropDiscontinuedProducts() throws Exception {
+        ProductResponse lamp = productService.createProduct(request("Desk Lamp", "Lumen", "Home", null));
+        ProductResponse lantern = productService.createProduct(request("Desk Lantern", "Lumen", "Home", null));
+        ProductResponse desk = productService.createProduct(request("Desk Organizer", "Tidy", "Office", null));
+
+        // Until the next rebuild, new products have no units ordered and rank by name
+        assertThat(productService.suggestProducts("desk l", 10))
+                .extracting(ProductSuggestionResponse::getId).containsExactly(lamp.getId(), lantern.getId());
+
+        User user = new User();
+        user.setFirstName("Suggest");
+        user.setLastName("Buyer");
+        user.setEmail("suggest.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+        orderService.createOrder(order(user.getId(), lantern.getId(), 3));
+        productSearchIndex.rebuild();
+        productService.deleteProduct(desk.getId());
+
+        assertThat(productService.suggestProducts("DESK", 10))
+                .extracting(ProductSuggestionResponse::getId).containsExactly(lantern.getId(), lamp.getId());
+
+        mockMvc.perform(get("/api/products/suggest").param("prefix", "lum").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(lantern.getId()))
+                .andExpect(jsonPath("$.data[0].name").value("Desk Lantern"))
+                .andExpect(jsonPath("$.data[0].price").doesNotExist());
+    }
+
+    @Test
+    void filterEndpoint_CountsFacetsAndFollowsStockChanges() throws Exception {
+        ProductResponse kettle = productService.createProduct(request("Steel Kettle", "Acme", "Kitchen", null));
+        productService.createProduct(request("Teapot", "Globex", "Kitchen", null));
+        productService.createProduct(request("Desk Lamp", "Acme", "Home", null));
+
+        productService.updateProductStock(kettle.getId(), 0);
+
+        mockMvc.perform(get("/api/products/filter").param("category", "Kitchen").param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.products.totalElements").value(1))
+                .andExpect(jsonPath("$.data.products.content[0].name").value("Teapot"))
+                .andExpect(jsonPath("$.data.facetCountsAvailable").value(true))
+                .andExpect(jsonPath("$.data.categoryCounts.Kitchen").value(1))
+                .andExpect(jsonPath("$.data.categoryCounts.Home").value(1))
+                .andExpect(jsonPath("$.data.brandCounts.Globex").value(1))
+                .andExpect(jsonPath("$.data.brandCounts.Acme").doesNotExist())
+                .andExpect(jsonPath("$.data.priceBucketCounts['25-50']").value(1));
+
+        productService.increaseStock(kettle.getId(), 2);
+
+        mockMvc.perform(get("/api/products/filter").param("brand", "Acme").param("inStock", "true")
+                        .param("minPrice", "20").param("maxPrice", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.products.totalElements").value(2))
+                .andExpect(jsonPath("$.data.categoryCounts.Kitchen").value(1))
+                .andExpect(jsonPath("$.data.brandCounts.Globex").value(1))
+                .andExpect(jsonPath("$.data.statusCounts.ACTIVE").value(2));
+
+        mockMvc.perform(get("/api/products/filter").param("minPrice", "30").param("maxPrice", "20"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private CreateOrderRequest order(Long userId, Long productId, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(userId);
+        request.setShippingAddress("1 Typeahead Row");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+
+    private CreateProductRequest request(String name, String brand, String category, String description) {
+        CreateProductRequest request = new CreateProductRequest();
+        request.setName(name);
+        request.setBrand(brand);
+        request.setCategory(category);
+        request.setDescription(description);
+        request.setPrice(new BigDecimal("25.00"));
+        request.setStockQuantity(10);
+        request.setStatus(ProductStatus.ACTIVE);
+        return request;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.BulkStatusUpdateRequest;
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.RevenueDiscrepancy;
+import com.example.exm.entity.Order;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.RevenueDaily;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.RevenueDailyRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.rollup.RevenueRollupJob;
+import com.example.exm.service.OrderService;
+import com.example.exm.service.RevenueRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The daily revenue rollup must always agree with summing the orders table directly.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RevenueRollupIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 1);
+    private static final int DAYS = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private RevenueRollupJob revenueRollupJob;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RevenueDailyRepository revenueDailyRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        revenueDailyRepository.deleteAll();
+
+        User user = new User();
+        user.setFirstName("Revenue");
+        user.setLastName("Buyer");
+        user.setEmail("revenue.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        Product product = new Product();
+        product.setName("Revenue Product");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1_000);
+        product.setStatus(ProductStatus.ACTIVE);
+        product = productRepository.save(product);
+
+        // Four orders a day at 03:00, 09:00, 15:00 and 21:00, for quantities 1..4
+        for (int i = 0; i < DAYS * 4; i++) {
+            orderIds.add(orderService.createOrder(order(user.getId(), product.getId(), i % 4 + 1)).getId());
+        }
+        List<Order> orders = orderRepository.findAllById(orderIds);
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setOrderDate(FIRST_DAY.plusDays(i / 4).atTime(3 + (i % 4) * 6, 0));
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        revenueDailyRepository.deleteAll();
+        orderIds.clear();
+    }
+
+    @Test
+    void transitions_KeepRollupInStepWithOrders() {
+        // Single transitions in and out of revenue
+        orderService.updateOrderStatus(orderIds.get(0), OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(orderIds.get(1), OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(orderIds.get(1), OrderStatus.PROCESSING);
+
+        // Bulk confirmation of everything still pending, then a mix of leaving revenue
+        orderService.updateOrderStatuses(bulk(orderIds, OrderStatus.CONFIRMED));
+        orderService.updateOrderStatuses(bulk(orderIds.subList(4, 8), OrderStatus.PROCESSING));
+        orderService.cancelOrder(orderIds.get(9));
+        orderService.updateOrderStatuses(bulk(orderIds.subList(12, 14), OrderStatus.CANCELLED));
+
+        assertThat(revenueDailyRepository.count()).isEqualTo(DAYS);
+        assertThat(revenueRollupService.findDiscrepancies(FIRST_DAY.minusDays(1), FIRST_DAY.plusDays(DAYS + 1))).isEmpty();
+        assertMatchesRawScan(FIRST_DAY.atStartOfDay(), FIRST_DAY.plusDays(DAYS).atStartOfDay());
+        assertMatchesRawScan(FIRST_DAY.atTime(9, 0), FIRST_DAY.plusDays(3).atTime(15, 0));
+        assertMatchesRawScan(FIRST_DAY.atTime(10, 0), FIRST_DAY.plusDays(2).atTime(LocalTime.MAX));
+        assertMatchesRawScan(FIRST_DAY.plusDays(1).atTime(1, 0), FIRST_DAY.plusDays(1).atTime(16, 0));
+        assertMatchesRawScan(FIRST_DAY.minusDays(3).atStartOfDay(), FIRST_DAY.plusDays(30).atStartOfDay());
+    }
+
+    @Test
+    void checkAndRebuild_RepairDaysThatDrifted() {
+        orderService.updateOrderStatuses(bulk(orderIds, OrderStatus.CONFIRMED));
+        revenueDailyRepository.save(new RevenueDaily(FIRST_DAY.plusDays(2), new BigDecimal("1.00"), 1L));
+        revenueDailyRepository.save(new RevenueDaily(FIRST_DAY.plusDays(20), new BigDecimal("5.00"), 1L));
+
+        List<RevenueDiscrepancy> found = revenueRollupJob.check(FIRST_DAY, FIRST_DAY.plusDays(30));
+
+        assertThat(found).extracting(RevenueDiscrepancy::date)
+                .containsExactly(FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(20));
+        assertThat(found.get(0).actualRevenue()).isEqualByComparingTo("100.00");
+        assertThat(found.get(0).actualOrderCount()).isEqualTo(4);
+        assertThat(revenueRollupService.findDiscrepancies(FIRST_DAY, FIRST_DAY.plusDays(30))).isEmpty();
+
+        assertThat(revenueRollupService.rebuild(FIRST_DAY, FIRST_DAY.plusDays(30))).isEqualTo(DAYS);
+        assertMatchesRawScan(FIRST_DAY.atStartOfDay(), FIRST_DAY.plusDays(DAYS).atStartOfDay());
+    }
+
+    private void assertMatchesRawScan(LocalDateTime start, LocalDateTime end) {
+        assertThat(orderService.getTotalRevenue(start, end))
+                .as("revenue between %s and %s", start, end)
+                .isEqualByComparingTo(orderRepository.getTotalRevenueByDateRange(start, end));
+    }
+
+    private BulkStatusUpdateRequest bulk(List<Long> ids, OrderStatus status) {
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setOrderIds(new ArrayList<>(ids));
+        request.setStatus(status);
+        return request;
+    }
+
+    private CreateOrderRequest order(Long userId, Long productId, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(userId);
+        request.setShippingAddress("1 Rollup Row");
+        request.setOrderItems(new ArrayList<>(List.of(item)));
+        return request;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.service.OrderService;
+import com.example.exm.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single product from many threads to prove stock is never oversold.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockConcurrencyIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 40;
+    private static final int STOCK = 25;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void decreaseStock_ConcurrentCallers_NeverOversell() throws Exception {
+        Long productId = createProduct().getId();
+
+        long succeeded = runConcurrently(() -> productService.decreaseStock(productId, 1));
+
+        assertThat(succeeded).isEqualTo(STOCK);
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    @Test
+    void createOrder_ConcurrentCheckouts_NeverOversell() throws Exception {
+        Long productId = createProduct().getId();
+        Long userId = createUser().getId();
+
+        long succeeded = runConcurrently(() -> {
+            try {
+                orderService.createOrder(orderFor(userId, productId));
+                return true;
+            } catch (BusinessException e) {
+                return false;
+            }
+        });
+
+        assertThat(succeeded).isEqualTo(STOCK);
+        assertThat(orderRepository.count()).isEqualTo(STOCK);
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    private long runConcurrently(Callable<Boolean> attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return attempt.call();
+                }));
+            }
+            start.countDown();
+
+            long succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Product createProduct() {
+        Product product = new Product();
+        product.setName("Hot Product");
+        product.setPrice(new BigDecimal("5.00"));
+        product.setStockQuantity(STOCK);
+        product.setStatus(ProductStatus.ACTIVE);
+        return productRepository.save(product);
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setFirstName("Concurrent");
+        user.setLastName("Buyer");
+        user.setEmail("concurrent.buyer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        return userRepository.save(user);
+    }
+
+    private CreateOrderRequest orderFor(Long userId, Long productId) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(1);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(userId);
+        request.setShippingAddress("1 Contention Road");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
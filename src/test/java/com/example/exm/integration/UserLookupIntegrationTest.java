@@ -0,0 +1,131 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.CreateUserRequest;
+import com.example.exm.dto.request.UpdateUserRequest;
+import com.example.exm.dto.response.UserResponse;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.search.UserLookupIndex;
+import com.example.exm.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * User lookups are served from the in-memory index, which must follow user writes once they commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserLookupIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserLookupIndex userLookupIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        userLookupIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        userLookupIndex.rebuild();
+    }
+
+    @Test
+    void lookupUsers_FollowsCreatesAndUpdates() {
+        UserResponse grace = userService.createUser(request("Grace", "Hopper", "grace.hopper@example.com", "+1 202-555-0143"));
+        UserResponse alan = userService.createUser(request("Alan", "Turing", "aturing@example.com", null));
+
+        assertThat(userService.lookupUsers("grcae hoper", PageRequest.of(0, 10)).getContent())
+                .extracting(UserResponse::getId).containsExactly(grace.getId());
+        assertThat(userService.lookupUsers("(202) 555-0143", PageRequest.of(0, 10)).getContent())
+                .extracting(UserResponse::getId).containsExactly(grace.getId());
+        assertThat(userService.lookupUsers("turing", PageRequest.of(0, 10)).getContent())
+                .extracting(UserResponse::getId).containsExactly(alan.getId());
+
+        UpdateUserRequest update = new UpdateUserRequest();
+        update.setLastName("Murray");
+        update.setEmail("grace.murray@example.com");
+        userService.updateUser(grace.getId(), update);
+
+        assertThat(userService.lookupUsers("hopper", PageRequest.of(0, 10))).isEmpty();
+        assertThat(userService.lookupUsers("grace murray", PageRequest.of(0, 10)).getContent())
+                .extracting(UserResponse::getLastName).containsExactly("Murray");
+    }
+
+    @Test
+    void rebuild_PicksUpUsersWrittenOutsideTheService() {
+        User user = new User();
+        user.setFirstName("Imported");
+        user.setLastName("Customer");
+        user.setEmail("imported.customer@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        userRepository.save(user);
+
+        assertThat(userService.lookupUsers("customer", PageRequest.of(0, 10))).isEmpty();
+
+        userLookupIndex.rebuild();
+
+        assertThat(userService.lookupUsers("custmer", PageRequest.of(0, 10)).getContent())
+                .extracting(UserResponse::getEmail).containsExactly("imported.customer@example.com");
+    }
+
+    @Test
+    void lookupEndpoint_ReturnsAPageOfMatches() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.createUser(request("Dana", "Scully", "dscully" + i + "@example.com", null)).getId());
+        }
+        // Ties rank by id; ids are not always in creation order when test contexts share the database
+        ids.sort(null);
+
+        mockMvc.perform(get("/api/users/lookup").param("q", "dana skully").param("size", "2").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(5))
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.content[0].id").value(ids.get(2)))
+                .andExpect(jsonPath("$.data.content[1].id").value(ids.get(3)));
+
+        mockMvc.perform(get("/api/users/lookup").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    private CreateUserRequest request(String firstName, String lastName, String email, String phoneNumber) {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setFirstName(firstName);
+        request.setLastName(lastName);
+        request.setEmail(email);
+        request.setPhoneNumber(phoneNumber);
+        request.setStatus(UserStatus.ACTIVE);
+        return request;
+    }
+}
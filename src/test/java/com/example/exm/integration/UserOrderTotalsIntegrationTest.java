@@ -0,0 +1,242 @@
+package com.example.exm.integration;
+
+import com.example.exm.dto.request.BulkStatusUpdateRequest;
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.CursorPage;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.dto.response.UserResponse;
+import com.example.exm.entity.OrderStatus;
+import com.example.exm.entity.Product;
+import com.example.exm.entity.ProductStatus;
+import com.example.exm.entity.User;
+import com.example.exm.entity.UserStatus;
+import com.example.exm.repository.OrderRepository;
+import com.example.exm.repository.ProductRepository;
+import com.example.exm.repository.UserRepository;
+import com.example.exm.repository.custom.CustomUserRepository.OrderTotals;
+import com.example.exm.service.OrderService;
+import com.example.exm.service.UserService;
+import com.example.exm.util.JdbcStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * User order counts and lifetime spend come from aggregates kept on the user row, so rendering users
+ * never reads the orders table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcStatementCounter.class)
+class UserOrderTotalsIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("totals.buyer@example.com");
+
+        product = new Product();
+        product.setName("Totals Product");
+        product.setPrice(new BigDecimal("12.50"));
+        product.setStockQuantity(1_000);
+        product.setStatus(ProductStatus.ACTIVE);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrder_SingleAndBatch_AddToUserTotals() {
+        orderService.createOrder(order(user.getId(), 2));
+        orderService.createOrders(List.of(order(user.getId(), 1), order(user.getId(), 4)));
+
+        UserResponse response = userService.getUserById(user.getId());
+
+        assertThat(response.getTotalOrders()).isEqualTo(3);
+        assertThat(response.getLifetimeSpend()).isEqualByComparingTo("87.50");
+    }
+
+    @Test
+    void cancelOrder_WithdrawsSpendButKeepsOrderCount() {
+        OrderResponse kept = orderService.createOrder(order(user.getId(), 2));
+        OrderResponse cancelled = orderService.createOrder(order(user.getId(), 3));
+
+        orderService.cancelOrder(cancelled.getId());
+
+        UserResponse response = userService.getUserById(user.getId());
+        assertThat(response.getTotalOrders()).isEqualTo(2);
+        assertThat(response.getLifetimeSpend()).isEqualByComparingTo(kept.getTotalAmount());
+    }
+
+    @Test
+    void refundOrders_WithdrawSpendOnce() {
+        Long first = deliveredOrder(1);
+        Long second = deliveredOrder(2);
+
+        BulkStatusUpdateRequest refund = new BulkStatusUpdateRequest();
+        refund.setOrderIds(List.of(first, second));
+        refund.setStatus(OrderStatus.REFUNDED);
+        orderService.updateOrderStatuses(refund);
+        orderService.updateOrderStatuses(refund);
+
+        UserResponse response = userService.getUserById(user.getId());
+        assertThat(response.getTotalOrders()).isEqualTo(2);
+        assertThat(response.getLifetimeSpend()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void getAllUsers_DoesNotReadOrders() {
+        List<User> buyers = new ArrayList<>(List.of(user));
+        for (int i = 0; i < 4; i++) {
+            buyers.add(createUser("totals.buyer" + i + "@example.com"));
+        }
+        buyers.forEach(buyer -> {
+            for (int i = 0; i < 10; i++) {
+                orderService.createOrder(order(buyer.getId(), 1));
+            }
+        });
+
+        JdbcStatementCounter.reset();
+        Page<UserResponse> page = userService.getAllUsers(PageRequest.of(0, 3));
+        long statements = JdbcStatementCounter.getRoundTrips();
+
+        // One page query and one count, nothing per user
+        assertThat(statements).isEqualTo(2);
+        assertThat(page.getContent()).allSatisfy(response -> {
+            assertThat(response.getTotalOrders()).isEqualTo(10);
+            assertThat(response.getLifetimeSpend()).isEqualByComparingTo("125.00");
+        });
+    }
+
+    @Test
+    void statusTransitions_KeepActiveOrderCountInStepWithOrders() {
+        Long shipped = orderService.createOrder(order(user.getId(), 1)).getId();
+        Long cancelled = orderService.createOrder(order(user.getId(), 1)).getId();
+        User idle = createUser("totals.idle@example.com");
+        orderService.cancelOrder(orderService.createOrder(order(idle.getId(), 1)).getId());
+
+        assertThat(userService.getUserById(user.getId()).getActiveOrders()).isEqualTo(2);
+        assertThat(userService.hasActiveOrders(idle.getId())).isFalse();
+
+        for (OrderStatus status : List.of(OrderStatus.CONFIRMED, OrderStatus.PROCESSING)) {
+            orderService.updateOrderStatus(shipped, status);
+        }
+        assertThat(userService.getUserById(user.getId()).getActiveOrders()).isEqualTo(2);
+
+        BulkStatusUpdateRequest ship = new BulkStatusUpdateRequest();
+        ship.setOrderIds(List.of(shipped));
+        ship.setStatus(OrderStatus.SHIPPED);
+        orderService.updateOrderStatuses(ship);
+        assertThat(userService.getUserById(user.getId()).getActiveOrders()).isEqualTo(1);
+        assertThat(userService.getUsersWithActiveOrders(PageRequest.of(0, 10)).getContent())
+                .extracting(UserResponse::getId)
+                .containsExactlyElementsOf(userService.getUsersWithActiveOrders().stream().map(UserResponse::getId).toList())
+                .containsExactly(user.getId());
+
+        orderService.cancelOrder(cancelled);
+        assertThat(userService.hasActiveOrders(user.getId())).isFalse();
+        assertThat(userService.getUsersWithActiveOrders(PageRequest.of(0, 10))).isEmpty();
+        assertThat(userService.getUsersWithActiveOrders()).isEmpty();
+    }
+
+    @Test
+    void scrollRecentlyActiveUsers_PagesByLastOrderDateNewestFirst() {
+        User second = createUser("totals.second@example.com");
+        User third = createUser("totals.third@example.com");
+        User lapsed = createUser("totals.lapsed@example.com");
+        orderService.createOrder(order(user.getId(), 1));
+        orderService.createOrder(order(second.getId(), 1));
+        orderService.createOrders(List.of(order(third.getId(), 1), order(third.getId(), 1)));
+
+        LocalDateTime userLastOrder = userRepository.findById(user.getId()).orElseThrow().getLastOrderAt();
+        transactionTemplate.executeWithoutResult(status -> userRepository.addOrderTotals(new TreeMap<>(Map.of(
+                lapsed.getId(), new OrderTotals(0, BigDecimal.ZERO, 0, LocalDateTime.now().minusDays(40)),
+                // An older order date must not move last_order_at backwards
+                user.getId(), new OrderTotals(0, BigDecimal.ZERO, 0, LocalDateTime.now().minusDays(5))))));
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getLastOrderAt()).isEqualTo(userLastOrder);
+
+        CursorPage<UserResponse> first = userService.scrollRecentlyActiveUsers(30, null, 2);
+        CursorPage<UserResponse> rest = userService.scrollRecentlyActiveUsers(30, first.getNextCursor(), 2);
+
+        assertThat(first.getContent()).extracting(UserResponse::getId).containsExactly(third.getId(), second.getId());
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(rest.getContent()).extracting(UserResponse::getId).containsExactly(user.getId());
+        assertThat(rest.isHasNext()).isFalse();
+
+        assertThat(userService.scrollRecentlyActiveUsers(60, null, 10).getContent())
+                .extracting(UserResponse::getId)
+                .containsExactly(third.getId(), second.getId(), user.getId(), lapsed.getId());
+        assertThat(userRepository.findUsersWithRecentActivity(30, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+    }
+
+    private Long deliveredOrder(int quantity) {
+        Long id = orderService.createOrder(order(user.getId(), quantity)).getId();
+        for (OrderStatus status : List.of(OrderStatus.CONFIRMED, OrderStatus.PROCESSING,
+                OrderStatus.SHIPPED, OrderStatus.DELIVERED)) {
+            orderService.updateOrderStatus(id, status);
+        }
+        return id;
+    }
+
+    private User createUser(String email) {
+        User buyer = new User();
+        buyer.setFirstName("Totals");
+        buyer.setLastName("Buyer");
+        buyer.setEmail(email);
+        buyer.setStatus(UserStatus.ACTIVE);
+        return userRepository.save(buyer);
+    }
+
+    private CreateOrderRequest order(Long userId, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(userId);
+        request.setShippingAddress("1 Totals Road");
+        request.setOrderItems(new ArrayList<>(List.of(item)));
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.exm.leaderboard;
+
+import com.example.exm.repository.UserRepository;
+import com.example.exm.repository.custom.CustomUserRepository.OrderTotals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerLeaderboardTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void rebuild_ReplaysDeltasAppliedWhileReading() {
+        // Given
+        CustomerLeaderboard leaderboard = new CustomerLeaderboard(userRepository, true);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 3L, new BigDecimal("30.00")});
+        rows.add(new Object[]{2L, 2L, new BigDecimal("20.00")});
+        when(userRepository.findOrderTotals()).thenAnswer(invocation -> {
+            // Commits after the read started, so the rows above do not include it
+            leaderboard.recordDeltas(Map.of(2L, new OrderTotals(2, new BigDecimal("50.00"), 2, null)));
+            return rows;
+        });
+        assertFalse(leaderboard.isReady());
+
+        // When
+        leaderboard.rebuild();
+
+        // Then
+        assertTrue(leaderboard.isReady());
+        assertEquals(List.of(2L, 1L), leaderboard.topUserIds(CustomerRanking.ORDERS, 10));
+        assertEquals(List.of(2L, 1L), leaderboard.topUserIds(CustomerRanking.SPEND, 10));
+    }
+
+    @Test
+    void rebuild_FailedRead_KeepsApplyingDeltasToTheCurrentRankings() {
+        // Given
+        CustomerLeaderboard leaderboard = new CustomerLeaderboard(userRepository, true);
+        when(userRepository.findOrderTotals()).thenThrow(new IllegalStateException("connection lost"));
+
+        // When
+        assertThrows(IllegalStateException.class, leaderboard::rebuild);
+        leaderboard.recordDeltas(Map.of(1L, new OrderTotals(1, new BigDecimal("10.00"), 1, null)));
+
+        // Then
+        assertFalse(leaderboard.isReady());
+        assertEquals(List.of(1L), leaderboard.topUserIds(CustomerRanking.ORDERS, 10));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.exm.search;
+
+import com.example.exm.entity.ProductStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetIndexTest {
+
+    private static final BigDecimal[] BUCKETS = {new BigDecimal("25"), new BigDecimal("100")};
+    private static final int PRODUCT_COUNT = 20_000;
+
+    @Test
+    void count_AppliesEveryFilterButTheFacetsOwn() {
+        // Given
+        FacetIndex index = new FacetIndex(BUCKETS, 16);
+        index.put(1, "Kitchen", "Acme", ProductStatus.ACTIVE, new BigDecimal("20.00"), 5);
+        index.put(2, "Kitchen", "Globex", ProductStatus.ACTIVE, new BigDecimal("25.00"), 0);
+        index.put(3, "Kitchen", "Acme", ProductStatus.INACTIVE, new BigDecimal("150.00"), 3);
+        index.put(4, "Garden", "Acme", ProductStatus.ACTIVE, new BigDecimal("99.99"), 1);
+        index.put(5, null, null, ProductStatus.DISCONTINUED, new BigDecimal("10.00"), 0);
+
+        // When
+        FacetCounts counts = index.count(new FacetFilter("Kitchen", "Acme", null, null, null, false));
+
+        // Then
+        assertEquals(2, counts.total());
+        assertEquals(Map.of("Kitchen", 2, "Garden", 1), counts.categories());
+        assertEquals(Map.of("Acme", 2, "Globex", 1), counts.brands());
+        assertEquals(Map.of("ACTIVE", 1, "INACTIVE", 1), counts.statuses());
+        assertEquals(ordered("0-25", 1, "25-100", 0, "100+", 1), counts.priceBuckets());
+    }
+
+    @Test
+    void count_FiltersOnExactPriceRangeAndStock() {
+        // Given
+        FacetIndex index = new FacetIndex(BUCKETS, 16);
+        index.put(1, "Kitchen", "Acme", ProductStatus.ACTIVE, new BigDecimal("20.00"), 5);
+        index.put(2, "Kitchen", "Globex", ProductStatus.ACTIVE, new BigDecimal("25.00"), 0);
+        index.put(3, "Kitchen", "Acme", ProductStatus.ACTIVE, new BigDecimal("60.00"), 3);
+        index.put(4, "Garden", "Acme", ProductStatus.ACTIVE, new BigDecimal("99.99"), 1);
+
+        // When
+        FacetCounts range = index.count(new FacetFilter(null, null, null, new BigDecimal("24.99"),
+                new BigDecimal("60"), false));
+        FacetCounts inStock = index.count(new FacetFilter(null, null, null, new BigDecimal("24.99"),
+                new BigDecimal("60"), true));
+
+        // Then
+        assertEquals(2, range.total());
+        assertEquals(Map.of("Acme", 1, "Globex", 1), range.brands());
+        assertEquals(1, inStock.total());
+        assertEquals(ordered("0-25", 1, "25-100", 2, "100+", 0), inStock.priceBuckets());
+    }
+
+    @Test
+    void put_AndChangeStock_MoveProductsBetweenSets() {
+        // Given
+        FacetIndex index = new FacetIndex(BUCKETS, 16);
+        for (long id = 1; id <= 100; id++) {
+            index.put(id, "Kitchen", "Acme", ProductStatus.ACTIVE, new BigDecimal("10.00"), 1);
+        }
+        index.trim();
+
+        // When
+        index.put(7, "Garden", "Acme", ProductStatus.DISCONTINUED, new BigDecimal("300.00"), 1);
+        index.changeStock(8, -1);
+        index.changeStock(9, -1);
+        index.changeStock(9, 2);
+        index.changeStock(1_000, 5);
+
+        // Then
+        FacetCounts counts = index.count(new FacetFilter(null, null, null, null, null, true));
+        assertEquals(99, counts.total());
+        assertEquals(Map.of("Kitchen", 98, "Garden", 1), counts.categories());
+        assertEquals(Map.of("ACTIVE", 98, "DISCONTINUED", 1), counts.statuses());
+        assertEquals(ordered("0-25", 98, "25-100", 0, "100+", 1), counts.priceBuckets());
+        assertEquals(100, index.size());
+    }
+
+    @Test
+    void count_SyntheticProducts_MatchesCountingEveryProduct() {
+        // Given
+        Random random = new Random(5);
+        BigDecimal[] buckets = Arrays.stream(new String[]{"25", "50", "100", "250", "500", "1000"})
+                .map(BigDecimal::new).toArray(BigDecimal[]::new);
+        FacetIndex index = new FacetIndex(buckets, PRODUCT_COUNT);
+        ProductStatus[] statuses = ProductStatus.values();
+        String[] categories = new String[PRODUCT_COUNT];
+        String[] brands = new String[PRODUCT_COUNT];
+        ProductStatus[] productStatuses = new ProductStatus[PRODUCT_COUNT];
+        BigDecimal[] prices = new BigDecimal[PRODUCT_COUNT];
+        int[] stock = new int[PRODUCT_COUNT];
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            // Skewed like a real catalog: a few large categories and brands, and a long tail
+            categories[i] = "category-" + (int) Math.min(39, Math.abs(random.nextGaussian()) * 10);
+            brands[i] = "brand-" + (int) Math.min(1_999, Math.abs(random.nextGaussian()) * 300);
+            productStatuses[i] = statuses[random.nextInt(statuses.length)];
+            prices[i] = BigDecimal.valueOf(random.nextInt(200_000), 2);
+            stock[i] = random.nextInt(5);
+            index.put(i + 1, categories[i], brands[i], productStatuses[i], prices[i], stock[i]);
+        }
+        index.trim();
+
+        FacetFilter[] filters = {
+                new FacetFilter(null, null, null, null, null, false),
+                new FacetFilter("category-3", null, ProductStatus.ACTIVE, null, null, true),
+                new FacetFilter(null, "brand-12", null, new BigDecimal("30"), new BigDecimal("420.50"), false),
+                new FacetFilter("category-1", "brand-70", null, null, new BigDecimal("99.99"), true)};
+
+        for (FacetFilter filter : filters) {
+            // When
+            FacetCounts counts = index.count(filter);
+
+            // Then: the total applies every filter, the category counts every filter but the category
+            long total = 0;
+            Map<String, Integer> categoryCounts = new HashMap<>();
+            for (int i = 0; i < PRODUCT_COUNT; i++) {
+                boolean others = (filter.brand() == null || filter.brand().equals(brands[i]))
+                        && (filter.status() == null || filter.status() == productStatuses[i])
+                        && (filter.minPrice() == null || prices[i].compareTo(filter.minPrice()) >= 0)
+                        && (filter.maxPrice() == null || prices[i].compareTo(filter.maxPrice()) <= 0)
+                        && (!filter.inStock() || stock[i] > 0);
+                if (others) {
+                    categoryCounts.merge(categories[i], 1, Integer::sum);
+                    if (filter.category() == null || filter.category().equals(categories[i])) {
+                        total++;
+                    }
+                }
+            }
+            assertEquals(total, counts.total());
+            assertEquals(categoryCounts, counts.categories());
+        }
+    }
+
+    private static Map<String, Integer> ordered(Object... labelsAndCounts) {
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        for (int i = 0; i < labelsAndCounts.length; i += 2) {
+            ordered.put((String) labelsAndCounts[i], (Integer) labelsAndCounts[i + 1]);
+        }
+        return ordered;
+    }
+}
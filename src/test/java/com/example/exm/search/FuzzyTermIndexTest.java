@@ -0,0 +1,132 @@
+package com.example.exm.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyTermIndexTest {
+
+    private static final int USER_COUNT = 20_000;
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+            "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Charles", "Karen", "José", "Zoë", "Mohammed", "Wei", "Aiko", "Olga", "Pierre", "Ingrid"};
+    private static final String[] SYLLABLES = {"an", "ber", "cor", "dal", "en", "fitz", "gar", "hol", "is", "jen",
+            "kov", "lin", "mar", "nor", "ol", "per", "quin", "ros", "sch", "tan", "ul", "vik", "wal", "yam", "zel"};
+
+    @Test
+    void search_MatchesNamesEmailsAndPhonesDespiteTypos() {
+        // Given
+        FuzzyTermIndex index = new FuzzyTermIndex(16);
+        put(index, 1, "Jonathan", "Smith", "jsmith82@example.com", "+1 (555) 123-4567");
+        put(index, 2, "John", "Smyth", "john.smyth@example.com", "555-987-6543");
+        put(index, 3, "Johanna", "Schmidt", "jo.schmidt@example.org", null);
+        put(index, 4, "José", "Álvarez", "jalvarez@example.com", "+34 600 111 222");
+
+        // When & Then
+        assertEquals(List.of(1L, 2L), ids(index, "smith"));
+        assertEquals(List.of(2L, 1L), ids(index, "smyth"));
+        // A transposition is one edit
+        assertEquals(List.of(2L), ids(index, "jhon smyht"));
+        assertEquals(List.of(1L), ids(index, "jsmith"));
+        assertEquals(List.of(1L), ids(index, "jsmith82@example.com"));
+        assertEquals(List.of(2L), ids(index, "john.smyth"));
+        assertEquals(List.of(3L), ids(index, "schmit"));
+        assertEquals(List.of(4L), ids(index, "jose alvarez"));
+        assertEquals(List.of(1L), ids(index, "(555) 123-4567"));
+        assertEquals(List.of(1L), ids(index, "1234567"));
+        assertEquals(List.of(2L), ids(index, "987-6543"));
+        assertEquals(List.of(), ids(index, "smith schmidt"));
+        assertEquals(List.of(), ids(index, "xq"));
+        assertSame(SearchHits.EMPTY, lookup(index, "  --  "));
+    }
+
+    @Test
+    void put_RetiresTheOldTermsOfAnUpdatedUser() {
+        // Given
+        FuzzyTermIndex index = new FuzzyTermIndex(16);
+        put(index, 1, "Ada", "Lovelace", "ada@example.com", null);
+        put(index, 2, "Ada", "Byron", "byron@example.com", null);
+
+        // When
+        put(index, 1, "Ada", "King", "ada.king@example.com", null);
+        index.remove(2);
+
+        // Then
+        assertEquals(List.of(), ids(index, "lovelace"));
+        assertEquals(List.of(1L), ids(index, "ada"));
+        assertEquals(List.of(1L), ids(index, "kinq ada"));
+        assertEquals(1, index.size());
+        assertEquals(2, index.retiredCount());
+    }
+
+    @Test
+    void search_PagesByScoreThenId() {
+        // Given
+        FuzzyTermIndex index = new FuzzyTermIndex(16);
+        for (long id = 1; id <= 25; id++) {
+            put(index, id, "Maria", id % 2 == 0 ? "Garcia" : "Garcya", "maria" + id + "@example.com", null);
+        }
+
+        // When
+        SearchHits first = lookup(index, "maria garcia", 0, 10);
+        SearchHits last = lookup(index, "maria garcia", 20, 10);
+
+        // Then
+        assertEquals(25, first.total());
+        assertEquals(List.of(2L, 4L, 6L, 8L, 10L, 12L, 14L, 16L, 18L, 20L), first.ids());
+        assertEquals(List.of(17L, 19L, 21L, 23L, 25L), last.ids());
+    }
+
+    @Test
+    void search_SyntheticUsers_FindsTyposAndFragments() {
+        // Given
+        Random random = new Random(11);
+        FuzzyTermIndex index = new FuzzyTermIndex(USER_COUNT);
+        for (long id = 1; id <= USER_COUNT; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = lastName(random);
+            String phone = String.format("+1 (%03d) %03d-%04d", 200 + random.nextInt(800), random.nextInt(1000),
+                    random.nextInt(10_000));
+            put(index, id, first, last, first.toLowerCase() + "." + last.toLowerCase() + id + "@example.com", phone);
+        }
+        index.trim();
+
+        // When
+        SearchHits misspelled = lookup(index, "jenifer");
+        SearchHits fragment = lookup(index, "555");
+
+        // Then
+        assertEquals(USER_COUNT, index.size());
+        assertTrue(misspelled.total() > 0);
+        assertTrue(fragment.total() > 0);
+    }
+
+    private static String lastName(Random random) {
+        int syllables = 2 + random.nextInt(2);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private static void put(FuzzyTermIndex index, long id, String first, String last, String email, String phone) {
+        index.put(id, UserLookupTerms.nameTerms(first, last), UserLookupTerms.contactTerms(email, phone));
+    }
+
+    private static SearchHits lookup(FuzzyTermIndex index, String query) {
+        return lookup(index, query, 0, 20);
+    }
+
+    private static SearchHits lookup(FuzzyTermIndex index, String query, long offset, int limit) {
+        return index.search(UserLookupTerms.queryWords(query), offset, limit);
+    }
+
+    private static List<Long> ids(FuzzyTermIndex index, String query) {
+        return lookup(index, query).ids();
+    }
+}
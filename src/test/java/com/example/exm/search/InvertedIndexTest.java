@@ -0,0 +1,104 @@
+package com.example.exm.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private static final int CATALOG_SIZE = 20_000;
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark", "Wayne"};
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Home", "Garden", "Toys", "Sports"};
+    private static final String[] NOUNS = {"phone", "charger", "lamp", "kettle", "novel", "ball", "drone", "speaker",
+            "cable", "chair", "tent", "puzzle", "watch", "camera", "blender", "router"};
+    private static final String[] ADJECTIVES = {"wireless", "compact", "deluxe", "portable", "smart", "classic",
+            "ultra", "mini", "pro", "eco"};
+
+    @Test
+    void search_RanksNameMatchesAboveDescriptionAndSubstringMatches() {
+        // Given
+        InvertedIndex index = new InvertedIndex(16);
+        index.put(1, "Leather wallet", "Hooli", "Accessories", "Fits any smartphone");
+        index.put(2, "Smartphone stand", "Acme", "Accessories", "Aluminium");
+        index.put(3, "Phone case", "Acme", "Accessories", "Protects your phone");
+        index.put(4, "Desk lamp", "Acme", "Home", "Warm light");
+
+        // When & Then: whole word in the name and description beats substring in the name
+        assertEquals(List.of(3L, 2L), index.search("phone", 0, 10).ids());
+        // Every token must match
+        assertEquals(List.of(3L, 2L), index.search("acme PHONE", 0, 10).ids());
+        assertEquals(List.of(), index.search("hooli phone", 0, 10).ids());
+        // Short tokens only match whole words
+        assertEquals(List.of(), index.search("ph", 0, 10).ids());
+        assertEquals(List.of(1L), index.search("any", 0, 10).ids());
+        assertSame(SearchHits.EMPTY, index.search("  --  ", 0, 10));
+    }
+
+    @Test
+    void search_PagesByOffsetAndReportsTheTotal() {
+        // Given
+        InvertedIndex index = new InvertedIndex(16);
+        for (long id = 1; id <= 25; id++) {
+            index.put(id, "Cable " + id, "Acme", "Electronics", null);
+        }
+
+        // When
+        SearchHits second = index.search("cable", 10, 10);
+        SearchHits last = index.search("cable", 20, 10);
+
+        // Then: equal scores fall back to product id
+        assertEquals(25, second.total());
+        assertEquals(List.of(11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L), second.ids());
+        assertEquals(List.of(21L, 22L, 23L, 24L, 25L), last.ids());
+        assertEquals(List.of(), index.search("cable", 40, 10).ids());
+    }
+
+    @Test
+    void put_ReplacesWhatWasIndexedForTheProduct() {
+        // Given
+        InvertedIndex index = new InvertedIndex(16);
+        index.put(1, "Garden hose", "Acme", "Garden", null);
+        index.put(2, "Garden chair", "Acme", "Garden", null);
+
+        // When
+        index.put(1, "Kitchen kettle", "Acme", "Home", null);
+        index.remove(2);
+
+        // Then
+        assertEquals(List.of(), index.search("garden", 0, 10).ids());
+        assertEquals(0, index.search("hose", 0, 10).total());
+        assertEquals(List.of(1L), index.search("kett", 0, 10).ids());
+        assertEquals(1, index.size());
+        assertEquals(2, index.retiredCount());
+    }
+
+    @Test
+    void search_SyntheticCatalog_FindsIdsAndCommonWords() {
+        // Given
+        Random random = new Random(42);
+        InvertedIndex index = new InvertedIndex(CATALOG_SIZE);
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            String noun = pick(random, NOUNS);
+            index.put(id, pick(random, ADJECTIVES) + " " + noun + " " + id, pick(random, BRANDS),
+                    pick(random, CATEGORIES), "A " + pick(random, ADJECTIVES) + " " + noun + " for every day");
+        }
+        index.trim();
+
+        // When
+        SearchHits byId = index.search("12345", 0, 20);
+        SearchHits phones = index.search("phone", 0, 20);
+
+        // Then
+        assertEquals(12345L, byId.ids().get(0));
+        assertEquals(20, phones.ids().size());
+        assertTrue(phones.total() > CATALOG_SIZE / NOUNS.length / 2);
+        assertTrue(index.search("wireless charger", 0, 20).total() > 0);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.exm.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTest {
+
+    private static final int CATALOG_SIZE = 20_000;
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark", "Wayne"};
+    private static final String[] NOUNS = {"Phone", "Charger", "Lamp", "Kettle", "Novel", "Ball", "Drone", "Speaker",
+            "Cable", "Chair", "Tent", "Puzzle", "Watch", "Camera", "Blender", "Router"};
+
+    @Test
+    void suggest_RanksByPopularityThenName() {
+        // Given
+        SuggestionTrie trie = new SuggestionTrie(3, 16);
+        trie.put(1, "Apple Pie Tin", "Bakeware", 5);
+        trie.put(2, "Apple iPhone 13", "Apple", 40);
+        trie.put(3, "Applesauce", null, 5);
+        trie.put(4, "Apricot Jam", null, 90);
+        trie.put(5, "Banana Hook", "Apple Farm", 1);
+
+        // When & Then
+        assertEquals(List.of(4L, 2L, 1L), ids(trie.suggest("ap", 10)));
+        assertEquals(List.of(2L, 1L, 3L), ids(trie.suggest("APPL", 10)));
+        // Mid-edge prefixes and brands match too; a trailing space ends the word
+        assertEquals(List.of(2L, 1L, 5L), ids(trie.suggest("apple ", 10)));
+        assertEquals(List.of(2L), ids(trie.suggest("apple  iph", 10)));
+        assertEquals(List.of(1L), ids(trie.suggest("bake", 10)));
+        assertEquals(List.of(2L), ids(trie.suggest("apple", 1)));
+        assertEquals(List.of(), trie.suggest("apples pie", 10));
+        assertEquals(List.of(), trie.suggest("  ", 10));
+        assertEquals("Apple iPhone 13", trie.suggest("apple i", 10).get(0).name());
+    }
+
+    @Test
+    void remove_RefillsTheListsThatHeldTheProduct() {
+        // Given
+        SuggestionTrie trie = new SuggestionTrie(2, 16);
+        trie.put(1, "Garden Hose", "Acme", 10);
+        trie.put(2, "Garden Chair", "Acme", 8);
+        trie.put(3, "Garden Gnome", "Acme", 6);
+        trie.put(4, "Gardening Gloves", null, 1);
+
+        // When
+        trie.remove(1);
+        trie.put(2, "Patio Chair", "Acme", trie.popularity(2));
+
+        // Then
+        assertEquals(List.of(3L, 4L), ids(trie.suggest("garden", 10)));
+        assertEquals(List.of(2L), ids(trie.suggest("patio", 10)));
+        assertEquals(List.of(2L, 3L), ids(trie.suggest("acme", 10)));
+        assertEquals(List.of(), trie.suggest("garden h", 10));
+        assertEquals(3, trie.size());
+        assertEquals(8, trie.popularity(2));
+        assertEquals(0, trie.popularity(1));
+    }
+
+    @Test
+    void suggest_SyntheticCatalog_ReturnsFullPrefixMatches() {
+        // Given
+        Random random = new Random(7);
+        SuggestionTrie trie = new SuggestionTrie(10, CATALOG_SIZE);
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            trie.put(id, brand + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + Long.toString(id, 36), brand,
+                    random.nextInt(1_000));
+        }
+
+        // When
+        List<Suggestion> acme = trie.suggest("acme", 10);
+        List<Suggestion> acmeC = trie.suggest("acme c", 10);
+
+        // Then
+        assertEquals(CATALOG_SIZE, trie.size());
+        assertEquals(10, acme.size());
+        assertTrue(acmeC.stream().allMatch(s -> s.name().startsWith("Acme C")));
+        assertEquals(List.of(), trie.suggest("x", 10));
+    }
+
+    private static List<Long> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::productId).toList();
+    }
+}
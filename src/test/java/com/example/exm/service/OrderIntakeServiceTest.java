@@ -0,0 +1,241 @@
+package com.example.exm.service;
+
+import com.example.exm.dto.request.CreateOrderRequest;
+import com.example.exm.dto.response.BatchOrderResponse;
+import com.example.exm.dto.response.OrderResponse;
+import com.example.exm.exception.BusinessException;
+import com.example.exm.exception.OrderIntakeRejectedException;
+import com.example.exm.exception.OrderIntakeTimeoutException;
+import com.example.exm.service.impl.OrderIntakeServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderIntakeServiceImpl intake;
+
+    @AfterEach
+    void tearDown() {
+        if (intake != null && intake.isRunning()) {
+            intake.stop();
+        }
+    }
+
+    @Test
+    void submit_QueuedOrders_AreCommittedInGroups() throws Exception {
+        // Given
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> succeed(invocation.getArgument(0)));
+        intake = new OrderIntakeServiceImpl(orderService, 100, 10, Duration.ofSeconds(1), 1,
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        intake.start();
+
+        // When
+        List<CompletableFuture<OrderResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            responses.add(intake.submit(request((long) i)));
+        }
+
+        // Then
+        for (int i = 0; i < 30; i++) {
+            assertEquals((long) i, responses.get(i).get(5, TimeUnit.SECONDS).getUserId());
+        }
+        assertTrue(intake.getCommittedGroups() <= 4);
+    }
+
+    @Test
+    void createOrder_FailedOrder_ThrowsBusinessException() {
+        // Given
+        when(orderService.createOrders(anyList())).thenReturn(BatchOrderResponse.of(
+                List.of(BatchOrderResponse.OrderResult.failure(0, "Product not found with id: 9"))));
+        intake = new OrderIntakeServiceImpl(orderService, 10, 5, Duration.ofMillis(1), 1,
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        intake.start();
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class, () -> intake.createOrder(request(1L)));
+        assertEquals("Product not found with id: 9", exception.getMessage());
+    }
+
+    @Test
+    void submit_BufferFull_ThrowsOrderIntakeRejectedException() throws Exception {
+        // Given
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return succeed(invocation.getArgument(0));
+        });
+        intake = new OrderIntakeServiceImpl(orderService, 2, 1, Duration.ofMillis(1), 1,
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        intake.start();
+
+        // When
+        CompletableFuture<OrderResponse> first = intake.submit(request(1L));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        intake.submit(request(2L));
+        intake.submit(request(3L));
+
+        // Then
+        assertThrows(OrderIntakeRejectedException.class, () -> intake.submit(request(4L)));
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stop_DrainsBufferedOrdersBeforeExiting() throws Exception {
+        // Given
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return succeed(invocation.getArgument(0));
+        });
+        intake = new OrderIntakeServiceImpl(orderService, 1000, 5, Duration.ofMillis(1), 2,
+                Duration.ofSeconds(10), Duration.ofSeconds(5));
+        intake.start();
+        List<CompletableFuture<OrderResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            responses.add(intake.submit(request((long) i)));
+        }
+
+        // When
+        intake.stop();
+
+        // Then
+        for (CompletableFuture<OrderResponse> response : responses) {
+            assertTrue(response.isDone());
+            assertNotNull(response.get());
+        }
+        assertThrows(OrderIntakeRejectedException.class, () -> intake.submit(request(1L)));
+    }
+
+    @Test
+    void stop_WriterBusyPastShutdownTimeout_WaitsForItBeforeRejectingTheRest() throws Exception {
+        // Given: the writer ignores interrupts while it commits its group
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return succeed(invocation.getArgument(0));
+        });
+        intake = new OrderIntakeServiceImpl(orderService, 10, 1, Duration.ofMillis(1), 1,
+                Duration.ofMillis(50), Duration.ofSeconds(5));
+        intake.start();
+        CompletableFuture<OrderResponse> first = intake.submit(request(1L));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<OrderResponse>> buffered = List.of(intake.submit(request(2L)), intake.submit(request(3L)));
+
+        // When
+        intake.stop();
+
+        // Then
+        assertEquals(1L, first.getNow(null).getUserId());
+        for (CompletableFuture<OrderResponse> response : buffered) {
+            ExecutionException exception = assertThrows(ExecutionException.class, response::get);
+            assertInstanceOf(OrderIntakeRejectedException.class, exception.getCause());
+        }
+        verify(orderService, times(1)).createOrders(anyList());
+    }
+
+    @Test
+    void createOrder_StillBufferedAfterResponseTimeout_WithdrawsTheOrder() throws Exception {
+        // Given: the only writer is busy with another order
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return succeed(invocation.getArgument(0));
+        });
+        intake = new OrderIntakeServiceImpl(orderService, 10, 1, Duration.ofMillis(1), 1,
+                Duration.ofSeconds(5), Duration.ofMillis(50));
+        intake.start();
+        CompletableFuture<OrderResponse> first = intake.submit(request(1L));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        assertThrows(OrderIntakeTimeoutException.class, () -> intake.createOrder(request(2L)));
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        intake.stop();
+        verify(orderService, times(1)).createOrders(anyList());
+    }
+
+    @Test
+    void createOrder_TakenByWriterBeforeResponseTimeout_WaitsForItsGroup() {
+        // Given
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return succeed(invocation.getArgument(0));
+        });
+        intake = new OrderIntakeServiceImpl(orderService, 10, 1, Duration.ofMillis(1), 1,
+                Duration.ofSeconds(5), Duration.ofMillis(50));
+        intake.start();
+
+        // When
+        OrderResponse order = intake.createOrder(request(1L));
+
+        // Then
+        assertEquals(1L, order.getUserId());
+    }
+
+    @Test
+    void submit_WriterFailsWithError_CompletesTheWholeGroupExceptionally() throws Exception {
+        // Given
+        when(orderService.createOrders(anyList())).thenThrow(new StackOverflowError());
+        intake = new OrderIntakeServiceImpl(orderService, 10, 5, Duration.ofMillis(200), 1,
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        intake.start();
+
+        // When: the writer waits up to 200 ms for a group, so all three orders land in the one that fails
+        List<CompletableFuture<OrderResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(intake.submit(request((long) i)));
+        }
+
+        // Then
+        for (CompletableFuture<OrderResponse> response : responses) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> response.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, exception.getCause());
+        }
+    }
+
+    private static BatchOrderResponse succeed(List<CreateOrderRequest> requests) {
+        return BatchOrderResponse.of(IntStream.range(0, requests.size())
+                .mapToObj(index -> {
+                    OrderResponse order = new OrderResponse();
+                    order.setUserId(requests.get(index).getUserId());
+                    return BatchOrderResponse.OrderResult.success(index, order);
+                })
+                .toList());
+    }
+
+    private static CreateOrderRequest request(Long userId) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(userId);
+        return request;
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.exm.service;
 
+import com.example.exm.analytics.OrderAnalyticsStore;
 import com.example.exm.dto.mapper.OrderMapper;
 import com.example.exm.dto.request.CreateOrderRequest;
 import com.example.exm.dto.response.OrderResponse;
 import com.example.exm.entity.*;
 import com.example.exm.exception.BusinessException;
+import com.example.exm.exception.OrderStatusConflictException;
 import com.example.exm.exception.ResourceNotFoundException;
+import com.example.exm.outbox.OutboxRecorder;
+import com.example.exm.repository.OrderItemRepository;
 import com.example.exm.repository.OrderRepository;
 import com.example.exm.service.OrderItemService;
 import com.example.exm.service.ProductService;
@@ -23,7 +27,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +43,9 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
     @Mock
     private OrderMapper orderMapper;
 
@@ -52,6 +61,15 @@ class OrderServiceTest {
     @Mock
     private OrderItemService orderItemService;
 
+    @Mock
+    private OutboxRecorder outboxRecorder;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private OrderAnalyticsStore orderAnalyticsStore;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -108,8 +126,7 @@ class OrderServiceTest {
     void createOrder_Success() {
         // Given
         when(userService.findUserById(1L)).thenReturn(testUser);
-        when(productService.isProductInStock(1L, 2)).thenReturn(true);
-        when(productService.findProductById(1L)).thenReturn(testProduct);
+        when(productService.reserveStock(Map.of(1L, 2))).thenReturn(Map.of(1L, testProduct));
         when(orderNumberGenerator.generateOrderNumber()).thenReturn("ORD20240101120000001");
         when(orderMapper.toEntity(createOrderRequest)).thenReturn(testOrder);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
@@ -122,7 +139,8 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(orderResponse.getId(), result.getId());
         assertEquals(orderResponse.getOrderNumber(), result.getOrderNumber());
-        verify(productService).updateProductStock(1L, 48); // 50 - 2 = 48
+        verify(productService).reserveStock(Map.of(1L, 2));
+        verify(productService, never()).updateProductStock(any(), any());
         verify(orderRepository).save(any(Order.class));
     }
 
@@ -130,8 +148,8 @@ class OrderServiceTest {
     void createOrder_InsufficientStock_ThrowsBusinessException() {
         // Given
         when(userService.findUserById(1L)).thenReturn(testUser);
-        when(productService.isProductInStock(1L, 2)).thenReturn(false);
-        when(productService.findProductById(1L)).thenReturn(testProduct);
+        when(productService.reserveStock(Map.of(1L, 2))).thenThrow(new BusinessException(
+                "Product 'Test Product' is not available in requested quantity. Available: 1, Requested: 2"));
 
         // When & Then
         BusinessException exception = assertThrows(BusinessException.class,
@@ -144,7 +162,7 @@ class OrderServiceTest {
     @Test
     void getOrderById_Success() {
         // Given
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toResponse(testOrder)).thenReturn(orderResponse);
 
         // When
@@ -153,13 +171,13 @@ class OrderServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(orderResponse.getId(), result.getId());
-        verify(orderRepository).findById(1L);
+        verify(orderRepository).findWithDetailsById(1L);
     }
 
     @Test
     void getOrderById_NotFound_ThrowsResourceNotFoundException() {
         // Given
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
@@ -172,7 +190,9 @@ class OrderServiceTest {
     void updateOrderStatus_Success() {
         // Given
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(testOrder)).thenReturn(testOrder);
+        when(orderRepository.lockIdsByIdInAndStatusIn(List.of(1L), EnumSet.of(OrderStatus.PENDING)))
+                .thenReturn(List.of(1L));
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toResponse(testOrder)).thenReturn(orderResponse);
 
         // When
@@ -180,8 +200,37 @@ class OrderServiceTest {
 
         // Then
         assertNotNull(result);
-        assertEquals(OrderStatus.CONFIRMED, testOrder.getStatus());
-        verify(orderRepository).save(testOrder);
+        verify(orderRepository).updateStatus(List.of(1L), EnumSet.of(OrderStatus.PENDING), OrderStatus.CONFIRMED);
+        verify(revenueRollupService).recordStatusChanges(List.of(1L), EnumSet.of(OrderStatus.PENDING),
+                OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void updateOrderStatus_ChangedConcurrently_ThrowsOrderStatusConflictException() {
+        // Given: another request moved the order after it was read
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.lockIdsByIdInAndStatusIn(List.of(1L), EnumSet.of(OrderStatus.PENDING)))
+                .thenReturn(List.of());
+
+        // When & Then
+        assertThrows(OrderStatusConflictException.class,
+                () -> orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED));
+        verify(orderRepository, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(revenueRollupService, userService);
+    }
+
+    @Test
+    void updateOrderStatus_ToCancelledAfterConcurrentShipment_ThrowsOrderStatusConflictException() {
+        // Given: the order was PENDING when read, but has since been shipped
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.lockIdsByIdInAndStatusIn(List.of(1L), EnumSet.of(OrderStatus.PENDING)))
+                .thenReturn(List.of());
+
+        // When & Then
+        assertThrows(OrderStatusConflictException.class,
+                () -> orderService.updateOrderStatus(1L, OrderStatus.CANCELLED));
+        verify(orderRepository, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(productService, orderItemRepository);
     }
 
     @Test
@@ -195,27 +244,23 @@ class OrderServiceTest {
                 () -> orderService.updateOrderStatus(1L, OrderStatus.PENDING));
 
         assertTrue(exception.getMessage().contains("Invalid status transition"));
-        verify(orderRepository, never()).save(any());
+        verify(orderRepository, never()).updateStatus(any(), any(), any());
     }
 
     @Test
     void cancelOrder_Success() {
         // Given
-        OrderItem orderItem = new OrderItem();
-        orderItem.setProduct(testProduct);
-        orderItem.setQuantity(2);
-        testOrder.setOrderItems(Arrays.asList(orderItem));
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(testOrder)).thenReturn(testOrder);
+        when(orderRepository.lockIdsByIdInAndStatusIn(eq(List.of(1L)), any())).thenReturn(List.of(1L));
+        when(orderItemRepository.sumQuantitiesByProductForOrders(List.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 2L}));
 
         // When
         orderService.cancelOrder(1L);
 
         // Then
-        assertEquals(OrderStatus.CANCELLED, testOrder.getStatus());
-        verify(productService).updateProductStock(1L, 52); // 50 + 2 = 52 (restore stock)
-        verify(orderRepository).save(testOrder);
+        verify(productService).increaseStocks(Map.of(1L, 2)); // restore the ordered quantity
+        verify(orderRepository).updateStatus(eq(List.of(1L)), any(), eq(OrderStatus.CANCELLED));
+        verify(orderRepository, never()).findById(any());
     }
 
     @Test
@@ -229,13 +274,14 @@ class OrderServiceTest {
                 () -> orderService.cancelOrder(1L));
 
         assertEquals("Cannot cancel a delivered order", exception.getMessage());
-        verify(orderRepository, never()).save(any());
+        verify(orderRepository, never()).updateStatus(any(), any(), any());
+        verify(productService, never()).increaseStocks(any());
     }
 
     @Test
     void getOrderByOrderNumber_Success() {
         // Given
-        when(orderRepository.findByOrderNumber("ORD20240101120000001")).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithDetailsByOrderNumber("ORD20240101120000001")).thenReturn(Optional.of(testOrder));
         when(orderMapper.toResponse(testOrder)).thenReturn(orderResponse);
 
         // When
@@ -244,6 +290,6 @@ class OrderServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(orderResponse.getOrderNumber(), result.getOrderNumber());
-        verify(orderRepository).findByOrderNumber("ORD20240101120000001");
+        verify(orderRepository).findWithDetailsByOrderNumber("ORD20240101120000001");
     }
 }
\ No newline at end of file
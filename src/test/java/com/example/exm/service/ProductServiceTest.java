@@ -2,12 +2,21 @@ package com.example.exm.service;
 
 import com.example.exm.dto.mapper.ProductMapper;
 import com.example.exm.dto.request.CreateProductRequest;
+import com.example.exm.dto.request.ProductFilterRequest;
+import com.example.exm.dto.response.ProductFilterResponse;
 import com.example.exm.dto.response.ProductResponse;
+import com.example.exm.dto.response.ProductSuggestionResponse;
 import com.example.exm.entity.Product;
 import com.example.exm.entity.ProductStatus;
 import com.example.exm.exception.BusinessException;
 import com.example.exm.exception.ResourceNotFoundException;
+import com.example.exm.outbox.OutboxRecorder;
 import com.example.exm.repository.ProductRepository;
+import com.example.exm.search.FacetCounts;
+import com.example.exm.search.FacetFilter;
+import com.example.exm.search.ProductSearchIndex;
+import com.example.exm.search.SearchHits;
+import com.example.exm.search.Suggestion;
 import com.example.exm.service.impl.ProductServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,13 +24,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +53,12 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private OutboxRecorder outboxRecorder;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -142,6 +168,111 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any());
     }
 
+    @Test
+    void getAllProducts_UsesProjectionWithoutMapping() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse), pageable, 1);
+        when(productRepository.findAllResponses(pageable)).thenReturn(page);
+
+        Page<ProductResponse> result = productService.getAllProducts(pageable);
+
+        assertEquals(page, result);
+        verify(productRepository, never()).findAll(any(Pageable.class));
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void searchProducts_KeepsRelevanceOrderAndTotal() {
+        Pageable pageable = PageRequest.of(1, 2);
+        ProductResponse other = new ProductResponse();
+        other.setId(2L);
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search("phone", 2, 2)).thenReturn(new SearchHits(5, List.of(2L, 1L)));
+        when(productRepository.findResponsesByIdIn(List.of(2L, 1L))).thenReturn(List.of(productResponse, other));
+
+        Page<ProductResponse> result = productService.searchProducts("phone", pageable);
+
+        assertEquals(List.of(other, productResponse), result.getContent());
+        assertEquals(5, result.getTotalElements());
+        verify(productRepository, never()).findResponsesByNameContaining(any(), any());
+    }
+
+    @Test
+    void suggestProducts_ServedFromTheIndex() {
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.suggest("tes", 5)).thenReturn(List.of(new Suggestion(1L, "Test Product")));
+
+        List<ProductSuggestionResponse> result = productService.suggestProducts("tes", 5);
+
+        assertEquals(List.of(new ProductSuggestionResponse(1L, "Test Product")), result);
+        assertTrue(productService.suggestProducts(" ", 5).isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProducts_BeforeTheIndexIsBuilt_FallsBackToTheDatabase() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse), pageable, 1);
+        when(productSearchIndex.isReady()).thenReturn(false);
+        when(productRepository.findResponsesByNameContaining("Test", pageable)).thenReturn(page);
+
+        assertEquals(page, productService.searchProducts(" Test ", pageable));
+        verify(productSearchIndex, never()).search(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void filterProducts_PagesFromTheDatabaseAndCountsFacetsInMemory() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ProductFilterRequest filter = new ProductFilterRequest();
+        filter.setCategory("Electronics");
+        filter.setMinPrice(new BigDecimal("50"));
+        filter.setInStock(true);
+        FacetCounts counts = new FacetCounts(1, Map.of("Electronics", 1), Map.of("TestBrand", 1),
+                Map.of("ACTIVE", 1), Map.of("50-100", 1));
+        when(productRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(testProduct), pageable, 1));
+        when(productMapper.toResponse(testProduct)).thenReturn(productResponse);
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.countFacets(new FacetFilter("Electronics", null, null, new BigDecimal("50"), null, true)))
+                .thenReturn(counts);
+
+        ProductFilterResponse result = productService.filterProducts(filter, pageable);
+
+        assertEquals(List.of(productResponse), result.getProducts().getContent());
+        assertEquals(Map.of("Electronics", 1), result.getCategoryCounts());
+        assertEquals(Map.of("50-100", 1), result.getPriceBucketCounts());
+        assertTrue(result.isFacetCountsAvailable());
+    }
+
+    @Test
+    void filterProducts_IndexNotReady_ReturnsThePageWithEmptyCountsAndSaysSo() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(productRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(testProduct), pageable, 1));
+        when(productMapper.toResponse(testProduct)).thenReturn(productResponse);
+        when(productSearchIndex.isReady()).thenReturn(false);
+
+        ProductFilterResponse result = productService.filterProducts(new ProductFilterRequest(), pageable);
+
+        assertEquals(List.of(productResponse), result.getProducts().getContent());
+        assertFalse(result.isFacetCountsAvailable());
+        assertEquals(Map.of(), result.getCategoryCounts());
+        assertEquals(Map.of(), result.getBrandCounts());
+        assertEquals(Map.of(), result.getStatusCounts());
+        assertEquals(Map.of(), result.getPriceBucketCounts());
+        verify(productSearchIndex, never()).countFacets(any());
+    }
+
+    @Test
+    void filterProducts_MinimumAboveMaximumPrice_ThrowsBusinessException() {
+        ProductFilterRequest filter = new ProductFilterRequest();
+        filter.setMinPrice(new BigDecimal("100"));
+        filter.setMaxPrice(new BigDecimal("10"));
+
+        assertThrows(BusinessException.class, () -> productService.filterProducts(filter, PageRequest.of(0, 10)));
+        verifyNoInteractions(productRepository, productSearchIndex);
+    }
+
     @Test
     void isProductInStock_True() {
         // Given
@@ -192,4 +323,110 @@ class ProductServiceTest {
         assertEquals(ProductStatus.DISCONTINUED, testProduct.getStatus());
         verify(productRepository).save(testProduct);
     }
-}
\ No newline at end of file
+
+    @Test
+    void reserveStock_Success() {
+        // Given
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(productRepository.decrementStockIfAvailable(any())).thenReturn(new int[]{1});
+
+        // When
+        Map<Long, Product> result = productService.reserveStock(Map.of(1L, 5));
+
+        // Then
+        assertSame(testProduct, result.get(1L));
+        verify(productRepository).decrementStockIfAvailable(new TreeMap<>(Map.of(1L, 5)));
+    }
+
+    @Test
+    void reserveStock_InsufficientStock_ThrowsBusinessException() {
+        // Given
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> productService.reserveStock(Map.of(1L, 100)));
+
+        assertTrue(exception.getMessage().contains("not available in requested quantity"));
+        verify(productRepository, never()).decrementStockIfAvailable(any());
+    }
+
+    @Test
+    void reserveStock_UnknownProduct_ThrowsResourceNotFoundException() {
+        // Given
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> productService.reserveStock(Map.of(1L, 1)));
+        verify(productRepository, never()).decrementStockIfAvailable(any());
+    }
+
+    @Test
+    void reserveStock_ConcurrentlyDepleted_ThrowsBusinessException() {
+        // Given
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(productRepository.decrementStockIfAvailable(any())).thenReturn(new int[]{0});
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> productService.reserveStock(Map.of(1L, 5)));
+
+        assertTrue(exception.getMessage().contains("not available in requested quantity"));
+    }
+
+    @Test
+    void reserveStock_UnverifiableUpdateCount_ThrowsIllegalStateException() {
+        // Given
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(productRepository.decrementStockIfAvailable(any())).thenReturn(new int[]{Statement.SUCCESS_NO_INFO});
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> productService.reserveStock(Map.of(1L, 5)));
+        verify(productSearchIndex, never()).recordStockChanged(any());
+    }
+
+    @Test
+    void decreaseStock_Success() {
+        // Given
+        when(productRepository.decrementStockIfAvailable(1L, 5)).thenReturn(1);
+
+        // When & Then
+        assertTrue(productService.decreaseStock(1L, 5));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void decreaseStock_InsufficientStock_ReturnsFalse() {
+        // Given
+        when(productRepository.decrementStockIfAvailable(1L, 100)).thenReturn(0);
+
+        // When & Then
+        assertFalse(productService.decreaseStock(1L, 100));
+    }
+
+    @Test
+    void decreaseStock_NonPositiveQuantity_ThrowsBusinessException() {
+        // When & Then
+        assertThrows(BusinessException.class, () -> productService.decreaseStock(1L, 0));
+        verify(productRepository, never()).decrementStockIfAvailable(any(), any());
+    }
+
+    @Test
+    void increaseStock_UnknownProduct_ThrowsResourceNotFoundException() {
+        // Given
+        when(productRepository.incrementStock(1L, 3)).thenReturn(0);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> productService.increaseStock(1L, 3));
+    }
+
+    @Test
+    void increaseStocks_UnverifiableUpdateCount_ThrowsIllegalStateException() {
+        // Given
+        when(productRepository.incrementStock(any())).thenReturn(new int[]{1, Statement.SUCCESS_NO_INFO});
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> productService.increaseStocks(Map.of(1L, 3, 2L, 4)));
+        verify(productSearchIndex, never()).recordStockChanged(any());
+    }
+}
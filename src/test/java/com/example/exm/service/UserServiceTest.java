@@ -8,7 +8,11 @@ import com.example.exm.entity.User;
 import com.example.exm.entity.UserStatus;
 import com.example.exm.exception.BusinessException;
 import com.example.exm.exception.ResourceNotFoundException;
+import com.example.exm.leaderboard.CustomerLeaderboard;
+import com.example.exm.leaderboard.CustomerRanking;
 import com.example.exm.repository.UserRepository;
+import com.example.exm.search.SearchHits;
+import com.example.exm.search.UserLookupIndex;
 import com.example.exm.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +43,12 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CustomerLeaderboard customerLeaderboard;
+
+    @Mock
+    private UserLookupIndex userLookupIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -203,4 +213,71 @@ class UserServiceTest {
         assertTrue(result);
         verify(userRepository).existsByEmail("john.doe@example.com");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTopCustomers_KeepsLeaderboardOrder() {
+        // Given
+        User runnerUp = new User();
+        runnerUp.setId(2L);
+        UserResponse runnerUpResponse = new UserResponse();
+        runnerUpResponse.setId(2L);
+        when(customerLeaderboard.isReady()).thenReturn(true);
+        when(customerLeaderboard.topUserIds(CustomerRanking.SPEND, 2)).thenReturn(List.of(2L, 1L));
+        when(userRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testUser, runnerUp));
+        when(userMapper.toResponse(testUser)).thenReturn(userResponse);
+        when(userMapper.toResponse(runnerUp)).thenReturn(runnerUpResponse);
+
+        // When
+        List<UserResponse> result = userService.getTopCustomers(2, CustomerRanking.SPEND);
+
+        // Then
+        assertEquals(List.of(runnerUpResponse, userResponse), result);
+        verify(userRepository, never()).findTopCustomersByOrderCount(anyInt());
+    }
+
+    @Test
+    void getTopCustomers_LeaderboardNotReady_FallsBackToTheUsersTable() {
+        // Given
+        User noOrders = new User();
+        noOrders.setId(2L);
+        testUser.setOrderCount(3L);
+        when(userRepository.findTopCustomersBySpend(2)).thenReturn(List.of(testUser));
+        when(userRepository.findTopCustomersByOrderCount(2)).thenReturn(List.of(testUser, noOrders));
+        when(userMapper.toResponse(testUser)).thenReturn(userResponse);
+
+        // When & Then
+        assertEquals(List.of(userResponse), userService.getTopCustomers(2, CustomerRanking.SPEND));
+        assertEquals(List.of(userResponse), userService.getTopCustomers(2, CustomerRanking.ORDERS));
+        verify(customerLeaderboard, never()).topUserIds(any(), anyInt());
+    }
+
+    @Test
+    void lookupUsers_ServedFromTheIndexInRelevanceOrder() {
+        // Given
+        User runnerUp = new User();
+        runnerUp.setId(2L);
+        UserResponse runnerUpResponse = new UserResponse();
+        runnerUpResponse.setId(2L);
+        Pageable pageable = PageRequest.of(1, 2);
+        when(userLookupIndex.isReady()).thenReturn(true);
+        when(userLookupIndex.lookup("jhon doe", 2, 2)).thenReturn(new SearchHits(5, List.of(2L, 1L)));
+        when(userRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testUser, runnerUp));
+        when(userMapper.toResponse(testUser)).thenReturn(userResponse);
+        when(userMapper.toResponse(runnerUp)).thenReturn(runnerUpResponse);
+
+        // When
+        Page<UserResponse> result = userService.lookupUsers("jhon doe", pageable);
+
+        // Then
+        assertEquals(List.of(runnerUpResponse, userResponse), result.getContent());
+        assertEquals(5, result.getTotalElements());
+        verify(userRepository, never()).findByLookupFragment(any(), any());
+    }
+
+    @Test
+    void lookupUsers_BlankQuery_ThrowsBusinessException() {
+        // When & Then
+        assertThrows(BusinessException.class, () -> userService.lookupUsers("  ", PageRequest.of(0, 20)));
+        verifyNoInteractions(userLookupIndex, userRepository);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.exm.util;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test helper that wraps the application DataSource and counts JDBC round trips.
+ * Every execute call on a statement (including executeBatch) counts as one round trip,
+ * whether it was issued by Hibernate or by raw JDBC work. The SQL of prepared statements
+ * is kept too, so tests can check the shape of what was sent.
+ * Import it into a Spring Boot test with {@code @Import(JdbcStatementCounter.class)}.
+ */
+public class JdbcStatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final AtomicLong roundTrips = new AtomicLong();
+    private static final AtomicLong batches = new AtomicLong();
+    private static final List<String> preparedSql = new CopyOnWriteArrayList<>();
+
+    public static void reset() {
+        roundTrips.set(0);
+        batches.set(0);
+        preparedSql.clear();
+    }
+
+    public static long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public static long getBatches() {
+        return batches.get();
+    }
+
+    public static List<String> getPreparedSql() {
+        return List.copyOf(preparedSql);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrapConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrapConnection(super.getConnection(username, password));
+        }
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                preparedSql.add(sql);
+            }
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(statement, CallableStatement.class);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(statement, PreparedStatement.class);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(statement, Statement.class);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(
+                JdbcStatementCounter.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static <T extends Statement> T wrapStatement(T statement, Class<T> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                roundTrips.incrementAndGet();
+                if (method.getName().endsWith("Batch")) {
+                    batches.incrementAndGet();
+                }
+            }
+            return invoke(statement, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(
+                JdbcStatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.exm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderNumberGeneratorTest {
+
+    private static final long START_MILLIS = LocalDateTime.of(2025, 1, 31, 12, 45, 30, 123_000_000)
+            .toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @Test
+    void generateOrderNumber_RendersTimestampNodeAndSequence() {
+        // Given
+        MutableClock clock = new MutableClock(START_MILLIS);
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, clock);
+
+        // When
+        String first = generator.generateOrderNumber();
+        String second = generator.generateOrderNumber();
+
+        // Then
+        assertEquals("ORD202501311245301230070000", first);
+        assertEquals("ORD202501311245301230070001", second);
+    }
+
+    @Test
+    void generateOrderNumber_ClockMovesBackwards_StaysUniqueAndOrdered() {
+        // Given
+        MutableClock clock = new MutableClock(START_MILLIS);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock);
+        String beforeRewind = generator.generateOrderNumber();
+
+        // When
+        clock.set(START_MILLIS - 5_000);
+        String afterRewind = generator.generateOrderNumber();
+
+        // Then
+        assertTrue(afterRewind.compareTo(beforeRewind) > 0);
+        assertTrue(afterRewind.startsWith("ORD20250131124530123"));
+    }
+
+    @Test
+    void generateOrderNumber_SequenceExhausted_BorrowsNextMillisecond() {
+        // Given
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, new MutableClock(START_MILLIS));
+        Set<String> numbers = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 4097; i++) {
+            numbers.add(generator.generateOrderNumber());
+        }
+        String next = generator.generateOrderNumber();
+
+        // Then
+        assertEquals(4097, numbers.size());
+        assertEquals("ORD202501311245301240010001", next);
+    }
+
+    @Test
+    void generateOrderNumber_AcrossDaylightSavingFallBack_RendersUtcAndStaysUnique() {
+        // Given: 01:30 happens twice in New York on 2025-11-02, first in EDT and then in EST
+        ZoneId newYork = ZoneId.of("America/New_York");
+        Instant firstPass = Instant.parse("2025-11-02T05:30:00Z");
+        Instant secondPass = Instant.parse("2025-11-02T06:30:00Z");
+        assertEquals(firstPass.atZone(newYork).toLocalDateTime(), secondPass.atZone(newYork).toLocalDateTime());
+
+        // When: a node issues a number in each pass, e.g. after a restart
+        String first = new OrderNumberGenerator(1, Clock.fixed(firstPass, newYork)).generateOrderNumber();
+        String second = new OrderNumberGenerator(1, Clock.fixed(secondPass, newYork)).generateOrderNumber();
+
+        // Then
+        assertEquals("ORD202511020530000000010000", first);
+        assertEquals("ORD202511020630000000010000", second);
+        assertTrue(second.compareTo(first) > 0);
+    }
+
+    @Test
+    void constructor_NodeIdOutOfRange_ThrowsIllegalArgumentException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(1000, Clock.systemUTC()));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(-1, Clock.systemUTC()));
+    }
+
+    @Test
+    void generateOrderNumber_ConcurrentCallers_AreUniqueAcrossNodes() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 20_000;
+        OrderNumberGenerator nodeA = new OrderNumberGenerator(1);
+        OrderNumberGenerator nodeB = new OrderNumberGenerator(2);
+        Set<String> numbers = ConcurrentHashMap.newKeySet(2 * threads * perThread);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            OrderNumberGenerator generator = t % 2 == 0 ? nodeA : nodeB;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    numbers.add(generator.generateOrderNumber());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread, numbers.size());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis;
+
+        MutableClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        void set(long value) {
+            millis.set(value);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.exm.util;
+
+import com.example.exm.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatusTransitionsTest {
+
+    @Test
+    void isAllowed_FollowsTheOrderLifecycle() {
+        assertThat(OrderStatusTransitions.isAllowed(OrderStatus.PENDING, OrderStatus.CONFIRMED)).isTrue();
+        assertThat(OrderStatusTransitions.isAllowed(OrderStatus.PROCESSING, OrderStatus.SHIPPED)).isTrue();
+        assertThat(OrderStatusTransitions.isAllowed(OrderStatus.DELIVERED, OrderStatus.REFUNDED)).isTrue();
+
+        assertThat(OrderStatusTransitions.isAllowed(OrderStatus.PENDING, OrderStatus.SHIPPED)).isFalse();
+        assertThat(OrderStatusTransitions.isAllowed(OrderStatus.SHIPPED, OrderStatus.CANCELLED)).isFalse();
+        assertThat(OrderStatusTransitions.isAllowed(OrderStatus.CONFIRMED, OrderStatus.PENDING)).isFalse();
+    }
+
+    @Test
+    void isTerminal_OnlyForCancelledAndRefunded() {
+        assertThat(OrderStatus.values())
+                .filteredOn(OrderStatusTransitions::isTerminal)
+                .containsExactlyInAnyOrder(OrderStatus.CANCELLED, OrderStatus.REFUNDED);
+    }
+
+    @Test
+    void predecessorsOf_IsTheReverseOfTheTransitionTable() {
+        assertThat(OrderStatusTransitions.predecessorsOf(OrderStatus.CANCELLED))
+                .containsExactlyInAnyOrder(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PROCESSING);
+        assertThat(OrderStatusTransitions.predecessorsOf(OrderStatus.SHIPPED)).containsExactly(OrderStatus.PROCESSING);
+        assertThat(OrderStatusTransitions.predecessorsOf(OrderStatus.PENDING)).isEmpty();
+
+        for (OrderStatus to : OrderStatus.values()) {
+            for (OrderStatus from : OrderStatus.values()) {
+                assertThat(OrderStatusTransitions.predecessorsOf(to).contains(from))
+                        .isEqualTo(OrderStatusTransitions.isAllowed(from, to));
+            }
+        }
+    }
+}